@@ -0,0 +1,42 @@
+package team8.backend.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import team8.backend.dto.AccountDTO;
+import team8.backend.entity.Account;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping an account with its holdings and full transaction history to the API DTO,
+ * which every account endpoint and every trade response pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountDtoBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int holdings;
+
+    @Param({"0", "1000", "10000"})
+    public int transactions;
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = BenchFixtures.account(BenchFixtures.user("holder"), 10_000, holdings, transactions);
+    }
+
+    @Benchmark
+    public AccountDTO fromEntity() {
+        return AccountDTO.fromEntity(account);
+    }
+}
@@ -0,0 +1,186 @@
+package team8.backend.bench;
+
+import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Tournament;
+import team8.backend.entity.Transaction;
+import team8.backend.entity.User;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.TransactionRepository;
+import team8.backend.repository.UserRepository;
+import team8.backend.service.DashboardService;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entity builders and in-memory repository fakes shared by the benchmarks.
+ * Repositories are JDK proxies backed by hash maps, so a benchmark measures our code
+ * rather than Hibernate and the database; only the methods the hot paths call are implemented.
+ */
+final class BenchFixtures {
+
+    private static final AtomicLong IDS = new AtomicLong(1);
+
+    private BenchFixtures() {}
+
+    static String ticker(int i) {
+        return "T" + i;
+    }
+
+    static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@bench.local");
+        user.setPassword("x");
+        assignId(user);
+        return user;
+    }
+
+    /**
+     * Account with the given number of distinct holdings and transaction history length.
+     */
+    static Account account(User user, double cash, int holdings, int transactions) {
+        Account account = new Account(user, "bench", cash);
+        assignId(account);
+        for (int i = 0; i < holdings; i++) {
+            Holding holding = new Holding(account, ticker(i), 10 + i % 7, 50 + i % 13);
+            assignId(holding);
+            account.getHoldings().add(holding);
+        }
+        LocalDateTime start = LocalDateTime.now().minusDays(transactions);
+        for (int i = 0; i < transactions; i++) {
+            Transaction tx = new Transaction(account, i % 2 == 0 ? "buy" : "sell",
+                    ticker(i % Math.max(1, holdings)), 1, 50, start.plusMinutes(i));
+            assignId(tx);
+            account.addTransaction(tx);
+        }
+        return account;
+    }
+
+    /**
+     * Tournament whose participants each hold {@code holdingsPerParticipant} tickers out of a shared universe.
+     */
+    static Tournament tournament(int participants, int holdingsPerParticipant, int universe) {
+        Tournament tournament = new Tournament("bench", participants, 10_000,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(30));
+        assignId(tournament);
+        for (int p = 0; p < participants; p++) {
+            Account account = new Account(user("p" + p), "bench", 1_000 + p % 500);
+            assignId(account);
+            for (int h = 0; h < holdingsPerParticipant; h++) {
+                Holding holding = new Holding(account, ticker((p * 31 + h * 7) % universe), 1 + h, 40 + h);
+                assignId(holding);
+                account.getHoldings().add(holding);
+            }
+            tournament.addAccount(account);
+        }
+        return tournament;
+    }
+
+    static Map<String, Double> prices(int universe) {
+        Map<String, Double> prices = new HashMap<>();
+        for (int i = 0; i < universe; i++) {
+            prices.put(ticker(i), 45.0 + i % 20);
+        }
+        return prices;
+    }
+
+    static AccountRepository accountRepository(Map<Long, Account> accounts) {
+        return fake(AccountRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(accounts.get((Long) args[0]));
+            case "save", "saveAndFlush" -> args[0];
+            case "findParticipantsWithHoldings" -> accounts.values().stream()
+                    .filter(a -> a.getTournament() != null && args[0].equals(a.getTournament().getId()))
+                    .toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    static TransactionRepository transactionRepository() {
+        return fake(TransactionRepository.class, (method, args) -> switch (method) {
+            case "save" -> {
+                Transaction tx = (Transaction) args[0];
+                if (tx.getId() == null) assignId(tx);
+                yield tx;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * Holding repository indexed by (account id, ticker), like the lookup the database serves.
+     */
+    static HoldingRepository holdingRepository(Iterable<Account> accounts) {
+        Map<Long, Map<String, Holding>> index = new HashMap<>();
+        for (Account account : accounts) {
+            for (Holding holding : account.getHoldings()) {
+                index.computeIfAbsent(account.getId(), k -> new HashMap<>()).put(holding.getStockTicker(), holding);
+            }
+        }
+        return fake(HoldingRepository.class, (method, args) -> switch (method) {
+            case "findByAccountIdAndStockTicker" -> {
+                Map<String, Holding> byTicker = index.get((Long) args[0]);
+                yield byTicker != null ? byTicker.get((String) args[1]) : null;
+            }
+            case "findByAccountId" -> {
+                Map<String, Holding> byTicker = index.get((Long) args[0]);
+                yield byTicker != null ? List.copyOf(byTicker.values()) : List.of();
+            }
+            case "save" -> {
+                Holding holding = (Holding) args[0];
+                if (holding.getId() == null) assignId(holding);
+                index.computeIfAbsent(holding.getAccount().getId(), k -> new HashMap<>())
+                        .put(holding.getStockTicker(), holding);
+                yield holding;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * Dashboard service for the trade path, which only invalidates snapshots and never reads the repositories.
+     */
+    static DashboardService dashboardService() {
+        return new DashboardService(
+                fake(UserRepository.class, (method, args) -> {
+                    throw new UnsupportedOperationException(method);
+                }),
+                accountRepository(Map.of()),
+                holdingRepository(List.of()),
+                0, 0);
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Fake" + type.getSimpleName();
+                    default -> handler.handle(method.getName(), args);
+                });
+    }
+
+    // Entities have generated ids and no setter; the fixtures assign them the way Hibernate would
+    private static void assignId(Object entity) {
+        try {
+            Field id = entity.getClass().getDeclaredField("id");
+            id.setAccessible(true);
+            id.set(entity, IDS.getAndIncrement());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot assign id to " + entity.getClass().getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package team8.backend.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import team8.backend.dto.TournamentLeaderboardDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Tournament;
+import team8.backend.service.LeaderboardService;
+import team8.backend.service.QuoteUpdatedEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Leaderboard valuation: a full board build (what every request used to cost), a top page and
+ * a single rank lookup on a built board, and the incremental re-rank after one quote tick.
+ * Live prices come from an in-memory map standing in for the Finnhub quote lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardBenchmark {
+
+    private static final int UNIVERSE = 200;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100", "1000", "10000"})
+    public int participants;
+
+    @Param({"5", "25"})
+    public int holdingsPerParticipant;
+
+    private Tournament tournament;
+    private LeaderboardService leaderboard;
+    private Function<Set<String>, Map<String, Double>> priceLoader;
+    private Long[] userIds;
+    private int cursor;
+    private double tick;
+
+    @Setup
+    public void setUp() {
+        tournament = BenchFixtures.tournament(participants, holdingsPerParticipant, UNIVERSE);
+        Map<String, Double> prices = BenchFixtures.prices(UNIVERSE);
+        priceLoader = tickers -> {
+            Map<String, Double> subset = new HashMap<>();
+            for (String ticker : tickers) {
+                Double price = prices.get(ticker);
+                if (price != null) subset.put(ticker, price);
+            }
+            return subset;
+        };
+        userIds = tournament.getAccounts().stream().map(a -> a.getUser().getId()).toArray(Long[]::new);
+
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : tournament.getAccounts()) {
+            accounts.put(account.getId(), account);
+        }
+        leaderboard = new LeaderboardService(BenchFixtures.accountRepository(accounts), Long.MAX_VALUE);
+        leaderboard.page(tournament, 0, PAGE_SIZE, priceLoader);
+    }
+
+    @Benchmark
+    public List<TournamentLeaderboardDTO> fullBuild() {
+        leaderboard.evict(tournament.getId());
+        return leaderboard.page(tournament, 0, PAGE_SIZE, priceLoader);
+    }
+
+    @Benchmark
+    public List<TournamentLeaderboardDTO> topPage() {
+        return leaderboard.page(tournament, 0, PAGE_SIZE, priceLoader);
+    }
+
+    @Benchmark
+    public TournamentLeaderboardDTO rankOf() {
+        Long userId = userIds[cursor++ % userIds.length];
+        return leaderboard.rankOf(tournament, userId, priceLoader);
+    }
+
+    @Benchmark
+    public void quoteTick() {
+        tick = tick == 0.0 ? 0.5 : 0.0;
+        String ticker = BenchFixtures.ticker(cursor++ % UNIVERSE);
+        leaderboard.onQuoteUpdated(new QuoteUpdatedEvent(ticker, 50.0 + tick, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,146 @@
+package team8.backend.bench;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Order;
+import team8.backend.entity.PositionCheckpoint;
+import team8.backend.entity.Tournament;
+import team8.backend.entity.Transaction;
+import team8.backend.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of the two bulk write paths through Hibernate against in-memory H2:
+ * a burst of trades on one account (transaction rows plus holding updates) and a tournament
+ * enrollment wave (one account per participant), each in a single database transaction.
+ * batchSize=1 stands in for the old IDENTITY keys, under which Hibernate inserted every row
+ * with its own statement; batchSize=50 is the configured hibernate.jdbc.batch_size.
+ * Unlike the other benchmarks this one measures Hibernate and the JDBC driver on purpose;
+ * against MySQL the gap is wider because every statement is a network round-trip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersistenceBenchmark {
+
+    private static final int TRADES = 500;
+    private static final int HOLDINGS = 50;
+    private static final int PARTICIPANTS = 200;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private SessionFactory sessionFactory;
+    private Long traderAccountId;
+    private List<Long> participantIds;
+    private long tournamentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Account.class)
+                .addAnnotatedClass(Holding.class)
+                .addAnnotatedClass(Transaction.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(PositionCheckpoint.class)
+                .addAnnotatedClass(Tournament.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:bench" + batchSize + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize))
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            User trader = user("trader");
+            session.persist(trader);
+            Account account = new Account(trader, "bench", 1_000_000);
+            for (int i = 0; i < HOLDINGS; i++) {
+                account.getHoldings().add(new Holding(account, BenchFixtures.ticker(i), 10, 50));
+            }
+            session.persist(account);
+            traderAccountId = account.getId();
+
+            participantIds = new ArrayList<>();
+            for (int p = 0; p < PARTICIPANTS; p++) {
+                User user = user("p" + p);
+                session.persist(user);
+                participantIds.add(user.getId());
+            }
+            Tournament tournament = new Tournament("bench", PARTICIPANTS, 10_000,
+                    LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(30));
+            session.persist(tournament);
+            tournamentId = tournament.getId();
+        });
+    }
+
+    // keep the tables at their starting size so every iteration inserts into the same amount of data
+    @Setup(Level.Iteration)
+    public void clear() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from Transaction").executeUpdate();
+            session.createMutationQuery("delete from Account a where a.tournament is not null").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int bulkTrades() {
+        return sessionFactory.fromTransaction(session -> {
+            Account account = session.find(Account.class, traderAccountId);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < TRADES; i++) {
+                Holding holding = account.getHoldings().get(i % HOLDINGS);
+                holding.setSharesMicros(holding.getSharesMicros() + (i % 2 == 0 ? 1 : -1));
+                session.persist(new Transaction(account, i % 2 == 0 ? "buy" : "sell",
+                        holding.getStockTicker(), 1, 50, now));
+            }
+            return TRADES;
+        });
+    }
+
+    @Benchmark
+    public int tournamentEnrollment() {
+        return sessionFactory.fromTransaction(session -> {
+            Tournament tournament = session.find(Tournament.class, tournamentId);
+            for (Long userId : participantIds) {
+                Account account = new Account(session.getReference(User.class, userId), "bench",
+                        tournament.getInitialCash());
+                account.setTournament(tournament);
+                session.persist(account);
+            }
+            return participantIds.size();
+        });
+    }
+
+    // BenchFixtures.user assigns ids for the in-memory fakes; here the database assigns them
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@bench.local");
+        user.setPassword("x");
+        return user;
+    }
+}
@@ -0,0 +1,80 @@
+package team8.backend.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import team8.backend.dto.HoldingDTO;
+import team8.backend.dto.TradeResultDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Micros;
+import team8.backend.repository.AccountRepository;
+import team8.backend.service.AccountLockService;
+import team8.backend.service.HoldingService;
+import team8.backend.service.LeaderboardService;
+import team8.backend.service.TradeService;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one trade as AccountController.trade runs it (account lock, TradeService, HoldingService),
+ * and of HoldingService.addOrUpdateHolding on its own, against in-memory repositories.
+ * Each buy is followed by a sell of the same size so positions stay stable across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TradeBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int holdings;
+
+    @Param({"0", "1000", "10000"})
+    public int transactions;
+
+    private Account account;
+    private TradeService tradeService;
+    private HoldingService holdingService;
+    private AccountLockService lockService;
+    private String ticker;
+    private boolean buyNext;
+
+    // Rebuilt every iteration so the transaction history does not keep growing past the parameter
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = BenchFixtures.account(BenchFixtures.user("trader"), 1_000_000_000, holdings, transactions);
+        Map<Long, Account> accounts = Map.of(account.getId(), account);
+
+        holdingService = new HoldingService(BenchFixtures.holdingRepository(accounts.values()));
+        AccountRepository accountRepository = BenchFixtures.accountRepository(accounts);
+        tradeService = new TradeService(
+                accountRepository,
+                BenchFixtures.transactionRepository(),
+                holdingService,
+                new LeaderboardService(accountRepository, Long.MAX_VALUE),
+                BenchFixtures.dashboardService());
+        lockService = new AccountLockService(64, 3, 10);
+        ticker = BenchFixtures.ticker(holdings / 2);
+        buyNext = true;
+    }
+
+    @Benchmark
+    public Optional<TradeResultDTO> trade() {
+        String action = buyNext ? "buy" : "sell";
+        buyNext = !buyNext;
+        return lockService.withAccountLock(account.getId(),
+                () -> tradeService.executeTrade(account.getId(), action, ticker, 1, 50, null));
+    }
+
+    @Benchmark
+    public HoldingDTO addOrUpdateHolding() {
+        return holdingService.addOrUpdateHolding(account, ticker, Micros.of(1), Micros.of(50));
+    }
+}
@@ -0,0 +1,75 @@
+package team8.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One-off migration of the money and share columns from DOUBLE to long micro-units.
+ * Schema update adds the *_micros columns; this copies each legacy column into its
+ * replacement and then drops it. Each step is skipped once its legacy column is gone,
+ * so the migration is a no-op on fresh schemas and on every start after the first.
+ */
+@Component
+public class FixedPointMigration {
+
+    private record Step(String table, String legacyColumn, String microsColumn) {}
+
+    private static final List<Step> STEPS = List.of(
+            new Step("accounts", "cash", "cash_micros"),
+            new Step("holdings", "shares", "shares_micros"),
+            new Step("holdings", "average_price", "average_price_micros"),
+            new Step("transactions", "shares", "shares_micros"),
+            new Step("transactions", "price", "price_micros")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // depending on the EntityManagerFactory makes this run after Hibernate has added the new columns
+    public FixedPointMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        for (Step step : STEPS) {
+            if (!hasColumn(step.table(), step.legacyColumn()) || !hasColumn(step.table(), step.microsColumn())) {
+                continue;
+            }
+            // re-running after a failure between the two statements just copies again
+            jdbcTemplate.update("UPDATE " + step.table() + " SET " + step.microsColumn()
+                    + " = ROUND(" + step.legacyColumn() + " * 1000000)");
+            jdbcTemplate.execute("ALTER TABLE " + step.table() + " DROP COLUMN " + step.legacyColumn());
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Boolean found = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // identifiers are stored lower case by MySQL and upper case by H2
+            for (String name : new String[] {table, table.toUpperCase(Locale.ROOT)}) {
+                if (columnExists(metaData, connection.getCatalog(), name, column)) return true;
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    private static boolean columnExists(DatabaseMetaData metaData, String catalog, String table, String column)
+            throws SQLException {
+        try (ResultSet columns = metaData.getColumns(catalog, null, table, null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package team8.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Outbound HTTP clients for the market data providers.
+ * Each provider gets its own JDK HttpClient, which keeps a per-host pool of keep-alive
+ * connections and negotiates HTTP/2 when the server supports it, so repeated calls skip
+ * TCP and TLS setup. Connect and read timeouts stop a hung upstream from holding a
+ * request thread, and responses are requested gzip-compressed.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public RestTemplate finnhubRestTemplate(
+            @Value("${upstream.finnhub.connect-timeout-ms:2000}") long connectTimeoutMillis,
+            @Value("${upstream.finnhub.read-timeout-ms:5000}") long readTimeoutMillis,
+            @Value("${upstream.finnhub.http2:true}") boolean http2) {
+        return buildRestTemplate(connectTimeoutMillis, readTimeoutMillis, http2);
+    }
+
+    @Bean
+    public RestTemplate massiveRestTemplate(
+            @Value("${upstream.massive.connect-timeout-ms:2000}") long connectTimeoutMillis,
+            @Value("${upstream.massive.read-timeout-ms:15000}") long readTimeoutMillis,
+            @Value("${upstream.massive.http2:true}") boolean http2) {
+        return buildRestTemplate(connectTimeoutMillis, readTimeoutMillis, http2);
+    }
+
+    private static RestTemplate buildRestTemplate(long connectTimeoutMillis, long readTimeoutMillis, boolean http2) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                // response bodies are handed off on virtual threads rather than a shared fixed pool
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(new GzipResponseInterceptor());
+        return restTemplate;
+    }
+}
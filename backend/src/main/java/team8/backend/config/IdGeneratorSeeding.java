@@ -0,0 +1,49 @@
+package team8.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import team8.backend.entity.IdGenerators;
+
+import java.util.List;
+
+/**
+ * Moves the table id generators past the ids already in use.
+ * The tables were keyed by AUTO_INCREMENT before; the pooled optimizer reads a stored value v as
+ * the top of a block and hands out v - ALLOCATION_SIZE + 1 .. v, so each generator row must be at
+ * least MAX(id) + ALLOCATION_SIZE. Rows already past that (every start after the first) are left
+ * alone, and empty tables are left to Hibernate's own initialisation.
+ */
+@Component
+public class IdGeneratorSeeding {
+
+    // table name, which is also the generator's pkColumnValue
+    private static final List<String> TABLES = List.of("accounts", "holdings", "transactions", "orders");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // depending on the EntityManagerFactory makes this run after Hibernate has created the generator table
+    public IdGeneratorSeeding(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            if (maxId == null || maxId == 0) continue;
+            long floor = maxId + IdGenerators.ALLOCATION_SIZE;
+
+            List<Long> current = jdbcTemplate.queryForList("SELECT " + IdGenerators.VALUE_COLUMN + " FROM "
+                    + IdGenerators.TABLE + " WHERE " + IdGenerators.NAME_COLUMN + " = ?", Long.class, table);
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", "
+                        + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)", table, floor);
+            } else if (current.get(0) < floor) {
+                jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN
+                        + " = ? WHERE " + IdGenerators.NAME_COLUMN + " = ?", floor, table);
+            }
+        }
+    }
+}
@@ -1,22 +1,34 @@
 package team8.backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.transaction.Transactional;
 import team8.backend.dto.AccountDTO;
+import team8.backend.dto.AccountSummaryDTO;
+import team8.backend.dto.BasketResultDTO;
+import team8.backend.dto.PositionReconciliationDTO;
+import team8.backend.dto.RebuildSummaryDTO;
+import team8.backend.dto.TradeResultDTO;
 import team8.backend.entity.Account;
-import team8.backend.entity.Holding;
-import team8.backend.entity.User;
 import team8.backend.repository.AccountRepository;
 import team8.backend.repository.UserRepository;
-import team8.backend.service.HoldingService;
-import team8.backend.entity.Transaction;
-import team8.backend.repository.TransactionRepository;
-
+import team8.backend.service.AccountLockService;
+import team8.backend.service.DashboardService;
+import team8.backend.service.LeaderboardService;
+import team8.backend.service.PositionEngine;
+import team8.backend.service.QuoteCacheService;
+import team8.backend.service.TradeLedgerService;
+import team8.backend.service.TradeService;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Controller responsible for account-related actions.
@@ -35,28 +47,46 @@ public class AccountController {
     private UserRepository userRepository;
 
     @Autowired
-    private HoldingService holdingService;
+    private TradeService tradeService;
+
+    @Autowired
+    private AccountLockService accountLockService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private DashboardService dashboardService;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private QuoteCacheService quoteCacheService;
+
+    @Autowired
+    private TradeLedgerService tradeLedgerService;
+
+    @Autowired
+    private PositionEngine positionEngine;
+
+    // oldest cached quote a trade may execute at before a fresh one is fetched
+    @Value("${trade.price.max-staleness-ms:15000}")
+    private long maxQuoteStalenessMillis;
+
+    @Value("${trade.basket.max-legs:50}")
+    private int maxBasketLegs;
 
     /**
-     * Get all accounts belonging to the given user.
+     * Get summaries of all accounts belonging to the given user.
+     * Holdings and transactions are not included; use GET /{accountId} for holdings
+     * and /api/transactions/page for history.
      *
      * @param userId id of the user to fetch accounts for
-     * @return 200 with a list of AccountDTO when the user exists, 404 otherwise
+     * @return 200 with a list of AccountSummaryDTO when the user exists, 404 otherwise
      */
     @GetMapping
-    public ResponseEntity<List<AccountDTO>> getAccounts(@RequestParam(name = "userId") Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        List<Account> accounts = accountRepository.findByUser(userOpt.get());
-        List<AccountDTO> dtos = accounts.stream()
-                .map(AccountDTO::fromEntity)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<AccountSummaryDTO>> getAccounts(@RequestParam(name = "userId") Long userId) {
+        if (!userRepository.existsById(userId)) return ResponseEntity.notFound().build();
 
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(accountRepository.findSummariesByUserId(userId));
     }
 
     /**
@@ -74,72 +104,141 @@ public class AccountController {
 
     /**
      * Execute a trade (buy or sell) against the given account.
-     * Expected JSON body: { "action": "buy|sell", "ticker": "SYM", "shares": number, "price": number }
+     * Expected JSON body: { "action": "buy|sell", "ticker": "SYM", "shares": number }
+     * The trade executes at the cached quote for the ticker when it is at most
+     * trade.price.max-staleness-ms old, otherwise at a freshly fetched one; a "price" in the
+     * body is ignored. Trades on the same account are serialized; trades on different accounts run in parallel.
+     * With trade.ledger.enabled the trade is acknowledged once it is in the trade ledger and reaches the
+     * database shortly after, so the returned transaction has no id yet.
      *
      * @param accountId id of the account to trade on
-     * @param body      request body containing action, ticker, shares and price
-     * @return 200 with updated AccountDTO on success, 4xx for invalid input or insufficient funds
+     * @param body      request body containing action, ticker and shares
+     * @return 200 with a TradeResultDTO (new cash, resulting position, recorded transaction) on success,
+     *         4xx for invalid input or insufficient funds,
+     *         409 when the account kept changing concurrently and the trade could not be applied,
+     *         503 when no current quote could be obtained for the ticker, the trade could not be logged
+     *         or the trade ledger is not accepting trades
      */
-    @Transactional
     @PostMapping("/{accountId}/trade")
     public ResponseEntity<?> trade(@PathVariable(name = "accountId") Long accountId, @RequestBody Map<String, Object> body) {
         String action = (String) body.get("action"); // "buy" or "sell"
-        String ticker = (String) body.get("ticker");
+        String rawTicker = (String) body.get("ticker");
         Number sharesNum = (Number) body.get("shares");
-        Number priceNum = (Number) body.get("price");
 
-        if (ticker == null || sharesNum == null || priceNum == null || action == null) {
+        if (rawTicker == null || rawTicker.isBlank() || sharesNum == null || action == null) {
             return ResponseEntity.badRequest().body("Invalid trade parameters.");
         }
+        // holdings, orders and basket legs all store upper-case tickers
+        String ticker = rawTicker.trim().toUpperCase();
 
         double shares = sharesNum.doubleValue();
-        double price = priceNum.doubleValue();
 
-        if (shares <= 0 || price <= 0) {
-            return ResponseEntity.badRequest().body("Shares and price must be greater than 0.");
+        if (shares <= 0) {
+            return ResponseEntity.badRequest().body("Shares must be greater than 0.");
         }
 
-        Optional<Account> accOpt = accountRepository.findById(accountId);
-        if (accOpt.isEmpty()) return ResponseEntity.notFound().build();
-        Account account = accOpt.get();
-
-        double totalValue = shares * price;
+        QuoteCacheService.CachedQuote quote;
+        try {
+            quote = quoteCacheService.getEntry(ticker, maxQuoteStalenessMillis);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("No current quote for " + ticker + ", please retry.");
+        }
+        Double quotedPrice = quote.currentPrice();
+        if (quotedPrice == null || quotedPrice <= 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("No current quote for " + ticker + ", please retry.");
+        }
+        double price = quotedPrice;
+        LocalDateTime quotedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(quote.fetchedAtMillis()), ZoneId.systemDefault());
 
         try {
-            if (action.equalsIgnoreCase("buy")) {
-                if (account.getCash() < totalValue) {
-                    return ResponseEntity.badRequest().body("Not enough cash to complete purchase.");
-                }
-                account.setCash(account.getCash() - totalValue);
-                holdingService.addOrUpdateHolding(account, ticker, shares, price);
-
-            } else if (action.equalsIgnoreCase("sell")) {
-                holdingService.updateAfterSell(account, ticker, shares);
-                account.setCash(account.getCash() + totalValue);
-
-            } else {
-                return ResponseEntity.badRequest().body("Invalid action type. Must be 'buy' or 'sell'.");
-            }
+            Optional<TradeResultDTO> traded = accountLockService.withAccountLock(accountId,
+                    () -> tradeLedgerService.isEnabled()
+                            ? tradeLedgerService.submit(accountId, action, ticker, shares, price, quotedAt)
+                            : tradeService.executeTrade(accountId, action, ticker, shares, price, quotedAt));
+            if (traded.isEmpty()) return ResponseEntity.notFound().build();
 
+            return ResponseEntity.ok(traded.get());
 
-            // Save transaction
-            Transaction tx = new Transaction(
-                account,
-                action.toLowerCase(),
-                ticker,
-                shares,
-                price,
-                java.time.LocalDateTime.now()
-            );
-            account.addTransaction(tx);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Account was modified concurrently, please retry.");
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Trade could not be recorded, please retry.");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
 
-            transactionRepository.save(tx);
-            accountRepository.save(account);
+    /**
+     * Execute a basket of trades against the given account in one database transaction.
+     * Expected JSON body: { "legs": [ { "action": "buy|sell", "ticker": "SYM", "shares": number }, ... ] }
+     * All tickers are priced with one batch quote lookup under the same staleness rule as single trades.
+     * Cash is checked against the net of all legs (sells are applied before buys) and either
+     * every leg executes or none does.
+     *
+     * @param accountId id of the account to trade on
+     * @param body      request body containing the legs
+     * @return 200 with a BasketResultDTO (new cash, resulting positions, one transaction per leg) on success,
+     *         4xx for invalid input or insufficient funds,
+     *         409 when the account kept changing concurrently and the basket could not be applied,
+     *         503 when no current quote could be obtained for one of the tickers
+     */
+    @PostMapping("/{accountId}/basket")
+    public ResponseEntity<?> basket(@PathVariable(name = "accountId") Long accountId, @RequestBody Map<String, Object> body) {
+        if (!(body.get("legs") instanceof List<?> rawLegs) || rawLegs.isEmpty()) {
+            return ResponseEntity.badRequest().body("A basket needs at least one leg.");
+        }
+        if (rawLegs.size() > maxBasketLegs) {
+            return ResponseEntity.badRequest().body("A basket can have at most " + maxBasketLegs + " legs.");
+        }
+
+        List<String> actions = new ArrayList<>();
+        List<String> tickers = new ArrayList<>();
+        List<Double> shares = new ArrayList<>();
+        for (Object raw : rawLegs) {
+            if (!(raw instanceof Map<?, ?> leg)
+                    || !(leg.get("action") instanceof String action)
+                    || !(leg.get("ticker") instanceof String ticker) || ticker.isBlank()
+                    || !(leg.get("shares") instanceof Number sharesNum)) {
+                return ResponseEntity.badRequest().body("Invalid trade parameters.");
+            }
+            if (sharesNum.doubleValue() <= 0) {
+                return ResponseEntity.badRequest().body("Shares must be greater than 0.");
+            }
+            actions.add(action);
+            tickers.add(ticker.trim().toUpperCase());
+            shares.add(sharesNum.doubleValue());
+        }
+
+        QuoteCacheService.BatchResult quotes = quoteCacheService.getAll(tickers, maxQuoteStalenessMillis);
+        List<TradeService.BasketLeg> legs = new ArrayList<>(tickers.size());
+        for (int i = 0; i < tickers.size(); i++) {
+            QuoteCacheService.CachedQuote quote = quotes.quotes().get(tickers.get(i));
+            Double quotedPrice = quote != null ? quote.currentPrice() : null;
+            if (quotedPrice == null || quotedPrice <= 0) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("No current quote for " + tickers.get(i) + ", please retry.");
+            }
+            LocalDateTime quotedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(quote.fetchedAtMillis()), ZoneId.systemDefault());
+            legs.add(new TradeService.BasketLeg(actions.get(i), tickers.get(i), shares.get(i), quotedPrice, quotedAt));
+        }
+
+        try {
+            Optional<BasketResultDTO> traded = accountLockService.withAccountLock(accountId, () -> {
+                tradeLedgerService.drain(accountId);
+                return tradeService.executeBasket(accountId, legs);
+            });
+            if (traded.isEmpty()) return ResponseEntity.notFound().build();
 
-            return ResponseEntity.ok(AccountDTO.fromEntity(account));
+            return ResponseEntity.ok(traded.get());
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Account was modified concurrently, please retry.");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
@@ -147,44 +246,42 @@ public class AccountController {
      * Dashboard summary for a user: total cash and aggregated stock holdings.
      *
      * @param userId id of the user to build dashboard for
-     * @return 200 with a map containing "totalCash" and "totalStocks"
+     * @return 200 with a map containing "totalCash" and "totalStocks", 404 when the user does not exist
      */
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> dashboard(@RequestParam(name = "userId") Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        List<Account> accounts = accountRepository.findByUser(userOpt.get());
-        double totalCash = accounts.stream().mapToDouble(Account::getCash).sum();
-
-        Map<String, Double> totalStocks = accounts.stream()
-        .flatMap(a -> a.getHoldings().stream())
-        .collect(Collectors.toMap(
-                Holding::getStockTicker,
-                Holding::getShares,
-                Double::sum
-        ));
-
-        Map<String, Object> response = Map.of(
-                "totalCash", totalCash,
-                "totalStocks", totalStocks
-        );
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.of(dashboardService.dashboard(userId));
     }
 
     /**
-     * Retrieve all accounts (admin/testing use).
+     * Rebuild an account's cash and positions from its transactions and compare them with the stored ones.
      *
-     * @return 200 with a list of AccountDTO for all accounts
+     * @param accountId id of the account to reconcile
+     * @return 200 with a PositionReconciliationDTO, 404 when the account does not exist
+     */
+    @GetMapping("/{accountId}/reconcile")
+    public ResponseEntity<PositionReconciliationDTO> reconcile(@PathVariable(name = "accountId") Long accountId) {
+        return ResponseEntity.of(positionEngine.reconcile(accountId));
+    }
+
+    /**
+     * Rebuild and reconcile every account in parallel (admin use).
+     *
+     * @return 200 with a RebuildSummaryDTO listing the accounts whose stored state differs from their history
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<RebuildSummaryDTO> reconcileAll() {
+        return ResponseEntity.ok(positionEngine.rebuildAll());
+    }
+
+    /**
+     * Retrieve summaries of all accounts (admin/testing use).
+     *
+     * @return 200 with a list of AccountSummaryDTO for all accounts
      */
     @GetMapping("/all")
-    public ResponseEntity<List<AccountDTO>> getAllAccounts() {
-        List<Account> accounts = accountRepository.findAll();
-        List<AccountDTO> dtos = accounts.stream()
-                .map(AccountDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<AccountSummaryDTO>> getAllAccounts() {
+        return ResponseEntity.ok(accountRepository.findAllSummaries());
     }
 
     @DeleteMapping("/{accountId}")
@@ -194,12 +291,19 @@ public class AccountController {
             return ResponseEntity.notFound().build();
         }
 
+        try {
+            tradeLedgerService.drain(accountId);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
         accountRepository.delete(accountOpt.get());
+        leaderboardService.removeAccount(accountOpt.get());
+        dashboardService.invalidate(accountOpt.get().getUser().getId());
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/{accountId}/rename")
-    public ResponseEntity<AccountDTO> renameAccount(
+    public ResponseEntity<AccountSummaryDTO> renameAccount(
             @PathVariable("accountId") Long accountId,
             @RequestParam("name") String name
     ) {
@@ -210,6 +314,6 @@ public class AccountController {
         account.setName(name);
         accountRepository.save(account);
 
-        return ResponseEntity.ok(AccountDTO.fromEntity(account));
+        return ResponseEntity.of(accountRepository.findSummaryById(accountId));
     }
 }
@@ -0,0 +1,96 @@
+package team8.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import team8.backend.dto.OrderDTO;
+import team8.backend.repository.AccountRepository;
+import team8.backend.service.OrderService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Controller for resting limit, stop and stop-limit orders.
+ * Orders execute through the same trade path as /api/accounts/{id}/trade once a quote crosses
+ * their trigger price.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "http://localhost:5173")
+public class OrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    /**
+     * Place an order.
+     * Example body: {"accountId": 1, "action": "buy", "type": "stop_limit", "ticker": "AAPL",
+     * "shares": 5, "stopPrice": 190.0, "limitPrice": 192.5}
+     *
+     * @return 201 with the order, 400 for invalid parameters, 404 when the account does not exist
+     */
+    @PostMapping
+    public ResponseEntity<?> placeOrder(@RequestBody Map<String, Object> body) {
+        Number accountIdNum = (Number) body.get("accountId");
+        Number sharesNum = (Number) body.get("shares");
+        Number limitNum = (Number) body.get("limitPrice");
+        Number stopNum = (Number) body.get("stopPrice");
+
+        if (accountIdNum == null || sharesNum == null) {
+            return ResponseEntity.badRequest().body("Invalid order parameters.");
+        }
+
+        try {
+            Optional<OrderDTO> placed = orderService.place(
+                    accountIdNum.longValue(),
+                    (String) body.get("action"),
+                    (String) body.get("type"),
+                    (String) body.get("ticker"),
+                    sharesNum.doubleValue(),
+                    limitNum != null ? limitNum.doubleValue() : null,
+                    stopNum != null ? stopNum.doubleValue() : null);
+            if (placed.isEmpty()) return ResponseEntity.notFound().build();
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(placed.get());
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Orders of an account (any status), newest first.
+     *
+     * @return 200 with the orders, 404 when the account does not exist
+     */
+    @GetMapping
+    public ResponseEntity<List<OrderDTO>> getOrders(@RequestParam(name = "accountId") Long accountId) {
+        if (!accountRepository.existsById(accountId)) return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(orderService.ordersFor(accountId));
+    }
+
+    /**
+     * Cancel an open order.
+     *
+     * @return 200 with the cancelled order, 404 when it does not exist, 409 when it is no longer open
+     */
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<?> cancelOrder(@PathVariable("orderId") Long orderId) {
+        try {
+            Optional<OrderDTO> cancelled = orderService.cancel(orderId);
+            if (cancelled.isEmpty()) return ResponseEntity.notFound().build();
+
+            return ResponseEntity.ok(cancelled.get());
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
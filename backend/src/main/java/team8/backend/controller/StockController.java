@@ -1,32 +1,40 @@
 package team8.backend.controller;
 
-import java.net.URI;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
-import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import team8.backend.service.ApiKeyPool;
+import team8.backend.service.BarStore;
+import team8.backend.service.FinnhubClient;
+import team8.backend.service.FundamentalsCache;
+import team8.backend.service.MassiveClient;
+import team8.backend.service.NewsFeedService;
+import team8.backend.service.QuoteCacheService;
+import team8.backend.service.QuoteStreamHub;
+import team8.backend.service.SymbolIndex;
+
 
 /**
  * Controller exposing stock-related endpoints backed by third-party APIs
@@ -38,80 +46,55 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @RequestMapping("/api/stock")
 public class StockController {
 
-    @Value("${finnhub.api-key}")
-    private String FINNHUB_API_KEY;
+    @Autowired
+    private FinnhubClient finnhubClient;
 
-    @Value("${massive.api-key:}")
-    private String MASSIVE_API_KEY;
+    @Autowired
+    private MassiveClient massiveClient;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final List<String> finnhubKeys = new ArrayList<>();
-    private final AtomicInteger finnhubKeyIndex = new AtomicInteger(0);
-    private final List<String> massiveKeys = new ArrayList<>();
-    private final AtomicInteger massiveKeyIndex = new AtomicInteger(0);
+    @Autowired
+    private QuoteCacheService quoteCacheService;
 
+    @Autowired
+    private BarStore barStore;
 
-    // Allow multiple keys separated by ":" to spread requests across keys
-    @PostConstruct
-    public void initFinnhubKeys() {
-        if (FINNHUB_API_KEY == null || FINNHUB_API_KEY.isBlank()) {
-            return;
-        }
-        for (String key : FINNHUB_API_KEY.split(":")) {
-            if (key != null && !key.isBlank()) {
-                finnhubKeys.add(key.trim());
-            }
-        }
-    }
+    @Autowired
+    private QuoteStreamHub quoteStreamHub;
 
-    @PostConstruct
-    public void initMassiveKeys() {
-        if (MASSIVE_API_KEY == null || MASSIVE_API_KEY.isBlank()) {
-            return;
-        }
-        for (String key : MASSIVE_API_KEY.split(":")) {
-            if (key != null && !key.isBlank()) {
-                massiveKeys.add(key.trim());
-            }
-        }
-    }
+    @Autowired
+    private SymbolIndex symbolIndex;
 
-    private String nextFinnhubKey() {
-        if (finnhubKeys.isEmpty()) {
-            return FINNHUB_API_KEY;
-        }
-        int index = Math.floorMod(finnhubKeyIndex.getAndIncrement(), finnhubKeys.size());
-        return finnhubKeys.get(index);
-    }
+    @Autowired
+    private NewsFeedService newsFeedService;
 
-    private String nextMassiveKey() {
-        if (massiveKeys.isEmpty()) {
-            return MASSIVE_API_KEY;
-        }
-        int index = Math.floorMod(massiveKeyIndex.getAndIncrement(), massiveKeys.size());
-        return massiveKeys.get(index);
-    }
+    @Autowired
+    private FundamentalsCache fundamentalsCache;
+
+    @Value("${symbols.max-results:20}")
+    private int maxSearchResults;
+
+    // upper bound on tickers accepted by the batch quote endpoint
+    private static final int MAX_BATCH_TICKERS = 100;
 
     /**
-     * Search Finnhub for a stock symbol by query (returns the first matching result).
+     * Search for a stock symbol by query (returns the first matching result).
+     * A query that is exactly a listed symbol is resolved from the local symbol index;
+     * anything else is searched on Finnhub.
      *
      * @param query search query (symbol or company name)
      * @return 200 with the first search result map, 404 if no result, 500 on error
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchStock(@RequestParam(name = "query") String query) {
-        String baseUrl = "https://finnhub.io/api/v1/search";
-        String token = nextFinnhubKey();
-
-        URI url = UriComponentsBuilder.fromUriString(baseUrl)
-            .queryParam("q", query.toUpperCase())
-            .queryParam("exchange", "US")
-            .queryParam("token", token)
-            .build().toUri();
+        Map<String, Object> exact = symbolIndex.exact(query);
+        if (exact != null) {
+            return ResponseEntity.ok(exact);
+        }
 
         // ensures return is in JSON format
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange( 
-            url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
+        ResponseEntity<Map<String, Object>> response = finnhubClient.get("/search",
+            b -> b.queryParam("q", query.toUpperCase()).queryParam("exchange", "US"),
+            new ParameterizedTypeReference<Map<String, Object>>() {}
         );
         if (!response.getStatusCode().equals(HttpStatus.OK)) {
             return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
@@ -129,7 +112,6 @@ public class StockController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
         JsonNode firstResult = resultNode.get(0);
-        System.out.println("Search Result: " + firstResult);
 
         Map<String, Object> firstResultMap = mapper.convertValue(firstResult, new TypeReference<Map<String, Object>>() {});
         return ResponseEntity.ok(firstResultMap);
@@ -137,24 +119,25 @@ public class StockController {
 
     /**
      * Lightweight search endpoint used by the UI typeahead / search bar.
-     * Returns a list of matching results and a count.
+     * Returns a list of matching results and a count. Answered from the local symbol index;
+     * Finnhub is only asked when the index has no match.
      *
      * @param query partial query string
      * @return 200 with { count, result } map
      */
     @GetMapping("/searchbar")
     public ResponseEntity<Map<String, Object>> searchBar(@RequestParam(name = "query") String query) {
-        String baseUrl = "https://finnhub.io/api/v1/search";
-        String token = nextFinnhubKey();
-
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl)
-            .queryParam("q", query)
-            .queryParam("exchange", "US")
-            .queryParam("token", token);
-        URI url = builder.build().toUri();
+        List<Map<String, Object>> local = symbolIndex.search(query, maxSearchResults);
+        if (!local.isEmpty()) {
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("count", local.size());
+            resp.put("result", local);
+            return ResponseEntity.ok(resp);
+        }
 
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-            url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
+        ResponseEntity<Map<String, Object>> response = finnhubClient.get("/search",
+            b -> b.queryParam("q", query).queryParam("exchange", "US"),
+            new ParameterizedTypeReference<Map<String, Object>>() {}
         );
 
         if (!response.getStatusCode().equals(HttpStatus.OK)) {
@@ -187,28 +170,30 @@ public class StockController {
 
     /**
      * Retrieve news for a given Finnhub category.
+     * Ingested categories are served from the in-memory news buffer; others are fetched from Finnhub.
      *
      * @param category Finnhub news category
      * @param minId    optional minId to filter newer items
-     * @return 200 with { count, result } map of news items
+     * @return 200 with { count, result } map of news items, newest first
      */
     @GetMapping("/news")
     public ResponseEntity<Map<String, Object>> getNews(
         @RequestParam(name = "category") String category,
         @RequestParam(name = "minId", required = false, defaultValue = "0") long minId) {
 
-        String baseUrl = "https://finnhub.io/api/v1/news";
-        String token = nextFinnhubKey();
-
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl)
-                .queryParam("category", category)
-                .queryParam("token", token);
-        if (minId > 0) builder.queryParam("minId", minId);
-
-        URI url = builder.build().toUri();
+        if (newsFeedService.handles(category)) {
+            List<Map<String, Object>> items = newsFeedService.news(category, minId);
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("count", items.size());
+            resp.put("result", items);
+            return ResponseEntity.ok(resp);
+        }
 
-        ResponseEntity<java.util.List<Map<String, Object>>> response = restTemplate.exchange(
-                url, HttpMethod.GET, null,
+        ResponseEntity<java.util.List<Map<String, Object>>> response = finnhubClient.get("/news",
+                b -> {
+                    b.queryParam("category", category);
+                    if (minId > 0) b.queryParam("minId", minId);
+                },
                 new ParameterizedTypeReference<java.util.List<Map<String, Object>>>() {
                 }
         );
@@ -233,38 +218,119 @@ public class StockController {
     }
 
     /**
-     * Fetch real-time quote data for the given ticker from Finnhub.
+     * Fetch real-time quote data for the given ticker.
+     * Reads through the shared quote cache, so repeated requests within the TTL
+     * and concurrent requests for the same ticker cost a single Finnhub call.
      *
      * @param ticker stock ticker symbol
-     * @return Finnhub quote map and status forwarded to the caller
+     * @return 200 with the Finnhub quote map
      */
     @GetMapping("/quote")
     public ResponseEntity<Map<String, Object>> getQuote(@RequestParam(name = "ticker") String ticker) {
-        String baseUrl = "https://finnhub.io/api/v1/quote";
-        String token = nextFinnhubKey();
+        return ResponseEntity.ok(quoteCacheService.get(ticker));
+    }
 
-        URI url = UriComponentsBuilder.fromUriString(baseUrl)
-            .queryParam("symbol", ticker.toUpperCase())
-            .queryParam("token", token)
-            .build().toUri();
+    /**
+     * Fetch quotes for several tickers in one request. Tickers missing from the cache
+     * are fetched from Finnhub in parallel.
+     * Example: /api/stock/quotes?tickers=AAPL,MSFT,NVDA
+     *
+     * @param tickers comma separated ticker symbols
+     * @return 200 with { count, quotes: { TICKER: quote }, errors: { TICKER: message } },
+     *         400 when no tickers or too many tickers are given
+     */
+    @GetMapping("/quotes")
+    public ResponseEntity<Map<String, Object>> getQuotes(@RequestParam(name = "tickers", required = false) List<String> requested) {
+        List<String> tickers = requested == null ? List.of()
+                : requested.stream().filter(t -> t != null && !t.isBlank()).toList();
+        if (tickers.isEmpty()) {
+            Map<String, Object> err = new HashMap<>();
+            err.put("error", "Missing query parameter: provide tickers");
+            return ResponseEntity.badRequest().body(err);
+        }
+        if (tickers.size() > MAX_BATCH_TICKERS) {
+            Map<String, Object> err = new HashMap<>();
+            err.put("error", "Too many tickers: at most " + MAX_BATCH_TICKERS + " per request");
+            return ResponseEntity.badRequest().body(err);
+        }
 
-        // ensures return is in JSON format
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange( 
-            url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
-        );
-        System.out.println(ticker + ": " + response.getBody());
+        QuoteCacheService.BatchResult result = quoteCacheService.getAll(tickers);
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("count", result.quotes().size());
+        resp.put("quotes", result.bodies());
+        resp.put("errors", result.errors());
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Stream price updates for several tickers as server-sent events.
+     * Each "quotes" event carries { TICKER: { c: price, t: fetchedAtMillis } } for the tickers
+     * that changed since the previous event; a client that falls behind only gets the latest price.
+     * Example: /api/stock/stream?tickers=AAPL,MSFT
+     *
+     * @param tickers comma separated ticker symbols
+     * @return 200 with an open event stream, 400 when no tickers or too many tickers are given,
+     *         503 when the server has too many streams open
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamQuotes(@RequestParam(name = "tickers") List<String> tickers) {
+        // the body of a stream response can only be the emitter, so errors go through the error page
+        if (tickers.size() > MAX_BATCH_TICKERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many tickers: at most " + MAX_BATCH_TICKERS + " per request");
+        }
+        try {
+            return ResponseEntity.ok(quoteStreamHub.subscribe(tickers));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Quote stream counters (open streams, subscribed tickers, delivered, conflated and dropped updates).
+     *
+     * @return 200 with the current stream statistics
+     */
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        return ResponseEntity.ok(quoteStreamHub.stats());
+    }
+
+    /**
+     * Quote cache counters (hits, misses, coalesced loads, evictions).
+     *
+     * @return 200 with the current cache statistics
+     */
+    @GetMapping("/quote/stats")
+    public ResponseEntity<Map<String, Object>> getQuoteStats() {
+        return ResponseEntity.ok(quoteCacheService.stats());
+    }
 
-        return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
+    /**
+     * Per-key usage and throttle counters for the Finnhub and Massive key pools.
+     *
+     * @return 200 with { finnhub: stats, massive: stats }
+     */
+    @GetMapping("/keys/stats")
+    public ResponseEntity<Map<String, Object>> getKeyStats() {
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("finnhub", finnhubClient.keyStats());
+        resp.put("massive", massiveClient.keyStats());
+        return ResponseEntity.ok(resp);
     }
 
     /**
-     * Company profile endpoint (Finnhub /stock/profile2).
+     * Company profile endpoint (Finnhub /stock/profile2), served from the fundamentals cache.
      * Accepts one of: symbol, isin, or cusip and returns the profile map.
      *
      * @param symbol ticker symbol (optional)
      * @param isin   ISIN code (optional)
      * @param cusip  CUSIP code (optional)
-     * @return 200 with profile map, 400 when no identifier provided, 404 when not found
+     * @return 200 with profile map, 400 when no identifier provided, 404 when not found,
+     *         or Finnhub's own status when it refuses the call
      */
     @GetMapping("/profile2")
     public ResponseEntity<Map<String, Object>> getCompanyProfile(
@@ -272,36 +338,25 @@ public class StockController {
         @RequestParam(name = "isin", required = false) String isin,
         @RequestParam(name = "cusip", required = false) String cusip) {
 
-        String baseUrl = "https://finnhub.io/api/v1/stock/profile2";
-        String token = nextFinnhubKey();
-
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl);
+        String idParam;
+        String idValue;
         if (symbol != null && !symbol.isBlank()) {
-            builder.queryParam("symbol", symbol.toUpperCase());
+            idParam = "symbol";
+            idValue = symbol.toUpperCase();
         } else if (isin != null && !isin.isBlank()) {
-            builder.queryParam("isin", isin);
+            idParam = "isin";
+            idValue = isin;
         } else if (cusip != null && !cusip.isBlank()) {
-            builder.queryParam("cusip", cusip);
+            idParam = "cusip";
+            idValue = cusip;
         } else {
             Map<String, Object> err = new HashMap<>();
             err.put("error", "Missing query parameter: provide symbol, isin or cusip");
             return ResponseEntity.badRequest().body(err);
         }
 
-        builder.queryParam("token", token);
-        URI url = builder.build().toUri();
-
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {
-                }
-        );
-
-        if (!response.getStatusCode().equals(HttpStatus.OK)) {
-            return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
-        }
-
-        Map<String, Object> body = response.getBody();
-        if (body == null || body.isEmpty()) {
+        Map<String, Object> body = fundamentalsCache.profile(idParam, idValue);
+        if (body.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
@@ -309,117 +364,95 @@ public class StockController {
     }
 
     /**
-     * Retrieve a filtered set of company metrics from Finnhub for display.
+     * Retrieve a filtered set of company metrics for display, served from the fundamentals cache.
      *
      * @param ticker stock ticker symbol
-     * @return 200 with a map of human-friendly metric names to formatted values
+     * @return 200 with a map of human-friendly metric names to formatted values,
+     *         500 when Finnhub has no metrics for the ticker, or Finnhub's own status when it refuses the call
      */
     @GetMapping("/metrics")
     public ResponseEntity<Map<String, Object>> getMetrics(@RequestParam(name = "ticker") String ticker) {
-        String baseUrl = "https://finnhub.io/api/v1/stock/metric";
-        String token = nextFinnhubKey();
-
-        URI url = UriComponentsBuilder.fromUriString(baseUrl)
-            .queryParam("symbol", ticker.toUpperCase())
-            .queryParam("token", token)
-            .queryParam("metric", "all")
-            .build().toUri();
-        
-        Map<String,String> topMetrics = new HashMap<>();
-        topMetrics.put("marketCapitalization", "Market Cap");
-        topMetrics.put("peTTM", "P/E Ratio");
-        topMetrics.put("forwardPE", "Forward P/E");
-        topMetrics.put("epsTTM", "Earnings Per Share");
-        topMetrics.put("roeTTM", "Return on Equity");
-        topMetrics.put("revenueGrowthTTMYoy", "Revenue Growth");
-        topMetrics.put("52WeekHigh", "52-Week High");
-        topMetrics.put("52WeekLow", "52-Week Low");
-        topMetrics.put("currentRatioQuarterly", "Current Ratio");
-        topMetrics.put("dividendYieldIndicatedAnnual", "Dividend Yield");
-        topMetrics.put("3MonthAverageTradingVolume", "Average Volume");
-
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange( 
-            url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
-        );
-        if (!response.getStatusCode().equals(HttpStatus.OK)) {
-            return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
-        }
-
-        Map<String, Object> body = response.getBody();
-        if (body == null || !body.containsKey("metric")) {
+        try {
+            return ResponseEntity.ok(fundamentalsCache.metrics(ticker));
+        } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.valueToTree(body);
-        JsonNode metricNode = root.path("metric");
-
-        Map<String, Object> filteredMetrics = new HashMap<>();
-
-        DecimalFormat df = new DecimalFormat("#,##0.00");
-
-        for (Map.Entry<String, String> entry : topMetrics.entrySet()) {
-            if (metricNode.has(entry.getKey()) && !metricNode.get(entry.getKey()).isNull()) {
-                double value = metricNode.get(entry.getKey()).asDouble();
-                String formatted =  df.format(value);
-                filteredMetrics.put(entry.getValue(), formatted);
-            }
-        }
-
-        return ResponseEntity.ok(filteredMetrics);
+    /**
+     * Fundamentals cache counters (fresh and stale hits, misses, failed background refreshes).
+     *
+     * @return 200 with the current cache statistics
+     */
+    @GetMapping("/fundamentals/stats")
+    public ResponseEntity<Map<String, Object>> getFundamentalsStats() {
+        return ResponseEntity.ok(fundamentalsCache.stats());
     }
 
 
     /**
      * Get historical aggregate data (Massive API) for a ticker.
-     * Supports optional ranges (e.g. "1W" for one week).
+     * Supports optional ranges (e.g. "1W" for one week). Bars are served from the local
+     * bar store, which only asks Massive for the bars it does not have yet.
      *
      * @param ticker stock ticker symbol
      * @param range  optional range code (e.g. "1W", "1D")
-     * @return 200 with Massive API response map containing "results"
+     * @return 200 with a Massive-shaped response map containing "results", 400 for an invalid ticker
      */
     @GetMapping("/historical")
     public ResponseEntity<Map<String, Object>> getHistorical(
         @RequestParam(name = "ticker") String ticker,
         @RequestParam(name = "range", required = false) String range) {
-        String baseUrl = "https://api.massive.com/v2/aggs";
-        String apiKey = nextMassiveKey();
-
-        String multiplier = "1";
         String timespan = "day";
         LocalDate startDate = LocalDate.now().minusYears(2);
         LocalDate endDate = LocalDate.now();
         
         // range can be 1W for 1 week or 1D for 1 day
         if ("1W".equalsIgnoreCase(range)){
-            multiplier = "1";
             timespan = "hour";
             startDate = LocalDate.now().minusWeeks(1);
         }
 
-        URI url = UriComponentsBuilder.fromUriString(baseUrl)
-            .path("/ticker/" + ticker)
-            .path("/range/" + multiplier)
-            .path("/"+ timespan)
-            .path("/" + startDate + "/" + endDate)
-            .queryParam("adjusted", "true")
-            .queryParam("sort", "asc")
-            .queryParam("limit", "5000")
-            .queryParam("apiKey", apiKey)
-            .build().toUri();
-
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange( 
-            url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
-        );
-        if (!response.getStatusCode().equals(HttpStatus.OK)) {
-            return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
+        List<Map<String, Object>> results;
+        try {
+            results = barStore.bars(ticker, timespan, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> err = new HashMap<>();
+            err.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(err);
         }
-
-        Map<String, Object> body = response.getBody();
-        if (body == null || !body.containsKey("results")) {
+        if (results.isEmpty()) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
 
+        Map<String, Object> body = new HashMap<>();
+        body.put("ticker", ticker.toUpperCase());
+        body.put("status", "OK");
+        body.put("resultsCount", results.size());
+        body.put("results", results);
         return ResponseEntity.ok(body);
     }
+
+    /**
+     * Upstream calls shed by the key pools surface as 503 with a Retry-After hint.
+     */
+    @ExceptionHandler(ApiKeyPool.KeyPoolExhaustedException.class)
+    public ResponseEntity<Map<String, Object>> handleKeyPoolExhausted(ApiKeyPool.KeyPoolExhaustedException ex) {
+        Map<String, Object> err = new HashMap<>();
+        err.put("error", ex.getMessage());
+        long retryAfterSeconds = Math.max(1L, (ex.getRetryAfterMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(err);
+    }
+
+    /**
+     * A fundamentals load refused upstream (for example 401 or 403) is answered with the same status.
+     */
+    @ExceptionHandler(FundamentalsCache.UpstreamStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleUpstreamStatus(FundamentalsCache.UpstreamStatusException ex) {
+        Map<String, Object> err = new HashMap<>();
+        err.put("error", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus()).body(err);
+    }
 }
@@ -3,19 +3,26 @@ package team8.backend.controller;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import team8.backend.dto.TournamentCreateDTO;
 import team8.backend.dto.TournamentDTO;
 import team8.backend.dto.TournamentLeaderboardDTO;
 import team8.backend.dto.TournamentUpdateDTO;
 import team8.backend.entity.Account;
-import team8.backend.entity.Holding;
 import team8.backend.entity.Tournament;
 import team8.backend.entity.User;
 import team8.backend.repository.AccountRepository;
 import team8.backend.repository.TournamentRepository;
 import team8.backend.repository.UserRepository;
+import team8.backend.service.DashboardService;
+import team8.backend.service.LeaderboardService;
+import team8.backend.service.LeaderboardStreamService;
+import team8.backend.service.PriceSnapshotService;
+import team8.backend.service.TradeLedgerService;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -40,7 +47,22 @@ public class TournamentController {
     private AccountRepository accountRepository;
 
     @Autowired
-    private StockController stockController;
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private LeaderboardStreamService leaderboardStreamService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TradeLedgerService tradeLedgerService;
+
+    // upper bound on leaderboard rows returned per page
+    private static final int MAX_LEADERBOARD_PAGE_SIZE = 500;
 
     @PostMapping
     public ResponseEntity<TournamentDTO> createTournament(@RequestBody TournamentCreateDTO dto) {
@@ -60,9 +82,10 @@ public class TournamentController {
 
     @GetMapping
     public ResponseEntity<List<TournamentDTO>> getAllTournaments() {
+        Map<Long, Long> counts = participantCounts();
         List<TournamentDTO> dtos = tournamentRepository.findAll()
                 .stream()
-                .map(TournamentDTO::fromEntity)
+                .map(t -> TournamentDTO.fromEntity(t, counts.getOrDefault(t.getId(), 0L).intValue()))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
@@ -78,7 +101,7 @@ public class TournamentController {
 
         Tournament tournament = tournamentOpt.get();
 
-        if (tournament.getParticipantCount() >= tournament.getMaxParticipants()) {
+        if (accountRepository.countByTournamentId(tournamentId) >= tournament.getMaxParticipants()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Tournament is full");
         }
 
@@ -88,11 +111,7 @@ public class TournamentController {
         User user = userOpt.get();
 
         // Check if user already has an account in this tournament
-        boolean alreadyEntered = accountRepository.findByUser(user)
-                .stream()
-                .anyMatch(acc -> tournament.equals(acc.getTournament()));
-
-        if (alreadyEntered) {
+        if (accountRepository.existsByUserIdAndTournamentId(userId, tournamentId)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User already entered this tournament");
         }
 
@@ -102,57 +121,87 @@ public class TournamentController {
             tournament.getName() + " Account",
             tournament.getInitialCash()
         );
-        tournament.addAccount(tournamentAccount);
+        // set the owning side only, so the tournament's account collection is not loaded
+        tournamentAccount.setTournament(tournament);
         accountRepository.save(tournamentAccount);
+        leaderboardService.addParticipant(tournamentAccount);
+        dashboardService.invalidate(userId);
 
         return ResponseEntity.status(HttpStatus.CREATED).body("User entered tournament successfully");
     }
 
+    /**
+     * Ranked leaderboard for a tournament, served from the in-memory leaderboard engine.
+     *
+     * @param tournamentId id of the tournament
+     * @param page         0-based page index
+     * @param size         rows per page (capped at 500)
+     * @return 200 with one page of leaderboard rows, 404 when the tournament does not exist
+     */
     @GetMapping("/{tournamentId}/leaderboard")
-    public ResponseEntity<List<TournamentLeaderboardDTO>> getLeaderboard(@PathVariable("tournamentId") Long tournamentId) {
+    public ResponseEntity<List<TournamentLeaderboardDTO>> getLeaderboard(
+            @PathVariable("tournamentId") Long tournamentId,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
         Optional<Tournament> tournamentOpt = tournamentRepository.findById(tournamentId);
         if (tournamentOpt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
 
-        Tournament tournament = tournamentOpt.get();
+        int safePage = Math.max(0, page);
+        int safeSize = Math.min(Math.max(1, size), MAX_LEADERBOARD_PAGE_SIZE);
 
-        // Collect all unique tickers and fetch current prices
-        Set<String> tickers = tournament.getAccounts().stream()
-                .flatMap(acc -> acc.getHoldings().stream())
-                .map(Holding::getStockTicker)
-                .collect(Collectors.toSet());
-        Map<String, Double> livePrices = fetchCurrentPrices(tickers);
+        return ResponseEntity.ok(
+                leaderboardService.page(tournamentOpt.get(), safePage, safeSize, this::fetchCurrentPrices));
+    }
 
-        List<TournamentLeaderboardDTO> leaderboard = tournament.getAccounts()
-                .stream()
-                .map(acc -> new TournamentLeaderboardDTO(
-                        acc.getUser().getName(),
-                        acc.getCash(),
-                        acc.getHoldings().stream()
-                                .mapToDouble(h -> {
-                                    String ticker = h.getStockTicker().toUpperCase();
-                                    double price = livePrices.getOrDefault(ticker, h.getAveragePrice());
-                                    return h.getShares() * price;
-                                })
-                                .sum()
-                ))
-                .sorted((a,b) -> Double.compare(b.getTotalHoldingValue() + b.getCash(), a.getTotalHoldingValue() + a.getCash()))
-                .collect(Collectors.toList());
+    /**
+     * Leaderboard row (including rank) for a single user in a tournament.
+     *
+     * @param tournamentId id of the tournament
+     * @param userId       id of the user
+     * @return 200 with the user's row, 404 when the tournament does not exist or the user is not entered
+     */
+    @GetMapping("/{tournamentId}/leaderboard/rank")
+    public ResponseEntity<?> getLeaderboardRank(
+            @PathVariable("tournamentId") Long tournamentId,
+            @RequestParam("userId") Long userId) {
+        Optional<Tournament> tournamentOpt = tournamentRepository.findById(tournamentId);
+        if (tournamentOpt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Tournament not found");
+
+        TournamentLeaderboardDTO row = leaderboardService.rankOf(tournamentOpt.get(), userId, this::fetchCurrentPrices);
+        if (row == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User is not in this tournament");
+
+        return ResponseEntity.ok(row);
+    }
 
-        return ResponseEntity.ok(leaderboard);
+    /**
+     * Live leaderboard as server-sent events. The first "snapshot" event holds the top rows;
+     * each later "delta" event holds { rows, removed }: the rows whose rank or net worth changed
+     * and the account ids that dropped out. Deltas are sent at most once per push interval.
+     *
+     * @param tournamentId id of the tournament
+     * @return 200 with an open event stream, 404 when the tournament does not exist,
+     *         503 when the server has too many streams open
+     */
+    @GetMapping(value = "/{tournamentId}/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLeaderboard(@PathVariable("tournamentId") Long tournamentId) {
+        // the body of a stream response can only be the emitter, so errors go through the error page
+        Tournament tournament = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tournament not found"));
+        try {
+            return ResponseEntity.ok(leaderboardStreamService.subscribe(tournament));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
     }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<TournamentDTO>> getTournamentsForUser(@PathVariable("userId") Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        if (!userRepository.existsById(userId)) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
 
-        User user = userOpt.get();
-
-        List<TournamentDTO> tournaments = accountRepository.findByUser(user)
+        Map<Long, Long> counts = participantCounts();
+        List<TournamentDTO> tournaments = tournamentRepository.findByParticipantUserId(userId)
                 .stream()
-                .map(Account::getTournament)
-                .filter(t -> t != null)
-                .map(TournamentDTO::fromEntity)
+                .map(t -> TournamentDTO.fromEntity(t, counts.getOrDefault(t.getId(), 0L).intValue()))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(tournaments);
@@ -188,7 +237,14 @@ public class TournamentController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Tournament not found");
         }
 
+        try {
+            opt.get().getAccounts().forEach(account -> tradeLedgerService.drain(account.getId()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
         tournamentRepository.delete(opt.get());
+        leaderboardService.evict(tournamentId);
+        leaderboardStreamService.close(tournamentId);
         return ResponseEntity.ok("Tournament deleted successfully");
     }
 
@@ -204,43 +260,41 @@ public class TournamentController {
         Optional<User> uOpt = userRepository.findById(userId);
         if (uOpt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
 
-        Tournament tournament = tOpt.get();
-        User user = uOpt.get();
-
         // Find account for this tournament
-        Account account = accountRepository.findByUser(user)
-                .stream()
-                .filter(acc -> tournament.equals(acc.getTournament()))
-                .findFirst()
-                .orElse(null);
+        Account account = accountRepository.findByUserIdAndTournamentId(userId, tournamentId).orElse(null);
 
         if (account == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User is not in this tournament");
         }
 
+        try {
+            tradeLedgerService.drain(account.getId());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
         accountRepository.delete(account);
+        leaderboardService.removeAccount(account);
+        dashboardService.invalidate(userId);
 
         return ResponseEntity.ok("User left the tournament successfully");
     }
 
+    // Tournament id -> participant count from a single grouped query
+    private Map<Long, Long> participantCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (TournamentRepository.ParticipantCount row : tournamentRepository.countParticipants()) {
+            counts.put(row.getTournamentId(), row.getParticipants());
+        }
+        return counts;
+    }
+
     /**
-     * Fetch live prices for all currently held stocks across all users in a tournament
+     * Current prices for all stocks held in a tournament, read from the background price
+     * snapshot so leaderboard requests never wait on Finnhub. Tickers that are not in the
+     * snapshot yet fall back to average purchase price until the next refresh.
      */
     private Map<String, Double> fetchCurrentPrices(Set<String> tickers) {
-        Map<String, Double> prices = new HashMap<>();
-        if (tickers == null || tickers.isEmpty()) return prices;
-
-        for (String ticker : tickers) {
-            try {
-                ResponseEntity<Map<String, Object>> resp = stockController.getQuote(ticker);
-                if (resp.getStatusCode().is2xxSuccessful() && resp.getBody() != null) {
-                    Object current = resp.getBody().get("c");
-                    prices.put(ticker.toUpperCase(), ((Number) current).doubleValue());
-                }
-            } catch (Exception ex) {
-                // Ignores errors, will fall back to average purchase price
-            }
-        }
-        return prices;
+        if (tickers == null || tickers.isEmpty()) return new HashMap<>();
+        return priceSnapshotService.prices(tickers);
     }
 }
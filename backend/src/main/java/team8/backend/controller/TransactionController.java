@@ -1,15 +1,24 @@
 package team8.backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import team8.backend.dto.TransactionDTO;
+import team8.backend.entity.Transaction;
 import team8.backend.repository.AccountRepository;
 import team8.backend.repository.TransactionRepository;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Controller providing transaction retrieval endpoints.
- * Supports listing transactions for an account and fetching a single transaction by id.
+ * Supports listing transactions for an account (in full or one keyset page at a time)
+ * and fetching a single transaction by id.
  */
 @RestController
 @RequestMapping("/api/transactions")
@@ -22,6 +31,9 @@ public class TransactionController {
     @Autowired
     private AccountRepository accountRepository;
 
+    // upper bound on rows returned by one history page
+    private static final int MAX_PAGE_SIZE = 100;
+
     /**
      * Get all transactions for the specified account, ordered by timestamp (desc).
      *
@@ -40,6 +52,53 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    /**
+     * One page of an account's transactions, newest first.
+     * Pass the "nextBeforeTimestamp" and "nextBeforeId" of a page to get the page after it.
+     * Example: /api/transactions/page?accountId=1&size=20&beforeTimestamp=2025-01-01T10:00:00&beforeId=42
+     *
+     * @param accountId       id of the account to retrieve transactions for
+     * @param size            rows per page (default 20, capped at 100)
+     * @param beforeTimestamp timestamp of the last row already seen (optional)
+     * @param beforeId        id of the last row already seen (required with beforeTimestamp)
+     * @return 200 with { transactions, hasMore, nextBeforeTimestamp, nextBeforeId },
+     *         400 for an incomplete cursor, 404 when the account is not found
+     */
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getTransactionPage(
+            @RequestParam(name = "accountId") Long accountId,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "beforeTimestamp", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTimestamp,
+            @RequestParam(name = "beforeId", required = false) Long beforeId) {
+        if ((beforeTimestamp == null) != (beforeId == null)) {
+            Map<String, Object> err = new HashMap<>();
+            err.put("error", "beforeTimestamp and beforeId must be given together");
+            return ResponseEntity.badRequest().body(err);
+        }
+        if (!accountRepository.existsById(accountId)) return ResponseEntity.notFound().build();
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // one extra row tells whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Transaction> rows = beforeTimestamp == null
+                ? transactionRepository.findLatest(accountId, limit)
+                : transactionRepository.findBefore(accountId, beforeTimestamp, beforeId, limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) rows = rows.subList(0, pageSize);
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("transactions", TransactionDTO.fromEntities(rows));
+        resp.put("hasMore", hasMore);
+        if (hasMore) {
+            Transaction last = rows.get(rows.size() - 1);
+            resp.put("nextBeforeTimestamp", last.getTimestamp());
+            resp.put("nextBeforeId", last.getId());
+        }
+        return ResponseEntity.ok(resp);
+    }
+
     /**
      * Retrieve a single transaction by id.
      *
@@ -5,17 +5,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import team8.backend.config.PasswordUtils;
 import team8.backend.entity.User;
 import team8.backend.repository.UserRepository;
 import team8.backend.repository.AccountRepository;
 import team8.backend.entity.Account;
-import team8.backend.dto.AccountDTO;
+import team8.backend.dto.AccountSummaryDTO;
 import team8.backend.dto.UserDTO;
+import team8.backend.service.DashboardService;
+import team8.backend.service.PasswordService;
+import team8.backend.service.UserLookupService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller handling user registration, authentication, and user listing.
@@ -31,60 +35,80 @@ public class UserController {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
     /**
      * Register a new user and create a primary account for them.
-     * Password will be hashed before saving.
+     * The password is hashed on the password pool before saving, so the request thread is released while it runs.
      *
      * @param user user object (email, password, etc.)
-     * @return 201 with created UserDTO, 409 when email already exists
+     * @return 201 with created UserDTO, 409 when email already exists,
+     *         503 when the password pool is saturated
      */
     @PostMapping("/signup")
-    public ResponseEntity<UserDTO> addUser(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<UserDTO>> addUser(@RequestBody User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
         }
 
-        String hashedPassword = PasswordUtils.hashPassword(user.getPassword());
-        user.setPassword(hashedPassword);
+        try {
+            return passwordService.hash(user.getPassword()).thenApply(hashedPassword -> {
+                user.setPassword(hashedPassword);
+                User savedUser = userRepository.save(user);
 
-        User savedUser = userRepository.save(user);
+                // Create primary account with 10000 cash
+                Account primaryAccount = new Account(savedUser, "Primary Account", 10000.0);
+                accountRepository.save(primaryAccount);
 
-        // Create primary account with 10000 cash
-        Account primaryAccount = new Account(savedUser, "Primary Account", 10000.0);
-        accountRepository.save(primaryAccount);
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(UserDTO.fromEntity(savedUser));
+                return ResponseEntity.status(HttpStatus.CREATED).body(UserDTO.fromEntity(savedUser));
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
     }
 
     /**
      * Authenticate a user by email/password and update lastLoginAt on success.
+     * The BCrypt check runs on the password pool, so the request thread is released while it runs.
      *
      * @param loginRequest user object containing email and plaintext password
-     * @return 200 with UserDTO on success, 401 on invalid credentials, 404 if user not found
+     * @return 200 with UserDTO on success, 401 on invalid credentials, 404 if user not found,
+     *         503 when too many logins are already waiting for verification
      */
     @PostMapping("/login")
-    public ResponseEntity<UserDTO> loginUser(@RequestBody User loginRequest) {
-        Optional<User> optionalUser = userRepository.findAll()
-                .stream()
-                .filter(u -> u.getEmail().equals(loginRequest.getEmail()))
-                .findFirst();
+    public CompletableFuture<ResponseEntity<UserDTO>> loginUser(@RequestBody User loginRequest) {
+        Optional<User> optionalUser = userLookupService.findByEmail(loginRequest.getEmail());
 
         if (optionalUser.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
         }
 
         User user = optionalUser.get();
 
         // Hashed password check using BCrypt
-        if (!PasswordUtils.checkPassword(loginRequest.getPassword(), user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        try {
+            return passwordService.verify(loginRequest.getPassword(), user.getPassword())
+                    .<ResponseEntity<UserDTO>>thenApply(matches -> {
+                        if (!matches) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                        }
+
+                        // Update lastLoginAt
+                        user.setLastLoginAt(LocalDateTime.now());
+                        userRepository.save(user);
+
+                        return ResponseEntity.ok(UserDTO.fromEntity(user));
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
         }
-
-        // Update lastLoginAt
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
-
-        return ResponseEntity.ok(UserDTO.fromEntity(user));
     }
 
 
@@ -97,10 +121,7 @@ public class UserController {
      */
     @PatchMapping("/changename")
     public ResponseEntity<UserDTO> changeName(@RequestBody User changeUser, @RequestParam(name = "newName") String newName) {
-        Optional<User> optionalUser = userRepository.findAll()
-                .stream()
-                .filter(u -> u.getEmail().equals(changeUser.getEmail()))
-                .findFirst();
+        Optional<User> optionalUser = userLookupService.findByEmail(changeUser.getEmail());
 
         if (optionalUser.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -119,30 +140,38 @@ public class UserController {
      * @param changeUser user entity (just email)
      * @param oldPassword old password
      * @param newPassword new password
-     * @return 200 on success, 404 if user not found, 403 if wrong old password
+     * @return 200 on success, 404 if user not found, 403 if wrong old password,
+     *         503 when the password pool is saturated
      */
     @PatchMapping("/changepassword")
-    public ResponseEntity<UserDTO> changePassword(@RequestBody User changeUser, @RequestParam(name = "oldPassword") String oldPassword, @RequestParam(name = "newPassword") String newPassword) {
-        Optional<User> optionalUser = userRepository.findAll()
-                .stream()
-                .filter(u -> u.getEmail().equals(changeUser.getEmail()))
-                .findFirst();
+    public CompletableFuture<ResponseEntity<UserDTO>> changePassword(@RequestBody User changeUser, @RequestParam(name = "oldPassword") String oldPassword, @RequestParam(name = "newPassword") String newPassword) {
+        Optional<User> optionalUser = userLookupService.findByEmail(changeUser.getEmail());
 
         if (optionalUser.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
         }
         User user = optionalUser.get();
 
-        // ensure old pass is correct
-        if (!PasswordUtils.checkPassword(oldPassword, user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        try {
+            // ensure old pass is correct, then hash the new one (both on the password pool)
+            return passwordService.verify(oldPassword, user.getPassword())
+                    .<ResponseEntity<UserDTO>>thenCompose(matches -> {
+                        if (!matches) {
+                            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+                        }
+                        try {
+                            return passwordService.hash(newPassword).thenApply(newHashedPass -> {
+                                user.setPassword(newHashedPass);
+                                userRepository.save(user);
+                                return ResponseEntity.ok(UserDTO.fromEntity(user));
+                            });
+                        } catch (RejectedExecutionException e) {
+                            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
         }
-
-        String newHashedPass = PasswordUtils.hashPassword(newPassword);
-        user.setPassword(newHashedPass);
-        userRepository.save(user);
-        
-        return ResponseEntity.ok(UserDTO.fromEntity(user));
     }
 
     /**
@@ -158,7 +187,7 @@ public class UserController {
     }
 
     @PostMapping("/{userId}/accounts")
-    public ResponseEntity<AccountDTO> createAdditionalAccount(
+    public ResponseEntity<AccountSummaryDTO> createAdditionalAccount(
             @PathVariable("userId") Long userId,
             @RequestParam("name") String name  // frontend sends ?name=MyAccount
     ) {
@@ -172,27 +201,21 @@ public class UserController {
         // Create account with provided name, 10000 initial cash
         Account newAccount = new Account(user, name, 10000.0);
         accountRepository.save(newAccount);
+        dashboardService.invalidate(userId);
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(AccountDTO.fromEntity(newAccount));
+                .body(new AccountSummaryDTO(newAccount.getId(), user.getId(), newAccount.getName(),
+                        newAccount.getCashMicros(), 0L, 0L, 0.0, null, null));
     }
 
     @GetMapping("/{userId}/accounts")
-    public ResponseEntity<List<AccountDTO>> getAccountsForUser(@PathVariable("userId") Long userId) {
+    public ResponseEntity<List<AccountSummaryDTO>> getAccountsForUser(@PathVariable("userId") Long userId) {
 
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
+        if (!userRepository.existsById(userId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        User user = optionalUser.get();
-
-        List<AccountDTO> dtos = accountRepository.findByUser(user)
-                .stream()
-                .map(AccountDTO::fromEntity)
-                .toList();
-
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(accountRepository.findSummariesByUserId(userId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package team8.backend.dto;
+
+import team8.backend.entity.Micros;
+
+/**
+ * Account without its holdings and transactions, built directly by a JPQL constructor
+ * projection so listing accounts never loads either collection.
+ */
+public class AccountSummaryDTO {
+    private Long id;
+    private Long userId;
+    private String name;
+    private double cash;
+    private long holdingsCount;
+    private double totalShares;
+    private double costBasis; // sum of shares * average purchase price
+    private Long tournamentId;
+    private String tournamentName;
+
+    public AccountSummaryDTO() {}
+
+    // Used by the AccountRepository summary queries; aggregate columns arrive as wrapper types.
+    // Amounts are in micro-units (cost basis is shares x price, so in micro-units squared).
+    public AccountSummaryDTO(Long id, Long userId, String name, Long cashMicros, Long holdingsCount,
+                             Long totalSharesMicros, Double costBasisMicros2, Long tournamentId, String tournamentName) {
+        this.id = id;
+        this.userId = userId;
+        this.name = name;
+        this.cash = cashMicros != null ? Micros.toDouble(cashMicros) : 0.0;
+        this.holdingsCount = holdingsCount != null ? holdingsCount : 0L;
+        this.totalShares = totalSharesMicros != null ? Micros.toDouble(totalSharesMicros) : 0.0;
+        this.costBasis = costBasisMicros2 != null ? costBasisMicros2 / ((double) Micros.SCALE * Micros.SCALE) : 0.0;
+        this.tournamentId = tournamentId;
+        this.tournamentName = tournamentName;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getName() { return name; }
+    public double getCash() { return cash; }
+    public long getHoldingsCount() { return holdingsCount; }
+    public double getTotalShares() { return totalShares; }
+    public double getCostBasis() { return costBasis; }
+    public Long getTournamentId() { return tournamentId; }
+    public String getTournamentName() { return tournamentName; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public void setName(String name) { this.name = name; }
+    public void setCash(double cash) { this.cash = cash; }
+    public void setHoldingsCount(long holdingsCount) { this.holdingsCount = holdingsCount; }
+    public void setTotalShares(double totalShares) { this.totalShares = totalShares; }
+    public void setCostBasis(double costBasis) { this.costBasis = costBasis; }
+    public void setTournamentId(Long tournamentId) { this.tournamentId = tournamentId; }
+    public void setTournamentName(String tournamentName) { this.tournamentName = tournamentName; }
+}
@@ -0,0 +1,35 @@
+package team8.backend.dto;
+
+import java.util.List;
+
+/**
+ * Response of a basket trade: the account's cash after all legs, the resulting positions of the
+ * traded tickers (closed positions are omitted) and one recorded transaction per leg.
+ */
+public class BasketResultDTO {
+    private Long accountId;
+    private double cash;                       // cash after the basket
+    private List<HoldingDTO> holdings;         // open positions of the traded tickers
+    private List<TransactionDTO> transactions; // in execution order
+
+    public BasketResultDTO() {}
+
+    public BasketResultDTO(Long accountId, double cash, List<HoldingDTO> holdings, List<TransactionDTO> transactions) {
+        this.accountId = accountId;
+        this.cash = cash;
+        this.holdings = holdings;
+        this.transactions = transactions;
+    }
+
+    // Getters
+    public Long getAccountId() { return accountId; }
+    public double getCash() { return cash; }
+    public List<HoldingDTO> getHoldings() { return holdings; }
+    public List<TransactionDTO> getTransactions() { return transactions; }
+
+    // Setters
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public void setCash(double cash) { this.cash = cash; }
+    public void setHoldings(List<HoldingDTO> holdings) { this.holdings = holdings; }
+    public void setTransactions(List<TransactionDTO> transactions) { this.transactions = transactions; }
+}
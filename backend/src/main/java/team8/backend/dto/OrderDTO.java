@@ -0,0 +1,93 @@
+package team8.backend.dto;
+
+import team8.backend.entity.Micros;
+import team8.backend.entity.Order;
+
+import java.time.LocalDateTime;
+
+public class OrderDTO {
+
+    private Long id;
+    private Long accountId;
+    private String action;
+    private String type;
+    private String stockTicker;
+    private double shares;
+    private Double limitPrice;
+    private Double stopPrice;
+    private String status;
+    private Double fillPrice;
+    private Long transactionId;
+    private String rejectReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+
+    public OrderDTO() {}
+
+    // Factory method
+    public static OrderDTO fromEntity(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.id = order.getId();
+        dto.accountId = order.getAccount().getId();  // safe: only fetches ID
+        dto.action = order.getAction();
+        dto.type = order.getType();
+        dto.stockTicker = order.getStockTicker();
+        dto.shares = Micros.toDouble(order.getSharesMicros());
+        dto.limitPrice = toDouble(order.getLimitPriceMicros());
+        dto.stopPrice = toDouble(order.getStopPriceMicros());
+        dto.status = order.getStatus();
+        dto.fillPrice = toDouble(order.getFillPriceMicros());
+        dto.transactionId = order.getTransactionId();
+        dto.rejectReason = order.getRejectReason();
+        dto.createdAt = order.getCreatedAt();
+        dto.closedAt = order.getClosedAt();
+        return dto;
+    }
+
+    private static Double toDouble(Long micros) {
+        return micros != null ? Micros.toDouble(micros) : null;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getStockTicker() { return stockTicker; }
+    public void setStockTicker(String stockTicker) { this.stockTicker = stockTicker; }
+
+    public double getShares() { return shares; }
+    public void setShares(double shares) { this.shares = shares; }
+
+    public Double getLimitPrice() { return limitPrice; }
+    public void setLimitPrice(Double limitPrice) { this.limitPrice = limitPrice; }
+
+    public Double getStopPrice() { return stopPrice; }
+    public void setStopPrice(Double stopPrice) { this.stopPrice = stopPrice; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Double getFillPrice() { return fillPrice; }
+    public void setFillPrice(Double fillPrice) { this.fillPrice = fillPrice; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getRejectReason() { return rejectReason; }
+    public void setRejectReason(String rejectReason) { this.rejectReason = rejectReason; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getClosedAt() { return closedAt; }
+    public void setClosedAt(LocalDateTime closedAt) { this.closedAt = closedAt; }
+}
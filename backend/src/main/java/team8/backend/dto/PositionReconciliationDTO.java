@@ -0,0 +1,48 @@
+package team8.backend.dto;
+
+import java.util.List;
+
+/**
+ * An account's cash and positions rebuilt from its transactions, compared with what is stored.
+ */
+public class PositionReconciliationDTO {
+    private Long accountId;
+    private boolean consistent;
+    private double rebuiltCash;
+    private double storedCash;
+    private List<HoldingDTO> rebuiltHoldings;   // ids are null, these are not rows
+    private List<String> differences;           // one line per mismatch, empty when consistent
+    private int replayedTransactions;           // transactions folded since the last checkpoint
+
+    public PositionReconciliationDTO() {}
+
+    public PositionReconciliationDTO(Long accountId, double rebuiltCash, double storedCash,
+                                     List<HoldingDTO> rebuiltHoldings, List<String> differences,
+                                     int replayedTransactions) {
+        this.accountId = accountId;
+        this.consistent = differences.isEmpty();
+        this.rebuiltCash = rebuiltCash;
+        this.storedCash = storedCash;
+        this.rebuiltHoldings = rebuiltHoldings;
+        this.differences = differences;
+        this.replayedTransactions = replayedTransactions;
+    }
+
+    // Getters
+    public Long getAccountId() { return accountId; }
+    public boolean isConsistent() { return consistent; }
+    public double getRebuiltCash() { return rebuiltCash; }
+    public double getStoredCash() { return storedCash; }
+    public List<HoldingDTO> getRebuiltHoldings() { return rebuiltHoldings; }
+    public List<String> getDifferences() { return differences; }
+    public int getReplayedTransactions() { return replayedTransactions; }
+
+    // Setters
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public void setConsistent(boolean consistent) { this.consistent = consistent; }
+    public void setRebuiltCash(double rebuiltCash) { this.rebuiltCash = rebuiltCash; }
+    public void setStoredCash(double storedCash) { this.storedCash = storedCash; }
+    public void setRebuiltHoldings(List<HoldingDTO> rebuiltHoldings) { this.rebuiltHoldings = rebuiltHoldings; }
+    public void setDifferences(List<String> differences) { this.differences = differences; }
+    public void setReplayedTransactions(int replayedTransactions) { this.replayedTransactions = replayedTransactions; }
+}
@@ -0,0 +1,35 @@
+package team8.backend.dto;
+
+import java.util.List;
+
+/**
+ * Result of rebuilding the positions of every account.
+ */
+public class RebuildSummaryDTO {
+    private int accounts;
+    private long replayedTransactions;
+    private List<Long> inconsistentAccountIds;
+    private long elapsedMillis;
+
+    public RebuildSummaryDTO() {}
+
+    public RebuildSummaryDTO(int accounts, long replayedTransactions, List<Long> inconsistentAccountIds,
+                             long elapsedMillis) {
+        this.accounts = accounts;
+        this.replayedTransactions = replayedTransactions;
+        this.inconsistentAccountIds = inconsistentAccountIds;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public int getAccounts() { return accounts; }
+    public long getReplayedTransactions() { return replayedTransactions; }
+    public List<Long> getInconsistentAccountIds() { return inconsistentAccountIds; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    // Setters
+    public void setAccounts(int accounts) { this.accounts = accounts; }
+    public void setReplayedTransactions(long replayedTransactions) { this.replayedTransactions = replayedTransactions; }
+    public void setInconsistentAccountIds(List<Long> inconsistentAccountIds) { this.inconsistentAccountIds = inconsistentAccountIds; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
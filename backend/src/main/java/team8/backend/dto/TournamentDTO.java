@@ -16,11 +16,16 @@ private String image;
 public TournamentDTO() {}
 
 public static TournamentDTO fromEntity(Tournament t) {
+    return fromEntity(t, t.getParticipantCount());
+}
+
+// For listings: the participant count comes from a count query instead of loading t.getAccounts()
+public static TournamentDTO fromEntity(Tournament t, int participantCount) {
     TournamentDTO dto = new TournamentDTO();
     dto.id = t.getId();
     dto.name = t.getName();
     dto.maxParticipants = t.getMaxParticipants();
-    dto.currentParticipants = t.getParticipantCount();
+    dto.currentParticipants = participantCount;
     dto.startDate = t.getStartDate();
     dto.endDate = t.getEndDate();
     dto.status = t.getStatus();
@@ -1,6 +1,8 @@
 package team8.backend.dto;
 
 public class TournamentLeaderboardDTO {
+    private int rank;
+    private Long accountId;
     private String accountName;
     private double cash;
     private double totalHoldingValue;
@@ -13,13 +15,23 @@ public class TournamentLeaderboardDTO {
         this.totalHoldingValue = totalHoldingValue;
     }
 
+    public TournamentLeaderboardDTO(int rank, Long accountId, String accountName, double cash, double totalHoldingValue) {
+        this(accountName, cash, totalHoldingValue);
+        this.rank = rank;
+        this.accountId = accountId;
+    }
+
     // Getters
+    public int getRank() { return rank; }
+    public Long getAccountId() { return accountId; }
     public String getAccountName() { return accountName; }
     public double getCash() { return cash; }
     public double getTotalHoldingValue() { return totalHoldingValue; }
 
     // Setters
+    public void setRank(int rank) { this.rank = rank; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
     public void setAccountName(String accountName) { this.accountName = accountName; }
     public void setCash(double cash) { this.cash = cash; }
     public void setTotalHoldingValue(double totalHoldingValue) { this.totalHoldingValue = totalHoldingValue; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package team8.backend.dto;
+
+/**
+ * Response of a trade: only what the trade changed, not the whole account.
+ */
+public class TradeResultDTO {
+    private Long accountId;
+    private double cash;               // cash after the trade
+    private HoldingDTO holding;        // position after the trade, null when it was closed
+    private TransactionDTO transaction;
+
+    public TradeResultDTO() {}
+
+    public TradeResultDTO(Long accountId, double cash, HoldingDTO holding, TransactionDTO transaction) {
+        this.accountId = accountId;
+        this.cash = cash;
+        this.holding = holding;
+        this.transaction = transaction;
+    }
+
+    // Getters
+    public Long getAccountId() { return accountId; }
+    public double getCash() { return cash; }
+    public HoldingDTO getHolding() { return holding; }
+    public TransactionDTO getTransaction() { return transaction; }
+
+    // Setters
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public void setCash(double cash) { this.cash = cash; }
+    public void setHolding(HoldingDTO holding) { this.holding = holding; }
+    public void setTransaction(TransactionDTO transaction) { this.transaction = transaction; }
+}
@@ -13,6 +13,7 @@ public class TransactionDTO {
     private double shares;
     private double price;
     private LocalDateTime timestamp;
+    private LocalDateTime quotedAt;
 
     public TransactionDTO() {}
 
@@ -28,7 +29,7 @@ public class TransactionDTO {
 
     // Factory method
     public static TransactionDTO fromEntity(Transaction tx) {
-        return new TransactionDTO(
+        TransactionDTO dto = new TransactionDTO(
                 tx.getId(),
                 tx.getAccount().getId(),  // safe: only fetches ID
                 tx.getAction(),
@@ -37,6 +38,8 @@ public class TransactionDTO {
                 tx.getPrice(),
                 tx.getTimestamp()
         );
+        dto.setQuotedAt(tx.getQuotedAt());
+        return dto;
     }
 
     // convert list of entities
@@ -65,4 +68,7 @@ public class TransactionDTO {
 
     public java.time.LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(java.time.LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public LocalDateTime getQuotedAt() { return quotedAt; }
+    public void setQuotedAt(LocalDateTime quotedAt) { this.quotedAt = quotedAt; }
 }
\ No newline at end of file
@@ -10,7 +10,10 @@ import java.util.List;
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_ids")
+    @TableGenerator(name = "account_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "accounts",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     // Many accounts can belong to one user
@@ -21,7 +24,13 @@ public class Account {
     @Column(nullable = false)
     private String name = "Default Account";;
 
-    private double cash = 0.0;
+    // millionths of a dollar, see Micros
+    @Column(name = "cash_micros", nullable = false)
+    private long cashMicros;
+
+    // optimistic locking: concurrent writers with a stale version fail instead of overwriting
+    @Version
+    private long version;
 
     // One account can have many holdings
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -31,6 +40,19 @@ public class Account {
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Transaction> transactions = new ArrayList<>();
 
+    // Resting orders; only mapped so deleting an account removes them too
+    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<Order> orders = new ArrayList<>();
+
+    // Position checkpoints; only mapped so deleting an account removes them too
+    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<PositionCheckpoint> checkpoints = new ArrayList<>();
+
+    // cash the account was opened with, the starting point for rebuilding it from its transactions;
+    // null for accounts opened before it was recorded
+    @Column(name = "opening_cash_micros")
+    private Long openingCashMicros;
+
     @ManyToOne
     @JoinColumn(name = "tournament_id")  // nullable, not all accounts have tournaments
     private Tournament tournament;
@@ -48,7 +70,8 @@ public class Account {
     public Account(User user, String name, double initialCash) {
         this.user = user;
         this.name = name;
-        this.cash = initialCash;
+        this.cashMicros = Micros.of(initialCash);
+        this.openingCashMicros = cashMicros;
     }
 
     // Getters & Setters
@@ -56,6 +79,10 @@ public class Account {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public User getUser() {
         return user;
     }
@@ -65,11 +92,27 @@ public class Account {
     }
 
     public double getCash() {
-        return cash;
+        return Micros.toDouble(cashMicros);
     }
 
     public void setCash(double cash) {
-        this.cash = cash;
+        this.cashMicros = Micros.of(cash);
+    }
+
+    public long getCashMicros() {
+        return cashMicros;
+    }
+
+    public void setCashMicros(long cashMicros) {
+        this.cashMicros = cashMicros;
+    }
+
+    public Long getOpeningCashMicros() {
+        return openingCashMicros;
+    }
+
+    public void setOpeningCashMicros(Long openingCashMicros) {
+        this.openingCashMicros = openingCashMicros;
     }
 
     public List<Holding> getHoldings() {
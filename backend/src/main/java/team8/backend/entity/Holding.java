@@ -7,7 +7,10 @@ import jakarta.persistence.*;
 public class Holding {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "holding_ids")
+    @TableGenerator(name = "holding_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "holdings",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     // Many holdings belong to one account
@@ -18,11 +21,16 @@ public class Holding {
     @Column(name = "stock_ticker", nullable = false)
     private String stockTicker;
 
-    @Column(name = "shares", nullable = false)
-    private double shares;
+    // shares and price in millionths, see Micros
+    @Column(name = "shares_micros", nullable = false)
+    private long sharesMicros;
 
-    @Column(name = "average_price", nullable = false)
-    private double averagePrice;
+    @Column(name = "average_price_micros", nullable = false)
+    private long averagePriceMicros;
+
+    // bumped on every share/price update so two writers cannot both apply to the same row
+    @Version
+    private long version;
 
     // Constructors
     public Holding() {}
@@ -30,8 +38,8 @@ public class Holding {
     public Holding(Account account, String stockTicker, double shares, double averagePrice) {
         this.account = account;
         this.stockTicker = stockTicker;
-        this.shares = shares;
-        this.averagePrice = averagePrice;
+        this.sharesMicros = Micros.of(shares);
+        this.averagePriceMicros = Micros.of(averagePrice);
     }
 
     // Getters & Setters
@@ -39,6 +47,10 @@ public class Holding {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public Account getAccount() {
         return account;
     }
@@ -56,18 +68,34 @@ public class Holding {
     }
 
     public double getShares() {
-        return shares;
+        return Micros.toDouble(sharesMicros);
     }
 
     public void setShares(double shares) {
-        this.shares = shares;
+        this.sharesMicros = Micros.of(shares);
     }
 
     public double getAveragePrice() {
-        return averagePrice;
+        return Micros.toDouble(averagePriceMicros);
     }
 
     public void setAveragePrice(double averagePrice) {
-        this.averagePrice = averagePrice;
+        this.averagePriceMicros = Micros.of(averagePrice);
+    }
+
+    public long getSharesMicros() {
+        return sharesMicros;
+    }
+
+    public void setSharesMicros(long sharesMicros) {
+        this.sharesMicros = sharesMicros;
+    }
+
+    public long getAveragePriceMicros() {
+        return averagePriceMicros;
+    }
+
+    public void setAveragePriceMicros(long averagePriceMicros) {
+        this.averagePriceMicros = averagePriceMicros;
     }
 }
\ No newline at end of file
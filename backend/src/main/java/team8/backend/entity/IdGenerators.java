@@ -0,0 +1,18 @@
+package team8.backend.entity;
+
+/**
+ * Shared settings of the table-backed id generators used by the write-heavy entities.
+ * IDENTITY columns make Hibernate insert each row on its own to read back the key, which
+ * disables JDBC batching; a table generator with the pooled optimizer hands out ids in blocks
+ * of {@link #ALLOCATION_SIZE}, so inserts can be batched and one generator round-trip covers a block.
+ * MySQL has no sequences, hence a table rather than a sequence generator.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {}
+}
@@ -0,0 +1,72 @@
+package team8.backend.entity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for money and share quantities stored as long millionths.
+ * Products and quotients are rounded half-up (away from zero) to the nearest micro-unit; they
+ * stay on primitive longs and only fall back to BigDecimal when an intermediate product
+ * does not fit in 64 bits.
+ */
+public final class Micros {
+
+    public static final long SCALE = 1_000_000L;
+
+    private static final BigDecimal SCALE_DECIMAL = BigDecimal.valueOf(SCALE);
+
+    // amounts below this scale to well under Long.MAX_VALUE
+    private static final double MAX_FAST_AMOUNT = 1e12;
+
+    private Micros() {}
+
+    /**
+     * Micro-units closest to a decimal amount (0.1 becomes exactly 100000).
+     */
+    public static long of(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Not a finite amount: " + value);
+        }
+        if (Math.abs(value) < MAX_FAST_AMOUNT) {
+            // exact for amounts with up to six decimals; the product only drifts by an ulp
+            return Math.round(value * SCALE);
+        }
+        return BigDecimal.valueOf(value).multiply(SCALE_DECIMAL).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static double toDouble(long micros) {
+        return micros / (double) SCALE;
+    }
+
+    /**
+     * Product of two micro-unit amounts, e.g. shares x price = cost.
+     */
+    public static long multiply(long a, long b) {
+        return mulDiv(a, b, SCALE);
+    }
+
+    /**
+     * Quotient of two micro-unit amounts, e.g. cost / shares = average price.
+     *
+     * @throws ArithmeticException when {@code b} is not positive
+     */
+    public static long divide(long a, long b) {
+        if (b <= 0) throw new ArithmeticException("Divisor must be positive: " + b);
+        return mulDiv(a, SCALE, b);
+    }
+
+    // a * b / d rounded half-up, for d > 0
+    private static long mulDiv(long a, long b, long d) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            long quotient = low / d;
+            long remainder = Math.abs(low % d);
+            return remainder >= d - remainder ? quotient + Long.signum(low) : quotient;
+        }
+        return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                .divide(BigDecimal.valueOf(d), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+}
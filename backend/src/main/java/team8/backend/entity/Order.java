@@ -0,0 +1,142 @@
+package team8.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A resting limit, stop or stop-limit order. Open orders are mirrored in the in-memory
+ * order books and executed when a quote update crosses their trigger price.
+ */
+@Entity
+@Table(name = "orders", indexes = {
+    // reloading the books on startup reads every active order
+    @Index(name = "idx_orders_status", columnList = "status"),
+    @Index(name = "idx_orders_account", columnList = "account_id, id")
+})
+public class Order {
+
+    public static final String LIMIT = "limit";
+    public static final String STOP = "stop";
+    public static final String STOP_LIMIT = "stop_limit";
+
+    public static final String OPEN = "open";
+    // a stop-limit whose stop was hit; it now rests as a limit order
+    public static final String TRIGGERED = "triggered";
+    public static final String FILLED = "filled";
+    public static final String CANCELLED = "cancelled";
+    public static final String REJECTED = "rejected";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "orders",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private String action; // "buy" or "sell"
+
+    @Column(nullable = false)
+    private String type; // "limit", "stop" or "stop_limit"
+
+    @Column(name = "stock_ticker", nullable = false)
+    private String stockTicker;
+
+    // quantities and prices in millionths (see Micros); a price is null when the type has none
+    @Column(name = "shares_micros", nullable = false)
+    private long sharesMicros;
+
+    @Column(name = "limit_price_micros")
+    private Long limitPriceMicros;
+
+    @Column(name = "stop_price_micros")
+    private Long stopPriceMicros;
+
+    @Column(nullable = false)
+    private String status = OPEN;
+
+    @Column(name = "fill_price_micros")
+    private Long fillPriceMicros;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "reject_reason")
+    private String rejectReason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime closedAt;
+
+    // a fill and a cancel racing on the same order cannot both apply
+    @Version
+    private long version;
+
+    public Order() {}
+
+    public Order(Account account, String action, String type, String stockTicker, long sharesMicros,
+                 Long limitPriceMicros, Long stopPriceMicros, LocalDateTime createdAt) {
+        this.account = account;
+        this.action = action;
+        this.type = type;
+        this.stockTicker = stockTicker;
+        this.sharesMicros = sharesMicros;
+        this.limitPriceMicros = limitPriceMicros;
+        this.stopPriceMicros = stopPriceMicros;
+        this.createdAt = createdAt;
+    }
+
+    // open or triggered: still waiting in a book
+    public boolean isActive() {
+        return OPEN.equals(status) || TRIGGERED.equals(status);
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+
+    public long getVersion() { return version; }
+
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getStockTicker() { return stockTicker; }
+    public void setStockTicker(String stockTicker) { this.stockTicker = stockTicker; }
+
+    public long getSharesMicros() { return sharesMicros; }
+    public void setSharesMicros(long sharesMicros) { this.sharesMicros = sharesMicros; }
+
+    public Long getLimitPriceMicros() { return limitPriceMicros; }
+    public void setLimitPriceMicros(Long limitPriceMicros) { this.limitPriceMicros = limitPriceMicros; }
+
+    public Long getStopPriceMicros() { return stopPriceMicros; }
+    public void setStopPriceMicros(Long stopPriceMicros) { this.stopPriceMicros = stopPriceMicros; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getFillPriceMicros() { return fillPriceMicros; }
+    public void setFillPriceMicros(Long fillPriceMicros) { this.fillPriceMicros = fillPriceMicros; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getRejectReason() { return rejectReason; }
+    public void setRejectReason(String rejectReason) { this.rejectReason = rejectReason; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getClosedAt() { return closedAt; }
+    public void setClosedAt(LocalDateTime closedAt) { this.closedAt = closedAt; }
+}
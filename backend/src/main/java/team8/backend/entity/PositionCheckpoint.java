@@ -0,0 +1,60 @@
+package team8.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An account's cash and positions folded from its transactions up to and including
+ * {@code lastTransactionId}. Rebuilding the account starts here and replays only later transactions.
+ * A checkpoint with lastTransactionId 0 holds the opening cash of an account that predates
+ * Account.openingCashMicros.
+ */
+@Entity
+@Table(name = "position_checkpoints", indexes = {
+    @Index(name = "idx_position_checkpoints_account", columnList = "account_id, last_transaction_id")
+})
+public class PositionCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "position_checkpoint_ids")
+    @TableGenerator(name = "position_checkpoint_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "position_checkpoints",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private long lastTransactionId;
+
+    @Column(name = "cash_micros", nullable = false)
+    private long cashMicros;
+
+    // one "ticker,sharesMicros,averagePriceMicros" line per open position
+    @Lob
+    @Column(nullable = false)
+    private String positions;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public PositionCheckpoint() {}
+
+    public PositionCheckpoint(Account account, long lastTransactionId, long cashMicros, String positions,
+                              LocalDateTime createdAt) {
+        this.account = account;
+        this.lastTransactionId = lastTransactionId;
+        this.cashMicros = cashMicros;
+        this.positions = positions;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public Account getAccount() { return account; }
+    public long getLastTransactionId() { return lastTransactionId; }
+    public long getCashMicros() { return cashMicros; }
+    public String getPositions() { return positions; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,72 @@
+package team8.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A trade that was acknowledged from the trade ledger but could not be applied to the database,
+ * e.g. because the account's position changed outside the ledger. Kept, with everything the
+ * ledger entry held, so it can be reconciled by hand; the account is not a foreign key because
+ * it may be deleted later.
+ */
+@Entity
+@Table(name = "trade_ledger_rejections", indexes = {
+    @Index(name = "idx_trade_ledger_rejections_account", columnList = "account_id")
+})
+public class TradeLedgerRejection {
+
+    // the entry's ledger sequence number
+    @Id
+    @Column(name = "ledger_seq")
+    private Long ledgerSeq;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private String action;
+
+    @Column(nullable = false)
+    private String stockTicker;
+
+    @Column(name = "shares_micros", nullable = false)
+    private long sharesMicros;
+
+    @Column(name = "price_micros", nullable = false)
+    private long priceMicros;
+
+    // when the trade was acknowledged
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    @Column(name = "rejected_at", nullable = false)
+    private LocalDateTime rejectedAt;
+
+    @Column(nullable = false, length = 1000)
+    private String reason;
+
+    public TradeLedgerRejection() {}
+
+    public TradeLedgerRejection(Long ledgerSeq, Long accountId, String action, String stockTicker, long sharesMicros,
+                                long priceMicros, LocalDateTime timestamp, LocalDateTime rejectedAt, String reason) {
+        this.ledgerSeq = ledgerSeq;
+        this.accountId = accountId;
+        this.action = action;
+        this.stockTicker = stockTicker;
+        this.sharesMicros = sharesMicros;
+        this.priceMicros = priceMicros;
+        this.timestamp = timestamp;
+        this.rejectedAt = rejectedAt;
+        this.reason = reason;
+    }
+
+    public Long getLedgerSeq() { return ledgerSeq; }
+    public Long getAccountId() { return accountId; }
+    public String getAction() { return action; }
+    public String getStockTicker() { return stockTicker; }
+    public long getSharesMicros() { return sharesMicros; }
+    public long getPriceMicros() { return priceMicros; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public LocalDateTime getRejectedAt() { return rejectedAt; }
+    public String getReason() { return reason; }
+}
@@ -0,0 +1,34 @@
+package team8.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * The trade ledger sequence number up to which every entry has been applied to the database
+ * (written or rejected). A single row, advanced in the same database transaction as each batch,
+ * so on startup the log is replayed from exactly here. Unlike MAX(transactions.ledger_seq) it
+ * does not move back when an account and its transactions are deleted.
+ */
+@Entity
+@Table(name = "trade_ledger_watermark")
+public class TradeLedgerWatermark {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "applied_through", nullable = false)
+    private long appliedThrough;
+
+    public TradeLedgerWatermark() {}
+
+    public TradeLedgerWatermark(long appliedThrough) {
+        this.id = ID;
+        this.appliedThrough = appliedThrough;
+    }
+
+    public Integer getId() { return id; }
+
+    public long getAppliedThrough() { return appliedThrough; }
+    public void setAppliedThrough(long appliedThrough) { this.appliedThrough = appliedThrough; }
+}
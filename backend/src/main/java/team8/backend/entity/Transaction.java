@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // serves the keyset-paginated history (account, newest first)
+    @Index(name = "idx_transactions_account_ts", columnList = "account_id, timestamp, id"),
+    // serves position rebuilds, which replay an account's transactions in id order
+    @Index(name = "idx_transactions_account_id", columnList = "account_id, id")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_ids")
+    @TableGenerator(name = "transaction_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "transactions",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,23 +29,32 @@ public class Transaction {
     @Column(nullable = false)
     private String stockTicker;
 
-    @Column(nullable = false)
-    private double shares;
+    // shares and price per share at trade, in millionths (see Micros)
+    @Column(name = "shares_micros", nullable = false)
+    private long sharesMicros;
 
-    @Column(nullable = false)
-    private double price; // price per share at trade
+    @Column(name = "price_micros", nullable = false)
+    private long priceMicros;
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    // when the execution price was quoted; null for trades recorded before server-side pricing
+    @Column(name = "quoted_at")
+    private LocalDateTime quotedAt;
+
+    // trade ledger sequence number; null for trades written synchronously
+    @Column(name = "ledger_seq", unique = true)
+    private Long ledgerSeq;
+
     public Transaction() {}
 
     public Transaction(Account account, String action, String stockTicker, double shares, double price, LocalDateTime timestamp) {
         this.account = account;
         this.action = action;
         this.stockTicker = stockTicker;
-        this.shares = shares;
-        this.price = price;
+        this.sharesMicros = Micros.of(shares);
+        this.priceMicros = Micros.of(price);
         this.timestamp = timestamp;
     }
 
@@ -54,12 +71,24 @@ public class Transaction {
     public String getStockTicker() { return stockTicker; }
     public void setStockTicker(String stockTicker) { this.stockTicker = stockTicker; }
 
-    public double getShares() { return shares; }
-    public void setShares(double shares) { this.shares = shares; }
+    public double getShares() { return Micros.toDouble(sharesMicros); }
+    public void setShares(double shares) { this.sharesMicros = Micros.of(shares); }
 
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public double getPrice() { return Micros.toDouble(priceMicros); }
+    public void setPrice(double price) { this.priceMicros = Micros.of(price); }
+
+    public long getSharesMicros() { return sharesMicros; }
+    public void setSharesMicros(long sharesMicros) { this.sharesMicros = sharesMicros; }
+
+    public long getPriceMicros() { return priceMicros; }
+    public void setPriceMicros(long priceMicros) { this.priceMicros = priceMicros; }
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public LocalDateTime getQuotedAt() { return quotedAt; }
+    public void setQuotedAt(LocalDateTime quotedAt) { this.quotedAt = quotedAt; }
+
+    public Long getLedgerSeq() { return ledgerSeq; }
+    public void setLedgerSeq(Long ledgerSeq) { this.ledgerSeq = ledgerSeq; }
 }
\ No newline at end of file
@@ -25,7 +25,7 @@ public class User {
     @Column(nullable = false)
     private String name;
     
-    @Column(nullable = false, unique = true) // emails must be unique
+    @Column(nullable = false, unique = true) // emails must be unique, the unique index also serves login lookups
     private String email;
 
     @Column(nullable = false)
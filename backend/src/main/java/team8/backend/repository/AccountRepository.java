@@ -1,12 +1,51 @@
 package team8.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import team8.backend.dto.AccountSummaryDTO;
 import team8.backend.entity.Account;
 import team8.backend.entity.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     // Find all accounts for a given user
     List<Account> findByUser(User user);
+
+    // Cash across all of a user's accounts (dashboard)
+    @Query("select coalesce(sum(a.cashMicros), 0) from Account a where a.user.id = :userId")
+    long sumCashMicrosByUserId(@Param("userId") Long userId);
+
+    // Every account of a tournament with its owner and holdings in one statement (leaderboard build)
+    @Query("select distinct a from Account a join fetch a.user left join fetch a.holdings where a.tournament.id = :tournamentId")
+    List<Account> findParticipantsWithHoldings(@Param("tournamentId") Long tournamentId);
+
+    @Query("select count(a) from Account a where a.tournament.id = :tournamentId")
+    long countByTournamentId(@Param("tournamentId") Long tournamentId);
+
+    boolean existsByUserIdAndTournamentId(Long userId, Long tournamentId);
+
+    Optional<Account> findByUserIdAndTournamentId(Long userId, Long tournamentId);
+
+    // Every account id, for rebuilding all positions
+    @Query("select a.id from Account a order by a.id")
+    List<Long> findAllIds();
+
+    // Summary projections: one grouped query, holdings are aggregated and transactions never touched
+    String SUMMARY_SELECT = "select new team8.backend.dto.AccountSummaryDTO("
+            + "a.id, u.id, a.name, a.cashMicros, count(h), sum(h.sharesMicros), "
+            + "sum(cast(h.sharesMicros as Double) * h.averagePriceMicros), t.id, t.name) "
+            + "from Account a join a.user u left join a.holdings h left join a.tournament t ";
+    String SUMMARY_GROUP = " group by a.id, u.id, a.name, a.cashMicros, t.id, t.name";
+
+    @Query(SUMMARY_SELECT + "where u.id = :userId" + SUMMARY_GROUP + " order by a.id")
+    List<AccountSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "where a.id = :accountId" + SUMMARY_GROUP)
+    Optional<AccountSummaryDTO> findSummaryById(@Param("accountId") Long accountId);
+
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP + " order by a.id")
+    List<AccountSummaryDTO> findAllSummaries();
 }
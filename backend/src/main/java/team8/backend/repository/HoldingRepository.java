@@ -1,6 +1,8 @@
 package team8.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team8.backend.entity.Holding;
 import java.util.List;
@@ -9,4 +11,18 @@ import java.util.List;
 public interface HoldingRepository extends JpaRepository<Holding, Long> {
     List<Holding> findByAccountId(Long accountId);
     Holding findByAccountIdAndStockTicker(Long accountId, String stockTicker);
-}
\ No newline at end of file
+
+    // Every ticker held by at least one account (the set of prices worth keeping fresh)
+    @Query("select distinct upper(h.stockTicker) from Holding h where h.sharesMicros > 0")
+    List<String> findDistinctTickers();
+
+    // Shares per ticker summed over all of a user's accounts, aggregated by the database
+    @Query("select h.stockTicker as ticker, sum(h.sharesMicros) as sharesMicros from Holding h "
+            + "where h.account.user.id = :userId group by h.stockTicker")
+    List<TickerShares> sumSharesByUserId(@Param("userId") Long userId);
+
+    interface TickerShares {
+        String getTicker();
+        long getSharesMicros();
+    }
+}
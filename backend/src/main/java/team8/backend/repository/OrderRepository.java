@@ -0,0 +1,25 @@
+package team8.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import team8.backend.entity.Order;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // Active orders to load into the books, oldest first so time priority is kept
+    @Query("select o from Order o where o.status in ('open', 'triggered') order by o.id")
+    List<Order> findActive();
+
+    List<Order> findByAccountIdOrderByIdDesc(Long accountId);
+
+    long countByAccountIdAndStatusIn(Long accountId, Collection<String> statuses);
+
+    // Tickers with at least one resting order (they need quotes even when nobody holds them)
+    @Query("select distinct upper(o.stockTicker) from Order o where o.status in ('open', 'triggered')")
+    List<String> findActiveTickers();
+}
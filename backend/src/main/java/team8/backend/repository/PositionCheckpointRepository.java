@@ -0,0 +1,22 @@
+package team8.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import team8.backend.entity.PositionCheckpoint;
+
+import java.util.Optional;
+
+@Repository
+public interface PositionCheckpointRepository extends JpaRepository<PositionCheckpoint, Long> {
+
+    // The checkpoint a rebuild starts from
+    Optional<PositionCheckpoint> findFirstByAccountIdOrderByLastTransactionIdDesc(Long accountId);
+
+    // Drop checkpoints superseded by a newer one
+    @Modifying
+    @Query("delete from PositionCheckpoint c where c.account.id = :accountId and c.lastTransactionId < :lastTransactionId")
+    int deleteOlderThan(@Param("accountId") Long accountId, @Param("lastTransactionId") long lastTransactionId);
+}
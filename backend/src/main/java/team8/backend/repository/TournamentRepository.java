@@ -1,7 +1,28 @@
 package team8.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import team8.backend.entity.Tournament;
 
+import java.util.List;
+
 public interface TournamentRepository extends JpaRepository<Tournament, Long> {
+
+    // Tournaments the user has an account in, without loading the accounts themselves
+    @Query("select distinct t from Account a join a.tournament t where a.user.id = :userId")
+    List<Tournament> findByParticipantUserId(@Param("userId") Long userId);
+
+    // Participant count of every tournament that has participants, in one grouped query
+    @Query("select a.tournament.id as tournamentId, count(a) as participants from Account a "
+            + "where a.tournament is not null group by a.tournament.id")
+    List<ParticipantCount> countParticipants();
+
+    /**
+     * Row of {@link #countParticipants()}.
+     */
+    interface ParticipantCount {
+        Long getTournamentId();
+        long getParticipants();
+    }
 }
@@ -0,0 +1,13 @@
+package team8.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import team8.backend.entity.TradeLedgerRejection;
+
+import java.util.List;
+
+@Repository
+public interface TradeLedgerRejectionRepository extends JpaRepository<TradeLedgerRejection, Long> {
+
+    List<TradeLedgerRejection> findByAccountIdOrderByLedgerSeq(Long accountId);
+}
@@ -0,0 +1,9 @@
+package team8.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import team8.backend.entity.TradeLedgerWatermark;
+
+@Repository
+public interface TradeLedgerWatermarkRepository extends JpaRepository<TradeLedgerWatermark, Integer> {
+}
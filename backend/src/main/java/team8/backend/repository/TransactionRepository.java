@@ -1,13 +1,50 @@
 package team8.backend.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team8.backend.entity.Transaction;
 import team8.backend.entity.Account;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByAccountOrderByTimestampDesc(Account account);
-}
\ No newline at end of file
+
+    // Keyset pagination, newest first: the first page, then every page strictly after the
+    // (timestamp, id) of the last row seen. Unlike offsets, pages stay stable while new trades arrive
+    // and the cost of a page does not grow with how far back it is.
+    @Query("select t from Transaction t where t.account.id = :accountId order by t.timestamp desc, t.id desc")
+    List<Transaction> findLatest(@Param("accountId") Long accountId, Pageable limit);
+
+    @Query("select t from Transaction t where t.account.id = :accountId "
+            + "and (t.timestamp < :beforeTimestamp or (t.timestamp = :beforeTimestamp and t.id < :beforeId)) "
+            + "order by t.timestamp desc, t.id desc")
+    List<Transaction> findBefore(@Param("accountId") Long accountId,
+                                 @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                 @Param("beforeId") Long beforeId,
+                                 Pageable limit);
+
+    // Highest trade ledger sequence number still in the table; only seeds the ledger watermark of a
+    // database that predates it, since deleting an account's transactions can lower it
+    @Query("select max(t.ledgerSeq) from Transaction t")
+    Long findMaxLedgerSeq();
+
+    // Transactions after a position checkpoint in the order they were applied, without loading entities
+    @Query("select t.id as id, t.action as action, t.stockTicker as stockTicker, "
+            + "t.sharesMicros as sharesMicros, t.priceMicros as priceMicros "
+            + "from Transaction t where t.account.id = :accountId and t.id > :afterId order by t.id")
+    List<Fold> findFoldAfter(@Param("accountId") Long accountId, @Param("afterId") long afterId, Pageable limit);
+
+    interface Fold {
+        Long getId();
+        String getAction();
+        String getStockTicker();
+        long getSharesMicros();
+        long getPriceMicros();
+    }
+}
@@ -4,6 +4,8 @@ import team8.backend.entity.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     
     // do not need any additional code to function, majority of the repo interface
@@ -12,4 +14,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // will add custom functions that run SQL prompts here
 
     boolean existsByEmail(String email);
+
+    // served by the unique index on users.email
+    Optional<User> findByEmail(String email);
 }
@@ -0,0 +1,76 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes work on a single account while letting different accounts proceed in parallel.
+ * Accounts are hashed onto a fixed set of lock stripes; inside the lock the action is retried
+ * a bounded number of times when an optimistic version check fails (e.g. a write from another
+ * application instance), since the in-process lock cannot see those.
+ */
+@Service
+public class AccountLockService {
+
+    private final ReentrantLock[] stripes;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    public AccountLockService(
+            @Value("${trade.lock.stripes:64}") int stripeCount,
+            @Value("${trade.retry.max-attempts:3}") int maxAttempts,
+            @Value("${trade.retry.backoff-ms:10}") long retryBackoffMillis) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * Run an action while holding the account's lock, retrying on optimistic lock conflicts.
+     * The action must open its own transaction so every attempt starts from fresh state.
+     *
+     * @param accountId account the action mutates
+     * @param action    transactional work to run
+     * @return the action's result
+     * @throws OptimisticLockingFailureException when every attempt conflicted
+     */
+    public <T> T withAccountLock(Long accountId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(accountId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return action.get();
+                } catch (OptimisticLockingFailureException ex) {
+                    if (attempt >= maxAttempts) {
+                        throw ex;
+                    }
+                    backoff(attempt);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long accountId) {
+        // spread sequential ids across stripes
+        int hash = Long.hashCode(accountId) * 0x9E3779B9;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis * attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package team8.backend.service;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of API keys for one upstream provider.
+ * Each key has its own lock-free token bucket sized to the provider's per-key quota, and a key
+ * that was answered with 429 is benched until its backoff expires. Callers that find every key
+ * depleted wait up to a bounded time for the next token and are shed after that.
+ */
+public final class ApiKeyPool {
+
+    private final String provider;
+    private final List<Key> keys;
+    private final long maxWaitNanos;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Clock clock;
+
+    // where the next scan for a usable key starts, so load spreads across healthy keys
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+
+    /**
+     * @param provider        name used in stats and error messages
+     * @param rawKeys         keys separated by ":"
+     * @param requestsPerMinute sustained quota of a single key
+     * @param burst           tokens a key can accumulate while idle
+     * @param maxWaitMillis   how long a caller may queue for a token before it is shed
+     * @param backoffMillis   bench time after a first 429, doubled on each consecutive 429
+     * @param maxBackoffMillis upper bound for the bench time
+     */
+    public ApiKeyPool(String provider, String rawKeys, int requestsPerMinute, int burst,
+                      long maxWaitMillis, long backoffMillis, long maxBackoffMillis) {
+        this(provider, rawKeys, requestsPerMinute, burst, maxWaitMillis, backoffMillis, maxBackoffMillis, Clock.SYSTEM);
+    }
+
+    // Tests drive the buckets with their own clock
+    ApiKeyPool(String provider, String rawKeys, int requestsPerMinute, int burst,
+               long maxWaitMillis, long backoffMillis, long maxBackoffMillis, Clock clock) {
+        this.provider = provider;
+        this.clock = clock;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, backoffMillis));
+        this.maxBackoffNanos = Math.max(baseBackoffNanos, TimeUnit.MILLISECONDS.toNanos(maxBackoffMillis));
+
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, requestsPerMinute);
+        long burstNanos = intervalNanos * Math.max(1, burst);
+
+        List<Key> parsed = new ArrayList<>();
+        if (rawKeys != null) {
+            for (String key : rawKeys.split(":")) {
+                if (!key.isBlank()) {
+                    parsed.add(new Key(key.trim(), intervalNanos, burstNanos));
+                }
+            }
+        }
+        this.keys = Collections.unmodifiableList(parsed);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Take a token from the first healthy key that has one, waiting up to the configured
+     * bound when all keys are depleted or benched.
+     *
+     * @return the key to use for one upstream call
+     * @throws KeyPoolExhaustedException when no key is configured or none frees up in time
+     */
+    public Lease acquire() {
+        if (keys.isEmpty()) {
+            throw new KeyPoolExhaustedException(provider + ": no API key configured", 0L);
+        }
+
+        long deadline = clock.nanoTime() + maxWaitNanos;
+        boolean waited = false;
+        while (true) {
+            long now = clock.nanoTime();
+            long soonest = Long.MAX_VALUE;
+            int start = Math.floorMod(cursor.getAndIncrement(), keys.size());
+
+            for (int i = 0; i < keys.size(); i++) {
+                Key key = keys.get((start + i) % keys.size());
+                long wait = key.tryAcquire(now);
+                if (wait == 0L) {
+                    key.requests.incrementAndGet();
+                    return new Lease(key);
+                }
+                soonest = Math.min(soonest, wait);
+            }
+
+            if (now + soonest > deadline) {
+                shed.incrementAndGet();
+                throw new KeyPoolExhaustedException(provider + ": rate limit reached on all API keys",
+                        TimeUnit.NANOSECONDS.toMillis(soonest));
+            }
+            if (!waited) {
+                waits.incrementAndGet();
+                waited = true;
+            }
+            try {
+                clock.sleep(soonest);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new KeyPoolExhaustedException(provider + ": interrupted while waiting for an API key", 0L);
+            }
+        }
+    }
+
+    /**
+     * GET a URL with a pooled key as the given query parameter. A 429 benches the key and the call
+     * is retried with the next one, at most once per key.
+     *
+     * @param restTemplate client to send the call with
+     * @param url          URL without the key
+     * @param keyParam     name of the query parameter that carries the key
+     * @param type         response body type
+     * @return upstream response
+     * @throws KeyPoolExhaustedException when every key is rate limited
+     */
+    public <T> ResponseEntity<T> get(RestTemplate restTemplate, UriComponentsBuilder url, String keyParam,
+                                     ParameterizedTypeReference<T> type) {
+        for (int attempt = 1; ; attempt++) {
+            Lease lease = acquire();
+            URI keyed = url.replaceQueryParam(keyParam, lease.key()).build().toUri();
+            try {
+                ResponseEntity<T> response = restTemplate.exchange(keyed, HttpMethod.GET, null, type);
+                lease.succeeded();
+                return response;
+            } catch (HttpClientErrorException.TooManyRequests ex) {
+                long retryAfter = retryAfterMillis(ex.getResponseHeaders());
+                lease.throttled(retryAfter);
+                if (attempt >= keys.size()) {
+                    throw new KeyPoolExhaustedException(provider + ": rate limited upstream", Math.max(0L, retryAfter));
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-key usage and throttle counters plus pool-wide queueing counters.
+     * Keys are identified by their last four characters only.
+     */
+    public Map<String, Object> stats() {
+        long now = clock.nanoTime();
+        List<Map<String, Object>> perKey = new ArrayList<>();
+        for (Key key : keys) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("key", key.mask());
+            row.put("requests", key.requests.get());
+            row.put("throttled", key.throttled.get());
+            row.put("depleted", key.depleted.get());
+            long bench = key.benchedUntil.get();
+            long remaining = bench == Long.MIN_VALUE ? 0L : Math.max(0L, bench - now);
+            row.put("backoffRemainingMs", TimeUnit.NANOSECONDS.toMillis(remaining));
+            perKey.add(row);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("provider", provider);
+        stats.put("keys", perKey);
+        stats.put("waits", waits.get());
+        stats.put("shed", shed.get());
+        return stats;
+    }
+
+    /**
+     * Retry-After of a 429 response in millis (delta-seconds form only).
+     *
+     * @return the delay, or -1 when the header is absent or not a number of seconds
+     */
+    public static long retryAfterMillis(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null) return -1L;
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    /**
+     * A key handed out for one upstream call. The caller reports a 429 through {@link #throttled}.
+     */
+    public final class Lease {
+        private final Key key;
+
+        private Lease(Key key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key.value;
+        }
+
+        /**
+         * Upstream answered successfully; clears the key's backoff streak.
+         */
+        public void succeeded() {
+            key.strikes.set(0);
+        }
+
+        /**
+         * Upstream answered 429. Benches the key for the provider's Retry-After when given,
+         * otherwise for an exponential backoff.
+         *
+         * @param retryAfterMillis Retry-After from the response, or a negative value when absent
+         */
+        public void throttled(long retryAfterMillis) {
+            key.throttled.incrementAndGet();
+            int strikes = key.strikes.incrementAndGet();
+            long backoff = retryAfterMillis >= 0
+                    ? TimeUnit.MILLISECONDS.toNanos(retryAfterMillis)
+                    : baseBackoffNanos << Math.min(strikes - 1, 20);
+            key.bench(clock.nanoTime() + Math.min(backoff, maxBackoffNanos));
+        }
+    }
+
+    /**
+     * Monotonic time source, in nanos like {@link System#nanoTime()}.
+     */
+    interface Clock {
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public void sleep(long nanos) throws InterruptedException {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+        };
+
+        long nanoTime();
+
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    /**
+     * Thrown when a request is shed because no key could serve it in time.
+     */
+    public static class KeyPoolExhaustedException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        public KeyPoolExhaustedException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    /**
+     * One key with a GCRA token bucket: {@code tat} is the theoretical arrival time of the next
+     * request; a token is available while it is no further than the burst window ahead of now.
+     */
+    private static final class Key {
+        final String value;
+        final long intervalNanos;
+        final long burstNanos;
+
+        final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        final AtomicLong benchedUntil = new AtomicLong(Long.MIN_VALUE);
+        final AtomicInteger strikes = new AtomicInteger();
+
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong throttled = new AtomicLong();
+        final AtomicLong depleted = new AtomicLong();
+
+        Key(String value, long intervalNanos, long burstNanos) {
+            this.value = value;
+            this.intervalNanos = intervalNanos;
+            this.burstNanos = burstNanos;
+        }
+
+        // 0 when a token was taken, otherwise nanos until this key may have one
+        long tryAcquire(long now) {
+            long bench = benchedUntil.get();
+            if (bench != Long.MIN_VALUE && bench - now > 0) {
+                return bench - now;
+            }
+            while (true) {
+                long current = tat.get();
+                long base = (current == Long.MIN_VALUE || current - now < 0) ? now : current;
+                long next = base + intervalNanos;
+                long ahead = next - now;
+                if (ahead > burstNanos) {
+                    depleted.incrementAndGet();
+                    return ahead - burstNanos;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0L;
+                }
+            }
+        }
+
+        void bench(long until) {
+            benchedUntil.accumulateAndGet(until,
+                    (prev, next) -> prev == Long.MIN_VALUE || next - prev > 0 ? next : prev);
+        }
+
+        String mask() {
+            return value.length() <= 4 ? "****" : "****" + value.substring(value.length() - 4);
+        }
+    }
+}
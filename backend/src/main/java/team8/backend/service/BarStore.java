@@ -0,0 +1,363 @@
+package team8.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Local store of Massive OHLC aggregates, one file per ticker and timespan.
+ * Settled bars never change, so they are persisted once in a columnar binary file and read back
+ * through a memory mapping; only the range after the last settled bar is fetched from upstream,
+ * at most once per refresh interval. Bars whose period is still open are kept in memory only.
+ *
+ * File layout (big-endian): a 32-byte header (magic, version, bar count, reserved,
+ * coveredFromMillis, settledThroughMillis) followed by one 8-byte column per field
+ * in the order t, o, h, l, c, v, vw, n.
+ */
+@Service
+public class BarStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BarStore.class);
+
+    private static final int MAGIC = 0x42415253; // "BARS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int COLUMNS = 8;
+
+    private static final Pattern TICKER = Pattern.compile("[A-Z0-9.\\-]{1,16}");
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final MassiveClient massiveClient;
+    private final Path directory;
+    private final long tailRefreshMillis;
+
+    private final ConcurrentHashMap<String, Series> series = new ConcurrentHashMap<>();
+
+    public BarStore(MassiveClient massiveClient,
+                    @Value("${bars.store.dir:data/bars}") String directory,
+                    @Value("${bars.tail-refresh-ms:900000}") long tailRefreshMillis) {
+        this.massiveClient = massiveClient;
+        this.directory = Paths.get(directory);
+        this.tailRefreshMillis = tailRefreshMillis;
+    }
+
+    /**
+     * Bars for a ticker between two dates (inclusive), in ascending time order, shaped like
+     * Massive "results" rows (t, o, h, l, c, v, vw, n).
+     *
+     * @param ticker   stock ticker symbol
+     * @param timespan "day" or "hour" (multiplier 1)
+     * @param from     first date to include
+     * @param to       last date to include
+     * @return bars in range; empty when upstream has none
+     * @throws IllegalArgumentException for an unsupported ticker or timespan
+     */
+    public List<Map<String, Object>> bars(String ticker, String timespan, LocalDate from, LocalDate to) {
+        String symbol = ticker == null ? "" : ticker.trim().toUpperCase();
+        if (!TICKER.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("Invalid ticker: " + ticker);
+        }
+        long spanMillis = spanMillis(timespan);
+        long fromMillis = from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long toMillis = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1;
+
+        Series s = series.computeIfAbsent(symbol + "_" + timespan,
+                k -> new Series(symbol, timespan, spanMillis, directory.resolve(k + ".bars")));
+
+        synchronized (s) {
+            s.ensureLoaded();
+            long now = System.currentTimeMillis();
+
+            boolean refreshed = false;
+            if (s.count == 0 || fromMillis < s.coveredFromMillis) {
+                // nothing stored for the head of the range yet: fetch it all once
+                refreshed = refresh(s, from, to, now, s.count > 0);
+                if (refreshed) s.coveredFromMillis = Math.min(s.coveredFromMillis, fromMillis);
+            } else if (now - s.tailFetchedAtMillis >= tailRefreshMillis) {
+                // back off a day so a bar straddling the UTC date boundary is re-read
+                LocalDate tailFrom = Instant.ofEpochMilli(s.settledThroughMillis)
+                        .atZone(ZoneOffset.UTC).toLocalDate().minusDays(1);
+                refreshed = refresh(s, tailFrom, to, now, true);
+            }
+            if (refreshed && s.count > 0) {
+                try {
+                    s.write();
+                } catch (UncheckedIOException ex) {
+                    // the merged bars are still in memory; the next refresh tries the file again
+                    log.warn("Could not write bar file {}, serving bars from memory", s.file, ex);
+                }
+            }
+
+            return s.read(fromMillis, toMillis);
+        }
+    }
+
+    // Merge an upstream fetch into the series; when tolerateFailure is set the stored bars are served on error
+    private boolean refresh(Series s, LocalDate from, LocalDate to, long now, boolean tolerateFailure) {
+        List<Bar> fetched;
+        try {
+            fetched = fetch(s, from, to);
+        } catch (RuntimeException ex) {
+            if (!tolerateFailure) throw ex;
+            log.warn("Bar refresh failed for {}, serving stored bars: {}", s.ticker, ex.getMessage());
+            return false;
+        }
+
+        TreeMap<Long, Bar> settled = new TreeMap<>();
+        List<Bar> open = new ArrayList<>();
+        for (Bar bar : fetched) {
+            if (bar.t() + s.spanMillis <= now) {
+                settled.put(bar.t(), bar);
+            } else {
+                open.add(bar);
+            }
+        }
+
+        boolean changed = false;
+        for (Bar bar : settled.values()) {
+            if (bar.t() > s.lastSettledMillis() || bar.t() < s.firstSettledMillis()) {
+                changed = true;
+                break;
+            }
+        }
+        if (changed) {
+            for (int i = 0; i < s.count; i++) {
+                Bar stored = s.bar(i);
+                settled.putIfAbsent(stored.t(), stored);
+            }
+            s.replace(new ArrayList<>(settled.values()));
+        }
+
+        s.settledThroughMillis = Math.max(s.settledThroughMillis, now - s.spanMillis);
+        s.openBars = open;
+        s.tailFetchedAtMillis = now;
+        return true;
+    }
+
+    private List<Bar> fetch(Series s, LocalDate from, LocalDate to) {
+        String path = "/v2/aggs/ticker/" + s.ticker + "/range/1/" + s.timespan + "/" + from + "/" + to;
+        ResponseEntity<Map<String, Object>> response = massiveClient.get(
+                b -> b.path(path)
+                        .queryParam("adjusted", "true")
+                        .queryParam("sort", "asc")
+                        .queryParam("limit", "5000"),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+
+        List<Bar> bars = new ArrayList<>();
+        Map<String, Object> body = response.getBody();
+        if (body == null || !(body.get("results") instanceof List<?> results)) {
+            return bars;
+        }
+        for (Object row : results) {
+            if (row instanceof Map<?, ?> m && m.get("t") instanceof Number t) {
+                bars.add(new Bar(t.longValue(), num(m.get("o")), num(m.get("h")), num(m.get("l")),
+                        num(m.get("c")), num(m.get("v")), num(m.get("vw")), (long) num(m.get("n"))));
+            }
+        }
+        return bars;
+    }
+
+    private static double num(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0.0;
+    }
+
+    private static long spanMillis(String timespan) {
+        return switch (timespan) {
+            case "day" -> DAY_MILLIS;
+            case "hour" -> 3_600_000L;
+            default -> throw new IllegalArgumentException("Unsupported timespan: " + timespan);
+        };
+    }
+
+    /**
+     * One OHLC bar as stored on disk.
+     */
+    record Bar(long t, double o, double h, double l, double c, double v, double vw, long n) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("t", t);
+            row.put("o", o);
+            row.put("h", h);
+            row.put("l", l);
+            row.put("c", c);
+            row.put("v", v);
+            row.put("vw", vw);
+            row.put("n", n);
+            return row;
+        }
+    }
+
+    /**
+     * Stored bars of one ticker and timespan. All access is synchronized on the series.
+     */
+    private static final class Series {
+        final String ticker;
+        final String timespan;
+        final long spanMillis;
+        final Path file;
+
+        boolean loaded;
+        ByteBuffer columns = ByteBuffer.allocate(0);
+        int count;
+        long coveredFromMillis = Long.MAX_VALUE;
+        long settledThroughMillis = Long.MIN_VALUE;
+
+        // bars whose period has not closed yet, refreshed with the tail and never persisted
+        List<Bar> openBars = List.of();
+        long tailFetchedAtMillis;
+
+        Series(String ticker, String timespan, long spanMillis, Path file) {
+            this.ticker = ticker;
+            this.timespan = timespan;
+            this.spanMillis = spanMillis;
+            this.file = file;
+        }
+
+        void ensureLoaded() {
+            if (loaded) return;
+            loaded = true;
+            if (!Files.exists(file)) return;
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                    return;
+                }
+                int stored = mapped.getInt(8);
+                if (mapped.capacity() < HEADER_BYTES + (long) stored * COLUMNS * Long.BYTES) {
+                    return;
+                }
+                columns = mapped;
+                count = stored;
+                coveredFromMillis = mapped.getLong(16);
+                settledThroughMillis = mapped.getLong(24);
+            } catch (IOException ex) {
+                // an unreadable file is treated as empty and rewritten on the next fetch
+                log.warn("Could not read bar file {}", file, ex);
+            }
+        }
+
+        long firstSettledMillis() {
+            return count == 0 ? Long.MAX_VALUE : t(0);
+        }
+
+        long lastSettledMillis() {
+            return count == 0 ? Long.MIN_VALUE : t(count - 1);
+        }
+
+        long t(int i) {
+            return columns.getLong(offset(0, i));
+        }
+
+        Bar bar(int i) {
+            return new Bar(t(i),
+                    columns.getDouble(offset(1, i)), columns.getDouble(offset(2, i)),
+                    columns.getDouble(offset(3, i)), columns.getDouble(offset(4, i)),
+                    columns.getDouble(offset(5, i)), columns.getDouble(offset(6, i)),
+                    columns.getLong(offset(7, i)));
+        }
+
+        private int offset(int column, int i) {
+            return HEADER_BYTES + (column * count + i) * Long.BYTES;
+        }
+
+        // Stored bars in [fromMillis, toMillis] followed by open bars in range
+        List<Map<String, Object>> read(long fromMillis, long toMillis) {
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (t(mid) < fromMillis) lo = mid + 1; else hi = mid;
+            }
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            long last = Long.MIN_VALUE;
+            for (int i = lo; i < count && t(i) <= toMillis; i++) {
+                rows.add(bar(i).toMap());
+                last = t(i);
+            }
+            for (Bar bar : openBars) {
+                if (bar.t() > last && bar.t() >= fromMillis && bar.t() <= toMillis) {
+                    rows.add(bar.toMap());
+                }
+            }
+            return rows;
+        }
+
+        // Swap in a new set of settled bars (ascending by t) as an in-memory column block
+        void replace(List<Bar> bars) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bars.size() * COLUMNS * Long.BYTES);
+            int n = bars.size();
+            for (int i = 0; i < n; i++) {
+                Bar bar = bars.get(i);
+                buffer.putLong(HEADER_BYTES + i * Long.BYTES, bar.t());
+                buffer.putDouble(HEADER_BYTES + (n + i) * Long.BYTES, bar.o());
+                buffer.putDouble(HEADER_BYTES + (2 * n + i) * Long.BYTES, bar.h());
+                buffer.putDouble(HEADER_BYTES + (3 * n + i) * Long.BYTES, bar.l());
+                buffer.putDouble(HEADER_BYTES + (4 * n + i) * Long.BYTES, bar.c());
+                buffer.putDouble(HEADER_BYTES + (5 * n + i) * Long.BYTES, bar.v());
+                buffer.putDouble(HEADER_BYTES + (6 * n + i) * Long.BYTES, bar.vw());
+                buffer.putLong(HEADER_BYTES + (7 * n + i) * Long.BYTES, bar.n());
+            }
+            columns = buffer;
+            count = n;
+        }
+
+        // Persist header and columns atomically, then read back through a fresh mapping
+        void write() {
+            int size = HEADER_BYTES + count * COLUMNS * Long.BYTES;
+            ByteBuffer out = ByteBuffer.allocate(size);
+            for (int i = HEADER_BYTES; i < size; i += Long.BYTES) {
+                out.putLong(i, columns.getLong(i));
+            }
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, count);
+            out.putLong(16, coveredFromMillis);
+            out.putLong(24, settledThroughMillis);
+
+            try {
+                Files.createDirectories(file.getParent());
+                Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    while (out.hasRemaining()) {
+                        channel.write(out);
+                    }
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    columns = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not write bar file " + file, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team8.backend.entity.Micros;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.UserRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user dashboard totals (cash across all accounts and shares per ticker), aggregated in
+ * the database and kept in a small LRU of snapshots. A snapshot is dropped when one of the
+ * user's accounts trades, is created or is removed, and expires after a TTL as a backstop.
+ */
+@Service
+public class DashboardService {
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final HoldingRepository holdingRepository;
+    private final long ttlMillis;
+    private final Map<Long, Snapshot> snapshots;
+
+    // bumped on every invalidation; a snapshot loaded across an invalidation is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public DashboardService(UserRepository userRepository,
+                            AccountRepository accountRepository,
+                            HoldingRepository holdingRepository,
+                            @Value("${dashboard.cache.size:1000}") int cacheSize,
+                            @Value("${dashboard.cache.ttl-ms:60000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.holdingRepository = holdingRepository;
+        this.ttlMillis = ttlMillis;
+        int maxEntries = Math.max(0, cacheSize);
+        this.snapshots = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Dashboard totals for a user.
+     *
+     * @param userId id of the user
+     * @return "totalCash" and "totalStocks" (ticker -> shares), or empty when the user does not exist
+     */
+    public Optional<Map<String, Object>> dashboard(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (snapshots) {
+            Snapshot cached = snapshots.get(userId);
+            if (cached != null && now - cached.loadedAt < ttlMillis) {
+                return Optional.of(cached.body);
+            }
+        }
+
+        long loadGeneration = generation.get();
+        if (!userRepository.existsById(userId)) return Optional.empty();
+
+        double totalCash = Micros.toDouble(accountRepository.sumCashMicrosByUserId(userId));
+        Map<String, Double> totalStocks = new HashMap<>();
+        for (HoldingRepository.TickerShares row : holdingRepository.sumSharesByUserId(userId)) {
+            totalStocks.put(row.getTicker(), Micros.toDouble(row.getSharesMicros()));
+        }
+        Map<String, Object> body = Map.of(
+                "totalCash", totalCash,
+                "totalStocks", Collections.unmodifiableMap(totalStocks)
+        );
+
+        synchronized (snapshots) {
+            if (generation.get() == loadGeneration) {
+                snapshots.put(userId, new Snapshot(body, now));
+            }
+        }
+        return Optional.of(body);
+    }
+
+    /**
+     * Drop a user's snapshot once the current transaction commits (immediately when there is none).
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) return;
+        afterCommit(() -> {
+            synchronized (snapshots) {
+                generation.incrementAndGet();
+                snapshots.remove(userId);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Snapshot(Map<String, Object> body, long loadedAt) {}
+}
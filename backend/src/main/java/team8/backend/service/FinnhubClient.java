@@ -0,0 +1,75 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Client for the Finnhub REST API (https://finnhub.io/api/v1).
+ * Sends every call through the pooled Finnhub RestTemplate and draws an API key from a
+ * rate-limited key pool; a call answered with 429 is retried once per remaining key.
+ */
+@Service
+public class FinnhubClient {
+
+    private static final String BASE_URL = "https://finnhub.io/api/v1";
+
+    private final RestTemplate restTemplate;
+    private final ApiKeyPool keyPool;
+
+    public FinnhubClient(@Qualifier("finnhubRestTemplate") RestTemplate restTemplate,
+                         @Value("${finnhub.api-key}") String apiKey,
+                         @Value("${upstream.finnhub.keys.requests-per-minute:60}") int requestsPerMinute,
+                         @Value("${upstream.finnhub.keys.burst:10}") int burst,
+                         @Value("${upstream.finnhub.keys.max-wait-ms:2000}") long maxWaitMillis,
+                         @Value("${upstream.finnhub.keys.backoff-ms:5000}") long backoffMillis,
+                         @Value("${upstream.finnhub.keys.max-backoff-ms:60000}") long maxBackoffMillis) {
+        this.restTemplate = restTemplate;
+        // Multiple keys separated by ":" each get their own quota
+        this.keyPool = new ApiKeyPool("finnhub", apiKey, requestsPerMinute, burst,
+                maxWaitMillis, backoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * GET a Finnhub endpoint with a pooled API key appended as the "token" parameter.
+     *
+     * @param path   endpoint path, e.g. "/quote"
+     * @param params adds the endpoint's query parameters
+     * @param type   response body type
+     * @return upstream response
+     * @throws ApiKeyPool.KeyPoolExhaustedException when every key is rate limited
+     */
+    public <T> ResponseEntity<T> get(String path, Consumer<UriComponentsBuilder> params, ParameterizedTypeReference<T> type) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(BASE_URL).path(path);
+        params.accept(builder);
+
+        return keyPool.get(restTemplate, builder, "token", type);
+    }
+
+    /**
+     * Real-time quote for a ticker (Finnhub /quote).
+     *
+     * @param ticker stock ticker symbol
+     * @return quote map (c, d, dp, h, l, o, pc, t)
+     */
+    public Map<String, Object> quote(String ticker) {
+        ResponseEntity<Map<String, Object>> response = get("/quote",
+                b -> b.queryParam("symbol", ticker.toUpperCase()),
+                new ParameterizedTypeReference<Map<String, Object>>() {});
+        return response.getBody();
+    }
+
+    /**
+     * Usage and throttle counters of the Finnhub key pool.
+     */
+    public Map<String, Object> keyStats() {
+        return keyPool.stats();
+    }
+}
@@ -0,0 +1,294 @@
+package team8.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cache of company profiles (Finnhub /stock/profile2) and display metrics (/stock/metric),
+ * which change at most daily. Profiles are keyed by symbol, ISIN or CUSIP; metrics are
+ * stored already filtered and formatted, so the full metric body is never kept.
+ *
+ * An entry younger than the TTL is served as is. An older one is still served, up to the
+ * max-stale age, while a single background load refreshes it; only a missing entry or one
+ * past max-stale is loaded on the calling thread. Concurrent loads of one key are coalesced.
+ * Every load is appended to a local file that is read back on startup and rewritten once
+ * it holds twice the entry bound.
+ */
+@Service
+public class FundamentalsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FundamentalsCache.class);
+
+    private static final ParameterizedTypeReference<Map<String, Object>> BODY = new ParameterizedTypeReference<>() {};
+    private static final String FILE = "fundamentals.jsonl";
+
+    // Finnhub metric name -> display label, in display order
+    private static final Map<String, String> TOP_METRICS = new LinkedHashMap<>();
+    static {
+        TOP_METRICS.put("marketCapitalization", "Market Cap");
+        TOP_METRICS.put("peTTM", "P/E Ratio");
+        TOP_METRICS.put("forwardPE", "Forward P/E");
+        TOP_METRICS.put("epsTTM", "Earnings Per Share");
+        TOP_METRICS.put("roeTTM", "Return on Equity");
+        TOP_METRICS.put("revenueGrowthTTMYoy", "Revenue Growth");
+        TOP_METRICS.put("52WeekHigh", "52-Week High");
+        TOP_METRICS.put("52WeekLow", "52-Week Low");
+        TOP_METRICS.put("currentRatioQuarterly", "Current Ratio");
+        TOP_METRICS.put("dividendYieldIndicatedAnnual", "Dividend Yield");
+        TOP_METRICS.put("3MonthAverageTradingVolume", "Average Volume");
+    }
+
+    private final FinnhubClient finnhubClient;
+    private final JsonLinesLog store;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final int maxEntries;
+
+    // access-ordered so the eldest entry is always the least recently used one; guarded by itself
+    private final LinkedHashMap<String, Entry> entries;
+    private final SingleFlight<String, Entry> loads = new SingleFlight<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FundamentalsCache(FinnhubClient finnhubClient,
+                             @Value("${fundamentals.dir:data/fundamentals}") String directory,
+                             @Value("${fundamentals.ttl-ms:86400000}") long ttlMillis,
+                             @Value("${fundamentals.max-stale-ms:604800000}") long maxStaleMillis,
+                             @Value("${fundamentals.max-entries:5000}") int maxEntries) {
+        this.finnhubClient = finnhubClient;
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = Math.max(ttlMillis, maxStaleMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.store = new JsonLinesLog(Paths.get(directory).resolve(FILE), this.maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > FundamentalsCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Load the entries persisted by a previous run; for a key stored more than once the last line wins.
+     */
+    @PostConstruct
+    public void load() {
+        List<Map<String, Object>> records;
+        try {
+            records = store.read();
+        } catch (IOException ex) {
+            log.warn("Could not read fundamentals file {}", store.file(), ex);
+            return;
+        }
+        synchronized (entries) {
+            for (Map<String, Object> record : records) {
+                try {
+                    Entry entry = new Entry((String) record.get("key"), castMap(record.get("value")),
+                            ((Number) record.get("fetchedAt")).longValue());
+                    entries.put(entry.key(), entry);
+                } catch (RuntimeException ex) {
+                    // a line that parsed but is not a cache record
+                }
+            }
+        }
+    }
+
+    /**
+     * Company profile for a symbol, ISIN or CUSIP.
+     *
+     * @param idParam "symbol", "isin" or "cusip"
+     * @param idValue identifier value
+     * @return the profile, empty when Finnhub has none for the identifier
+     */
+    public Map<String, Object> profile(String idParam, String idValue) {
+        String key = "profile:" + idParam + ":" + idValue.trim().toUpperCase();
+        return get(key, () -> {
+            Map<String, Object> body = fetch("/stock/profile2", b -> b.queryParam(idParam, idValue), key);
+            return body != null ? body : Map.of();
+        });
+    }
+
+    /**
+     * Display metrics for a ticker: label -> value formatted as "#,##0.00".
+     *
+     * @throws IllegalStateException when the metric response has no metric section
+     * @throws UpstreamStatusException when Finnhub answers with anything but 200
+     */
+    public Map<String, Object> metrics(String ticker) {
+        String symbol = ticker.trim().toUpperCase();
+        String key = "metrics:" + symbol;
+        return get(key, () -> {
+            Map<String, Object> body = fetch("/stock/metric",
+                    b -> b.queryParam("symbol", symbol).queryParam("metric", "all"), key);
+            if (body == null || !(body.get("metric") instanceof Map<?, ?> metric)) {
+                throw new IllegalStateException("No metrics in response for " + symbol);
+            }
+
+            // only the displayed fields are kept
+            DecimalFormat df = new DecimalFormat("#,##0.00");
+            Map<String, Object> filtered = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : TOP_METRICS.entrySet()) {
+                if (metric.get(entry.getKey()) instanceof Number value) {
+                    filtered.put(entry.getValue(), df.format(value.doubleValue()));
+                }
+            }
+            return filtered;
+        });
+    }
+
+    /**
+     * Counters for the fundamentals stats endpoint.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("misses", misses.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        stats.put("inFlight", loads.size());
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private Map<String, Object> get(String key, Supplier<Map<String, Object>> loader) {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        long age = cached != null ? System.currentTimeMillis() - cached.fetchedAtMillis() : Long.MAX_VALUE;
+        if (age <= ttlMillis) {
+            hits.incrementAndGet();
+            return cached.value();
+        }
+        if (age <= maxStaleMillis) {
+            staleHits.incrementAndGet();
+            if (loads.isRunning(key)) return cached.value();
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader);
+                } catch (RuntimeException ex) {
+                    // keep serving the stale entry; the next request past the TTL tries again
+                    refreshFailures.incrementAndGet();
+                }
+            });
+            return cached.value();
+        }
+        misses.incrementAndGet();
+        return load(key, loader).value();
+    }
+
+    // Concurrent loads of one key share a single upstream call
+    private Entry load(String key, Supplier<Map<String, Object>> loader) {
+        return loads.run(key, () -> {
+            Entry loaded = new Entry(key, Collections.unmodifiableMap(new LinkedHashMap<>(loader.get())),
+                    System.currentTimeMillis());
+            synchronized (entries) {
+                entries.put(key, loaded);
+            }
+            persist(loaded);
+            return loaded;
+        });
+    }
+
+    private void persist(Entry entry) {
+        try {
+            store.append(List.of(entry.toRecord()), () -> {
+                List<Map<String, Object>> live = new ArrayList<>();
+                synchronized (entries) {
+                    for (Entry e : entries.values()) {
+                        live.add(e.toRecord());
+                    }
+                }
+                return live;
+            });
+        } catch (IOException ex) {
+            // the in-memory entry still serves; a restart just reloads this key
+            log.warn("Could not write fundamentals file {}", store.file(), ex);
+        }
+    }
+
+    private Map<String, Object> fetch(String path, Consumer<UriComponentsBuilder> params, String key) {
+        ResponseEntity<Map<String, Object>> response;
+        try {
+            response = finnhubClient.get(path, params, BODY);
+        } catch (HttpStatusCodeException ex) {
+            throw new UpstreamStatusException(ex.getStatusCode(), key);
+        }
+        if (!response.getStatusCode().equals(HttpStatus.OK)) {
+            throw new UpstreamStatusException(response.getStatusCode(), key);
+        }
+        return response.getBody();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>((Map<String, Object>) value));
+    }
+
+    /**
+     * Immutable cache entry: the stored value and the time it was fetched.
+     */
+    private record Entry(String key, Map<String, Object> value, long fetchedAtMillis) {
+
+        Map<String, Object> toRecord() {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("key", key);
+            record.put("fetchedAt", fetchedAtMillis);
+            record.put("value", value);
+            return record;
+        }
+    }
+
+    /**
+     * Finnhub answered a profile or metrics load with a status other than 200.
+     */
+    public static class UpstreamStatusException extends RuntimeException {
+        private final HttpStatusCode status;
+
+        public UpstreamStatusException(HttpStatusCode status, String key) {
+            super("Upstream returned " + status + " for " + key);
+            this.status = status;
+        }
+
+        public HttpStatusCode getStatus() {
+            return status;
+        }
+    }
+}
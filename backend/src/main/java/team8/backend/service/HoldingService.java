@@ -4,15 +4,27 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import team8.backend.entity.Account;
 import team8.backend.entity.Holding;
+import team8.backend.entity.Micros;
 import team8.backend.repository.HoldingRepository;
 import team8.backend.dto.HoldingDTO;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class HoldingService {
 
+    /**
+     * One change to a position, in micro-units.
+     *
+     * @param sharesMicros shares bought (positive) or sold (negative)
+     * @param priceMicros  price per share; only used for buys
+     */
+    public record PositionChange(String ticker, long sharesMicros, long priceMicros) {}
+
     private final HoldingRepository holdingRepository;
 
     public HoldingService(HoldingRepository holdingRepository) {
@@ -32,49 +44,111 @@ public class HoldingService {
         return h != null ? toDTO(h) : null;
     }
 
-    // Add or update a holding (Buy)
+    // Add or update a holding (Buy); shares and price are in micro-units
     @Transactional
-    public HoldingDTO addOrUpdateHolding(Account account, String ticker, double shares, double purchasePrice) {
+    public HoldingDTO addOrUpdateHolding(Account account, String ticker, long sharesMicros, long purchasePriceMicros) {
         Holding existing = holdingRepository.findByAccountIdAndStockTicker(account.getId(), ticker);
 
         Holding saved;
         if (existing != null) {
             // Update existing holding (recalculate average price)
-            double totalCost = existing.getAveragePrice() * existing.getShares() + purchasePrice * shares;
-            double newShareCount = existing.getShares() + shares;
-            existing.setShares(newShareCount);
-            existing.setAveragePrice(totalCost / newShareCount);
+            long totalCost = Micros.multiply(existing.getAveragePriceMicros(), existing.getSharesMicros())
+                    + Micros.multiply(purchasePriceMicros, sharesMicros);
+            long newShareCount = existing.getSharesMicros() + sharesMicros;
+            existing.setSharesMicros(newShareCount);
+            existing.setAveragePriceMicros(Micros.divide(totalCost, newShareCount));
             saved = holdingRepository.save(existing);
         } else {
             // Create new holding
-            Holding newHolding = new Holding(account, ticker, shares, purchasePrice);
+            Holding newHolding = new Holding(account, ticker, 0, 0);
+            newHolding.setSharesMicros(sharesMicros);
+            newHolding.setAveragePriceMicros(purchasePriceMicros);
             saved = holdingRepository.save(newHolding);
         }
 
         return toDTO(saved);
     }
 
-    // Update after a sell transaction
+    // Update after a sell transaction (shares in micro-units); returns the remaining position, or null when it was closed
     @Transactional
-    public void updateAfterSell(Account account, String ticker, double sharesToSell) {
+    public HoldingDTO updateAfterSell(Account account, String ticker, long sharesToSellMicros) {
         Holding existing = holdingRepository.findByAccountIdAndStockTicker(account.getId(), ticker);
 
         if (existing == null) {
             throw new IllegalArgumentException("Cannot sell shares — holding not found for " + ticker);
         }
 
-        if (existing.getShares() < sharesToSell) {
+        if (existing.getSharesMicros() < sharesToSellMicros) {
             throw new IllegalArgumentException("Not enough shares to sell for " + ticker);
         }
 
-        double remainingShares = existing.getShares() - sharesToSell;
+        // exact in micro-units, so selling the whole position always closes it
+        long remainingShares = existing.getSharesMicros() - sharesToSellMicros;
 
         if (remainingShares == 0) {
             account.getHoldings().remove(existing);
-        } else {
-            existing.setShares(remainingShares);
-            holdingRepository.save(existing);
+            return null;
+        }
+        existing.setSharesMicros(remainingShares);
+        return toDTO(holdingRepository.save(existing));
+    }
+
+    /**
+     * Apply several changes to an account's positions with one read of its holdings and one batched save.
+     * Changes are applied in list order with the same rules as addOrUpdateHolding and updateAfterSell.
+     *
+     * @return the resulting position per ticker, null for a position that was closed
+     * @throws IllegalArgumentException when a sell exceeds the shares held
+     */
+    @Transactional
+    public Map<String, HoldingDTO> applyChanges(Account account, List<PositionChange> changes) {
+        Map<String, Holding> byTicker = new HashMap<>();
+        for (Holding h : account.getHoldings()) {
+            byTicker.put(h.getStockTicker(), h);
+        }
+
+        Map<String, Holding> touched = new LinkedHashMap<>();
+        for (PositionChange change : changes) {
+            String ticker = change.ticker();
+            Holding existing = byTicker.get(ticker);
+
+            if (change.sharesMicros() > 0) {
+                if (existing != null) {
+                    long totalCost = Micros.multiply(existing.getAveragePriceMicros(), existing.getSharesMicros())
+                            + Micros.multiply(change.priceMicros(), change.sharesMicros());
+                    long newShareCount = existing.getSharesMicros() + change.sharesMicros();
+                    existing.setSharesMicros(newShareCount);
+                    existing.setAveragePriceMicros(Micros.divide(totalCost, newShareCount));
+                } else {
+                    existing = new Holding(account, ticker, 0, 0);
+                    existing.setSharesMicros(change.sharesMicros());
+                    existing.setAveragePriceMicros(change.priceMicros());
+                    account.getHoldings().add(existing);
+                    byTicker.put(ticker, existing);
+                }
+            } else {
+                long toSell = -change.sharesMicros();
+                if (existing == null) {
+                    throw new IllegalArgumentException("Cannot sell shares — holding not found for " + ticker);
+                }
+                if (existing.getSharesMicros() < toSell) {
+                    throw new IllegalArgumentException("Not enough shares to sell for " + ticker);
+                }
+                existing.setSharesMicros(existing.getSharesMicros() - toSell);
+                if (existing.getSharesMicros() == 0) {
+                    account.getHoldings().remove(existing);
+                    byTicker.remove(ticker);
+                }
+            }
+            touched.put(ticker, existing);
         }
+
+        List<Holding> open = touched.values().stream().filter(h -> h.getSharesMicros() > 0).toList();
+        holdingRepository.saveAll(open);
+
+        Map<String, HoldingDTO> positions = new LinkedHashMap<>();
+        touched.forEach((ticker, h) -> positions.put(ticker, h.getSharesMicros() > 0 ? toDTO(h) : null));
+        return positions;
     }
 
     // Delete a holding
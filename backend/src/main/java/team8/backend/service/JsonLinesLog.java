@@ -0,0 +1,96 @@
+package team8.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Append-only file of JSON objects, one per line, kept from growing without bound: once it
+ * would hold more than twice the bound it is rewritten from a snapshot of the live records.
+ * Appends are not atomic, so a line torn by a crash is skipped on read.
+ */
+final class JsonLinesLog {
+
+    private static final TypeReference<Map<String, Object>> RECORD = new TypeReference<>() {};
+
+    private final Path file;
+    private final int bound;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // lines in the file, counting appends since the last rewrite
+    private long lines;
+
+    JsonLinesLog(Path file, int bound) {
+        this.file = file;
+        this.bound = Math.max(1, bound);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Every intact record in the file, oldest first; empty when there is no file yet.
+     */
+    synchronized List<Map<String, Object>> read() throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        if (!Files.exists(file)) return records;
+        long count = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                count++;
+                try {
+                    records.add(mapper.readValue(line, RECORD));
+                } catch (IOException ex) {
+                    // torn by a crash mid-append; the lines before it are still good
+                }
+            }
+        }
+        lines = count;
+        return records;
+    }
+
+    /**
+     * Append records, or rewrite the file from {@code live} when the appends would take it past twice the bound.
+     *
+     * @param live every record that should survive a rewrite, oldest first
+     */
+    synchronized void append(List<Map<String, Object>> records, Supplier<List<Map<String, Object>>> live)
+            throws IOException {
+        Files.createDirectories(file.getParent());
+        if (lines + records.size() > 2L * bound) {
+            List<Map<String, Object>> snapshot = live.get();
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            write(tmp, snapshot, StandardOpenOption.TRUNCATE_EXISTING);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lines = snapshot.size();
+        } else {
+            write(file, records, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            lines += records.size();
+        }
+    }
+
+    private void write(Path target, List<Map<String, Object>> records, StandardOpenOption... options)
+            throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(target, StandardCharsets.UTF_8, options)) {
+            for (Map<String, Object> record : records) {
+                out.write(mapper.writeValueAsString(record));
+                out.newLine();
+            }
+        }
+    }
+}
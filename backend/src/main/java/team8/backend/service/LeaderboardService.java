@@ -0,0 +1,449 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team8.backend.dto.TournamentLeaderboardDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Tournament;
+import team8.backend.repository.AccountRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps a ranked leaderboard per tournament in memory.
+ * A board is built once from the tournament's accounts and then kept up to date
+ * incrementally on trades and on quote price ticks, so top-K pages and "my rank"
+ * lookups are O(log n) instead of revaluing every participant per request.
+ * Boards are rebuilt from the database after a configurable interval as a safety net.
+ *
+ * Only one request builds a tournament's board at a time; the others keep reading the expired
+ * board, or wait for the first build. Changes committed while a build runs are applied to the
+ * old board and replayed onto the new one before it is published. A trade carries the account
+ * version it committed, so replaying a trade the build already read from the database is a no-op.
+ */
+@Service
+public class LeaderboardService {
+
+    // shares below this are treated as a closed position
+    private static final double SHARE_EPSILON = 1e-9;
+
+    private final ConcurrentHashMap<Long, Board> boards = new ConcurrentHashMap<>();
+
+    // tournament id -> build in progress
+    private final ConcurrentHashMap<Long, Build> builds = new ConcurrentHashMap<>();
+
+    // last known price per upper-case ticker, fed by builds, trades and quote ticks
+    private final ConcurrentHashMap<String, Double> lastPrices = new ConcurrentHashMap<>();
+
+    // stamps every board change, so a rebuilt board never repeats a version its predecessor had
+    private final AtomicLong versions = new AtomicLong();
+
+    private final AccountRepository accountRepository;
+    private final long rebuildIntervalMillis;
+
+    public LeaderboardService(AccountRepository accountRepository,
+                              @Value("${leaderboard.rebuild-interval-ms:300000}") long rebuildIntervalMillis) {
+        this.accountRepository = accountRepository;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+    }
+
+    /**
+     * One page of the tournament leaderboard, ranked by net worth (cash + holdings value).
+     *
+     * @param tournament  tournament to rank
+     * @param page        0-based page index
+     * @param size        rows per page
+     * @param priceLoader loads live prices for tickers when the board has to be built
+     * @return rows for the requested page, with 1-based ranks
+     */
+    public List<TournamentLeaderboardDTO> page(Tournament tournament, int page, int size,
+                                               Function<Set<String>, Map<String, Double>> priceLoader) {
+        Board board = boardFor(tournament, priceLoader);
+        synchronized (board) {
+            int fromRank = page * size + 1;
+            List<TournamentLeaderboardDTO> rows = new ArrayList<>();
+            int rank = fromRank;
+            for (RankedSkipList.Entry entry : board.ranking.range(fromRank, size)) {
+                rows.add(board.participants.get(entry.id()).toDTO(rank++));
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Leaderboard row for a single user.
+     *
+     * @return the user's row with its rank, or null when the user is not in the tournament
+     */
+    public TournamentLeaderboardDTO rankOf(Tournament tournament, Long userId,
+                                           Function<Set<String>, Map<String, Double>> priceLoader) {
+        Board board = boardFor(tournament, priceLoader);
+        synchronized (board) {
+            Long accountId = board.accountByUser.get(userId);
+            if (accountId == null) return null;
+            Participant participant = board.participants.get(accountId);
+            return participant.toDTO(board.ranking.rank(participant.accountId, participant.netWorth));
+        }
+    }
+
+    /**
+     * Version of the tournament's loaded board, changing whenever a rank or net worth may have changed.
+     *
+     * @return the current version, or -1 when the board is not loaded
+     */
+    public long version(Long tournamentId) {
+        Board board = boards.get(tournamentId);
+        return board != null ? board.version : -1L;
+    }
+
+    /**
+     * Apply a committed trade to the owning tournament's board.
+     *
+     * @param account    account that traded, cash updated and flushed so its version is the committed one
+     * @param ticker     traded ticker
+     * @param shareDelta shares bought (positive) or sold (negative)
+     * @param price      execution price
+     */
+    public void recordTrade(Account account, String ticker, double shareDelta, double price) {
+        if (account.getTournament() == null) return;
+        Long tournamentId = account.getTournament().getId();
+        long accountId = account.getId();
+        double cash = account.getCash();
+        // the version the trade committed (the account is flushed by now)
+        long version = account.getVersion();
+        String key = ticker.toUpperCase();
+
+        afterCommit(() -> {
+            lastPrices.put(key, price);
+            change(tournamentId, board -> {
+                Participant participant = board.participants.get(accountId);
+                // already part of what the board was built from
+                if (participant == null || version <= participant.loadedVersion) return;
+                board.unrank(participant);
+                participant.cash = cash;
+                participant.applyTrade(key, shareDelta, price);
+                if (participant.positions.containsKey(key)) {
+                    board.holdersByTicker.computeIfAbsent(key, k -> new HashSet<>()).add(accountId);
+                } else {
+                    Set<Long> holders = board.holdersByTicker.get(key);
+                    if (holders != null) holders.remove(accountId);
+                }
+                board.rerank(participant, lastPrices);
+            });
+        });
+    }
+
+    /**
+     * Add a newly entered tournament account to its board (if the board is loaded).
+     */
+    public void addParticipant(Account account) {
+        if (account.getTournament() == null) return;
+        Long tournamentId = account.getTournament().getId();
+        Participant participant = new Participant(account);
+
+        afterCommit(() -> change(tournamentId, board -> {
+            // a board built after the enrollment already has the account, maybe with trades since
+            if (!board.participants.containsKey(participant.accountId)) {
+                board.add(participant, lastPrices);
+            }
+        }));
+    }
+
+    /**
+     * Remove an account from its tournament's board (left tournament or deleted account).
+     */
+    public void removeAccount(Account account) {
+        if (account.getTournament() == null) return;
+        Long tournamentId = account.getTournament().getId();
+        long accountId = account.getId();
+
+        afterCommit(() -> change(tournamentId, board -> board.remove(accountId)));
+    }
+
+    /**
+     * Drop the board for a tournament; it is rebuilt on the next read.
+     */
+    public void evict(Long tournamentId) {
+        afterCommit(() -> boards.remove(tournamentId));
+    }
+
+    /**
+     * Revalue only the participants holding the ticker whose price changed.
+     */
+    @EventListener
+    public void onQuoteUpdated(QuoteUpdatedEvent event) {
+        lastPrices.put(event.ticker(), event.price());
+        Consumer<Board> revalue = board -> {
+            Set<Long> holders = board.holdersByTicker.get(event.ticker());
+            if (holders == null || holders.isEmpty()) return;
+            for (Long accountId : holders) {
+                Participant participant = board.participants.get(accountId);
+                board.unrank(participant);
+                board.rerank(participant, lastPrices);
+            }
+        };
+        for (Build build : builds.values()) {
+            synchronized (build) {
+                if (!build.done) build.pending.add(revalue);
+            }
+        }
+        for (Board board : boards.values()) {
+            synchronized (board) {
+                revalue.accept(board);
+            }
+        }
+    }
+
+    private Board boardFor(Tournament tournament, Function<Set<String>, Map<String, Double>> priceLoader) {
+        Long tournamentId = tournament.getId();
+        Board board = boards.get(tournamentId);
+        if (board != null && isFresh(board)) {
+            return board;
+        }
+
+        Build build = new Build();
+        Build running = builds.putIfAbsent(tournamentId, build);
+        if (running != null) {
+            if (board != null) return board;
+            try {
+                return running.result.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            // a build that finished just before this one was registered
+            Board current = boards.get(tournamentId);
+            Board built = current != null && isFresh(current) ? current : build(tournament, priceLoader);
+            synchronized (build) {
+                if (built != current) {
+                    synchronized (built) {
+                        for (Consumer<Board> change : build.pending) {
+                            change.accept(built);
+                        }
+                    }
+                    boards.put(tournamentId, built);
+                }
+                build.done = true;
+            }
+            build.result.complete(built);
+            return built;
+        } catch (RuntimeException ex) {
+            build.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            builds.remove(tournamentId, build);
+        }
+    }
+
+    private boolean isFresh(Board board) {
+        return System.currentTimeMillis() - board.builtAtMillis < rebuildIntervalMillis;
+    }
+
+    // Applies a change to the tournament's board, and queues it for the board being built if any
+    private void change(Long tournamentId, Consumer<Board> change) {
+        Build build = builds.get(tournamentId);
+        Board board;
+        if (build != null) {
+            // the build publishes under the same lock, so the board read here is the one it replaces
+            synchronized (build) {
+                if (!build.done) build.pending.add(change);
+                board = boards.get(tournamentId);
+            }
+        } else {
+            board = boards.get(tournamentId);
+        }
+        if (board == null) return;
+        synchronized (board) {
+            change.accept(board);
+        }
+    }
+
+    // Full valuation pass, only done on first read and after the rebuild interval
+    private Board build(Tournament tournament, Function<Set<String>, Map<String, Double>> priceLoader) {
+        List<Participant> participants = new ArrayList<>();
+        Set<String> tickers = new HashSet<>();
+        // participants, their users and holdings in one query instead of one per account
+        for (Account account : accountRepository.findParticipantsWithHoldings(tournament.getId())) {
+            Participant participant = new Participant(account);
+            participants.add(participant);
+            tickers.addAll(participant.positions.keySet());
+        }
+
+        if (!tickers.isEmpty()) {
+            lastPrices.putAll(priceLoader.apply(tickers));
+        }
+
+        Board board = new Board(System.currentTimeMillis(), versions);
+        for (Participant participant : participants) {
+            board.add(participant, lastPrices);
+        }
+        return board;
+    }
+
+    // Board state must only change once the trade or enrollment is durable
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A board being built, with the changes committed meanwhile. Guarded by itself.
+     */
+    private static final class Build {
+        final CompletableFuture<Board> result = new CompletableFuture<>();
+        final List<Consumer<Board>> pending = new ArrayList<>();
+        boolean done;
+    }
+
+    /**
+     * Ranked participants of one tournament. All access is synchronized on the board.
+     */
+    private static final class Board {
+        final long builtAtMillis;
+        final RankedSkipList ranking = new RankedSkipList();
+        final Map<Long, Participant> participants = new HashMap<>();
+        final Map<Long, Long> accountByUser = new HashMap<>();
+        final Map<String, Set<Long>> holdersByTicker = new HashMap<>();
+        private final AtomicLong versions;
+        // written under the board lock, read without it by the push channel
+        volatile long version;
+
+        Board(long builtAtMillis, AtomicLong versions) {
+            this.builtAtMillis = builtAtMillis;
+            this.versions = versions;
+            this.version = versions.incrementAndGet();
+        }
+
+        void add(Participant participant, Map<String, Double> prices) {
+            remove(participant.accountId);
+            participants.put(participant.accountId, participant);
+            if (participant.userId != null) {
+                accountByUser.put(participant.userId, participant.accountId);
+            }
+            for (String ticker : participant.positions.keySet()) {
+                holdersByTicker.computeIfAbsent(ticker, k -> new HashSet<>()).add(participant.accountId);
+            }
+            rerank(participant, prices);
+        }
+
+        void remove(long accountId) {
+            Participant participant = participants.remove(accountId);
+            if (participant == null) return;
+            unrank(participant);
+            version = versions.incrementAndGet();
+            if (participant.userId != null) {
+                accountByUser.remove(participant.userId, accountId);
+            }
+            for (String ticker : participant.positions.keySet()) {
+                Set<Long> holders = holdersByTicker.get(ticker);
+                if (holders != null) holders.remove(accountId);
+            }
+        }
+
+        void unrank(Participant participant) {
+            ranking.remove(participant.accountId, participant.netWorth);
+        }
+
+        void rerank(Participant participant, Map<String, Double> prices) {
+            participant.revalue(prices);
+            ranking.insert(participant.accountId, participant.netWorth);
+            version = versions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Valuation state of one tournament account.
+     */
+    private static final class Participant {
+        final long accountId;
+        // account version the participant was read at; trades up to it are already included
+        final long loadedVersion;
+        final Long userId;
+        final String name;
+        double cash;
+        final Map<String, Position> positions = new HashMap<>();
+        double holdingValue;
+        double netWorth;
+
+        Participant(Account account) {
+            this.accountId = account.getId();
+            this.loadedVersion = account.getVersion();
+            this.userId = account.getUser() != null ? account.getUser().getId() : null;
+            this.name = account.getUser() != null ? account.getUser().getName() : account.getName();
+            this.cash = account.getCash();
+            for (Holding holding : account.getHoldings()) {
+                if (holding.getShares() > SHARE_EPSILON) {
+                    positions.put(holding.getStockTicker().toUpperCase(),
+                            new Position(holding.getShares(), holding.getAveragePrice()));
+                }
+            }
+        }
+
+        void applyTrade(String ticker, double shareDelta, double price) {
+            Position position = positions.get(ticker);
+            if (shareDelta > 0) {
+                if (position == null) {
+                    positions.put(ticker, new Position(shareDelta, price));
+                } else {
+                    double totalCost = position.averagePrice * position.shares + price * shareDelta;
+                    position.shares += shareDelta;
+                    position.averagePrice = totalCost / position.shares;
+                }
+            } else if (position != null) {
+                position.shares += shareDelta;
+                if (position.shares <= SHARE_EPSILON) {
+                    positions.remove(ticker);
+                }
+            }
+        }
+
+        // Falls back to the average purchase price when no price has been seen for a ticker
+        void revalue(Map<String, Double> prices) {
+            double value = 0.0;
+            for (Map.Entry<String, Position> entry : positions.entrySet()) {
+                Position position = entry.getValue();
+                value += position.shares * prices.getOrDefault(entry.getKey(), position.averagePrice);
+            }
+            holdingValue = value;
+            netWorth = cash + value;
+        }
+
+        TournamentLeaderboardDTO toDTO(int rank) {
+            return new TournamentLeaderboardDTO(rank, accountId, name, cash, holdingValue);
+        }
+    }
+
+    private static final class Position {
+        double shares;
+        double averagePrice;
+
+        Position(double shares, double averagePrice) {
+            this.shares = shares;
+            this.averagePrice = averagePrice;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package team8.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import team8.backend.dto.TournamentLeaderboardDTO;
+import team8.backend.entity.Tournament;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push channel per tournament for leaderboard viewers. At most once per push interval, a channel
+ * whose board changed (trades and price ticks already keep the board current, see
+ * {@link LeaderboardService}) reads the top rows once, diffs them against what it last published
+ * and sends only the rows whose rank or net worth changed. The read is shared by every viewer of
+ * the tournament. A viewer that falls behind has its pending deltas merged into one, and a
+ * viewer whose send has been blocked longer than the send timeout is dropped.
+ * The push tick runs on its own thread, so a long job on the shared scheduler never delays it.
+ */
+@Service
+public class LeaderboardStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardStreamService.class);
+
+    private final LeaderboardService leaderboardService;
+    private final PriceSnapshotService priceSnapshotService;
+    private final int maxRows;
+    private final int maxViewers;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutMillis;
+    private final long intervalMillis;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger viewerCount = new AtomicInteger();
+
+    // a viewer blocked on a slow socket holds only its own virtual thread
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService tickExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LeaderboardStreamService(
+            LeaderboardService leaderboardService,
+            PriceSnapshotService priceSnapshotService,
+            @Value("${leaderboard.push.max-rows:500}") int maxRows,
+            @Value("${leaderboard.push.max-viewers:5000}") int maxViewers,
+            @Value("${leaderboard.push.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+            @Value("${leaderboard.push.send-timeout-ms:10000}") long sendTimeoutMillis,
+            @Value("${leaderboard.push.interval-ms:1000}") long intervalMillis) {
+        this.leaderboardService = leaderboardService;
+        this.priceSnapshotService = priceSnapshotService;
+        this.maxRows = Math.max(1, maxRows);
+        this.maxViewers = maxViewers;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.intervalMillis = Math.max(1L, intervalMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        tickExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException ex) {
+                // an exception would cancel the schedule; the next tick reads the boards again
+                log.warn("Leaderboard push tick failed", ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a leaderboard stream. The first event is a "snapshot" of the top rows, later events
+     * are "delta"s of changed rows plus the account ids that left the top rows.
+     *
+     * @throws IllegalStateException when the server is at its viewer limit
+     */
+    public SseEmitter subscribe(Tournament tournament) {
+        if (viewerCount.incrementAndGet() > maxViewers) {
+            viewerCount.decrementAndGet();
+            throw new IllegalStateException("Too many leaderboard streams open");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(tournament.getId(), id -> new Channel(tournament));
+            synchronized (channel) {
+                // the tick retires a channel once its last viewer leaves; start over on a fresh one
+                if (channels.get(tournament.getId()) != channel) continue;
+                if (!channel.loaded) {
+                    refresh(channel);
+                }
+                Viewer viewer = new Viewer(emitter, channel);
+                emitter.onCompletion(() -> remove(viewer));
+                emitter.onTimeout(() -> remove(viewer));
+                emitter.onError(ex -> remove(viewer));
+                channel.viewers.add(viewer);
+                viewer.offerSnapshot(channel.published.values());
+            }
+            break;
+        }
+        return emitter;
+    }
+
+    /**
+     * Close every stream of a tournament, e.g. when it is deleted.
+     */
+    public void close(Long tournamentId) {
+        Channel channel = channels.remove(tournamentId);
+        if (channel == null) return;
+        synchronized (channel) {
+            channel.viewers.forEach(viewer -> sendExecutor.execute(viewer.emitter::complete));
+        }
+    }
+
+    /**
+     * Publish the changes of every watched board and drop viewers whose sends have stalled.
+     * Runs once per push interval, which caps how often a viewer receives a delta.
+     */
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (Channel channel : channels.values()) {
+            synchronized (channel) {
+                for (Viewer viewer : new ArrayList<>(channel.viewers)) {
+                    if (viewer.stalledSince(now) > sendTimeoutMillis) {
+                        remove(viewer);
+                        sendExecutor.execute(viewer.emitter::complete);
+                    }
+                }
+                if (channel.viewers.isEmpty()) {
+                    channels.remove(channel.tournament.getId(), channel);
+                    continue;
+                }
+                Delta delta = refresh(channel);
+                if (delta != null) {
+                    channel.viewers.forEach(viewer -> viewer.offer(delta));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tickExecutor.shutdownNow();
+        channels.values().forEach(channel -> channel.viewers.forEach(viewer -> viewer.emitter.complete()));
+        sendExecutor.shutdownNow();
+    }
+
+    // Reads the board when its version moved and returns what changed, or null when nothing did.
+    // Called with the channel lock held.
+    private Delta refresh(Channel channel) {
+        long version = leaderboardService.version(channel.tournament.getId());
+        if (version != -1L && version == channel.version) return null;
+
+        List<TournamentLeaderboardDTO> rows = leaderboardService.page(channel.tournament, 0, maxRows,
+                priceSnapshotService::prices);
+        // the version from before the read: a change racing with it is picked up by the next tick
+        channel.version = version;
+        channel.loaded = true;
+
+        Map<Long, TournamentLeaderboardDTO> next = new LinkedHashMap<>();
+        List<TournamentLeaderboardDTO> changed = new ArrayList<>();
+        for (TournamentLeaderboardDTO row : rows) {
+            next.put(row.getAccountId(), row);
+            TournamentLeaderboardDTO old = channel.published.get(row.getAccountId());
+            if (old == null || old.getRank() != row.getRank() || old.getCash() != row.getCash()
+                    || old.getTotalHoldingValue() != row.getTotalHoldingValue()) {
+                changed.add(row);
+            }
+        }
+        Set<Long> removed = new LinkedHashSet<>(channel.published.keySet());
+        removed.removeAll(next.keySet());
+        channel.published = next;
+
+        return changed.isEmpty() && removed.isEmpty() ? null : new Delta(changed, removed);
+    }
+
+    private void remove(Viewer viewer) {
+        synchronized (viewer.channel) {
+            if (viewer.channel.viewers.remove(viewer)) {
+                viewerCount.decrementAndGet();
+            }
+        }
+    }
+
+    private record Delta(List<TournamentLeaderboardDTO> rows, Set<Long> removed) {}
+
+    /**
+     * Viewers of one tournament and the rows last published to them. Guarded by the channel.
+     */
+    private static final class Channel {
+        final Tournament tournament;
+        final Set<Viewer> viewers = new LinkedHashSet<>();
+        Map<Long, TournamentLeaderboardDTO> published = new LinkedHashMap<>();
+        // board version behind published, -1 while the board was not loaded when it was read
+        long version = -1L;
+        boolean loaded;
+
+        Channel(Tournament tournament) {
+            this.tournament = tournament;
+        }
+    }
+
+    /**
+     * One open stream. Deltas not yet sent are merged per account, so a slow viewer holds at most
+     * one row per account; at most one sender task writes to the emitter at a time.
+     */
+    private final class Viewer {
+
+        private final SseEmitter emitter;
+        private final Channel channel;
+
+        // guarded by this viewer
+        private boolean snapshot;
+        private final Map<Long, TournamentLeaderboardDTO> pendingRows = new LinkedHashMap<>();
+        private final Set<Long> pendingRemoved = new LinkedHashSet<>();
+        private boolean sending;
+        // start of the send in progress, 0 when idle
+        private volatile long sendStartedAt;
+
+        private Viewer(SseEmitter emitter, Channel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        private void offerSnapshot(Iterable<TournamentLeaderboardDTO> rows) {
+            synchronized (this) {
+                snapshot = true;
+                pendingRows.clear();
+                pendingRemoved.clear();
+                rows.forEach(row -> pendingRows.put(row.getAccountId(), row));
+            }
+            schedule();
+        }
+
+        private void offer(Delta delta) {
+            synchronized (this) {
+                for (TournamentLeaderboardDTO row : delta.rows()) {
+                    pendingRows.put(row.getAccountId(), row);
+                    pendingRemoved.remove(row.getAccountId());
+                }
+                for (Long accountId : delta.removed()) {
+                    pendingRows.remove(accountId);
+                    // a snapshot not yet sent simply omits the row
+                    if (!snapshot) pendingRemoved.add(accountId);
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (sending) return;
+                sending = true;
+            }
+            sendExecutor.execute(this::flush);
+        }
+
+        private void flush() {
+            while (true) {
+                String name;
+                Map<String, Object> data = new LinkedHashMap<>();
+                synchronized (this) {
+                    if (!snapshot && pendingRows.isEmpty() && pendingRemoved.isEmpty()) {
+                        sending = false;
+                        return;
+                    }
+                    name = snapshot ? "snapshot" : "delta";
+                    data.put("rows", new ArrayList<>(pendingRows.values()));
+                    if (!snapshot) data.put("removed", new ArrayList<>(pendingRemoved));
+                    snapshot = false;
+                    pendingRows.clear();
+                    pendingRemoved.clear();
+                }
+                try {
+                    sendStartedAt = System.currentTimeMillis();
+                    emitter.send(SseEmitter.event().name(name).data(data));
+                } catch (IOException | IllegalStateException ex) {
+                    // viewer went away or the emitter was completed
+                    synchronized (this) {
+                        sending = false;
+                    }
+                    remove(this);
+                    return;
+                } finally {
+                    sendStartedAt = 0L;
+                }
+            }
+        }
+
+        private long stalledSince(long now) {
+            long started = sendStartedAt;
+            return started == 0L ? 0L : now - started;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Client for the Massive REST API (https://api.massive.com).
+ * Sends every call through the pooled Massive RestTemplate and draws an API key from a
+ * rate-limited key pool; a call answered with 429 is retried once per remaining key.
+ */
+@Service
+public class MassiveClient {
+
+    private static final String BASE_URL = "https://api.massive.com";
+
+    private final RestTemplate restTemplate;
+    private final ApiKeyPool keyPool;
+
+    public MassiveClient(@Qualifier("massiveRestTemplate") RestTemplate restTemplate,
+                         @Value("${massive.api-key:}") String apiKey,
+                         @Value("${upstream.massive.keys.requests-per-minute:5}") int requestsPerMinute,
+                         @Value("${upstream.massive.keys.burst:5}") int burst,
+                         @Value("${upstream.massive.keys.max-wait-ms:2000}") long maxWaitMillis,
+                         @Value("${upstream.massive.keys.backoff-ms:15000}") long backoffMillis,
+                         @Value("${upstream.massive.keys.max-backoff-ms:120000}") long maxBackoffMillis) {
+        this.restTemplate = restTemplate;
+        // Multiple keys separated by ":" each get their own quota
+        this.keyPool = new ApiKeyPool("massive", apiKey, requestsPerMinute, burst,
+                maxWaitMillis, backoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * GET a Massive endpoint with a pooled API key appended as the "apiKey" parameter.
+     *
+     * @param params builds the path and query parameters on top of the base URL
+     * @param type   response body type
+     * @return upstream response
+     * @throws ApiKeyPool.KeyPoolExhaustedException when every key is rate limited
+     */
+    public <T> ResponseEntity<T> get(Consumer<UriComponentsBuilder> params, ParameterizedTypeReference<T> type) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(BASE_URL);
+        params.accept(builder);
+
+        return keyPool.get(restTemplate, builder, "apiKey", type);
+    }
+
+    /**
+     * Usage and throttle counters of the Massive key pool.
+     */
+    public Map<String, Object> keyStats() {
+        return keyPool.stats();
+    }
+}
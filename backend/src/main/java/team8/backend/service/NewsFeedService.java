@@ -0,0 +1,200 @@
+package team8.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Recent Finnhub market news per category, ingested in the background.
+ * Each configured category is polled once per interval with the highest id seen so far as
+ * {@code minId}, so a poll only transfers new items. The newest items are kept in a bounded
+ * buffer (deduplicated by id) and published as an immutable newest-first list, so serving
+ * {@code /news} is a memory read. Ingested items are also appended to one file per category,
+ * which is read back on startup; the file is rewritten once it holds twice the buffer size.
+ */
+@Service
+public class NewsFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsFeedService.class);
+
+    private final FinnhubClient finnhubClient;
+    private final Path directory;
+    private final int bufferSize;
+
+    private final Map<String, Feed> feeds = new LinkedHashMap<>();
+
+    public NewsFeedService(FinnhubClient finnhubClient,
+                           @Value("${news.categories:general,forex,crypto,merger}") List<String> categories,
+                           @Value("${news.dir:data/news}") String directory,
+                           @Value("${news.buffer-size:500}") int bufferSize) {
+        this.finnhubClient = finnhubClient;
+        this.directory = Paths.get(directory);
+        this.bufferSize = Math.max(1, bufferSize);
+        for (String category : categories) {
+            String key = category.trim().toLowerCase();
+            if (!key.isEmpty()) {
+                feeds.put(key, new Feed(key));
+            }
+        }
+    }
+
+    /**
+     * Load the items persisted by a previous run, so the first requests do not wait on upstream.
+     */
+    @PostConstruct
+    public void load() {
+        for (Feed feed : feeds.values()) {
+            List<Map<String, Object>> items;
+            try {
+                items = feed.store.read();
+            } catch (IOException ex) {
+                log.warn("Could not read news file {}", feed.store.file(), ex);
+                continue;
+            }
+            synchronized (feed) {
+                feed.add(items);
+                feed.loaded = !items.isEmpty();
+            }
+        }
+    }
+
+    /**
+     * Whether the category is ingested here; other categories are passed through to upstream.
+     */
+    public boolean handles(String category) {
+        return category != null && feeds.containsKey(category.trim().toLowerCase());
+    }
+
+    /**
+     * Buffered items of a category newer than {@code minId}, newest first like the Finnhub feed.
+     * A category that has never been polled is polled once on the calling thread.
+     *
+     * @throws IllegalArgumentException for a category that is not ingested
+     */
+    public List<Map<String, Object>> news(String category, long minId) {
+        Feed feed = feeds.get(category == null ? null : category.trim().toLowerCase());
+        if (feed == null) {
+            throw new IllegalArgumentException("Unknown news category: " + category);
+        }
+        if (!feed.loaded) {
+            poll(feed);
+        }
+        List<Map<String, Object>> items = feed.newestFirst;
+        if (minId <= 0) return items;
+        List<Map<String, Object>> newer = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            if (id(item) <= minId) break;
+            newer.add(item);
+        }
+        return newer;
+    }
+
+    /**
+     * Fetch what is new in every category since its highest seen id.
+     */
+    @Scheduled(fixedDelayString = "${news.poll-ms:60000}",
+               initialDelayString = "${news.initial-delay-ms:5000}")
+    public void pollAll() {
+        for (Feed feed : feeds.values()) {
+            try {
+                poll(feed);
+            } catch (RuntimeException ex) {
+                // upstream errors are retried on the next poll; the buffer keeps serving
+                log.warn("Could not poll {} news: {}", feed.category, ex.getMessage());
+            }
+        }
+    }
+
+    // Serialized per feed, so a request-time cold poll and the scheduled poll never fetch twice
+    private void poll(Feed feed) {
+        synchronized (feed) {
+            long since = feed.highestId;
+            ResponseEntity<List<Map<String, Object>>> response = finnhubClient.get("/news",
+                    b -> {
+                        b.queryParam("category", feed.category);
+                        if (since > 0) b.queryParam("minId", since);
+                    },
+                    new ParameterizedTypeReference<List<Map<String, Object>>>() {});
+            if (!response.getStatusCode().equals(HttpStatus.OK) || response.getBody() == null) return;
+
+            List<Map<String, Object>> added = feed.add(response.getBody());
+            feed.loaded = true;
+            if (!added.isEmpty()) {
+                persist(feed, added);
+            }
+        }
+    }
+
+    private void persist(Feed feed, List<Map<String, Object>> added) {
+        try {
+            feed.store.append(added, () -> new ArrayList<>(feed.buffer.values()));
+        } catch (IOException ex) {
+            // the buffer stays authoritative; a restart just cold-starts this category
+            log.warn("Could not write news file {}", feed.store.file(), ex);
+        }
+    }
+
+    private static long id(Map<String, Object> item) {
+        Object id = item.get("id");
+        return id instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Buffer of one category. Mutated under the feed's lock; {@code newestFirst} is replaced
+     * wholesale, so readers never lock.
+     */
+    private final class Feed {
+        final String category;
+        // id -> item, at most bufferSize items; the lowest id is evicted first
+        final TreeMap<Long, Map<String, Object>> buffer = new TreeMap<>();
+        final JsonLinesLog store;
+        long highestId;
+        volatile boolean loaded;
+        volatile List<Map<String, Object>> newestFirst = List.of();
+
+        Feed(String category) {
+            this.category = category;
+            this.store = new JsonLinesLog(directory.resolve(category + ".jsonl"), bufferSize);
+        }
+
+        // Adds the items not seen yet and returns the ones still buffered afterwards
+        List<Map<String, Object>> add(List<Map<String, Object>> items) {
+            List<Map<String, Object>> added = new ArrayList<>();
+            for (Map<String, Object> item : items) {
+                long id = id(item);
+                if (id <= 0 || buffer.containsKey(id)) continue;
+                // an item older than all of a full buffer would be evicted at once
+                if (buffer.size() >= bufferSize && id < buffer.firstKey()) continue;
+                buffer.put(id, item);
+                added.add(item);
+                highestId = Math.max(highestId, id);
+                if (buffer.size() > bufferSize) {
+                    buffer.pollFirstEntry();
+                }
+            }
+            // a later item of the same batch may have evicted an earlier one again
+            added.removeIf(item -> !buffer.containsKey(id(item)));
+            if (added.isEmpty()) return added;
+
+            added.sort(Comparator.comparingLong(NewsFeedService::id));
+            newestFirst = List.copyOf(buffer.descendingMap().values());
+            return added;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package team8.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resting orders of one ticker, indexed by trigger price.
+ * Each of the four trigger directions is a {@link RankedSkipList} keyed by price in micro-units,
+ * so a price tick looks only at the head of each side: O(log n) to find out nothing triggers,
+ * plus O(log n) per order that does. Ties keep time priority through the ascending order id.
+ * Not thread-safe: callers synchronize on the book.
+ */
+public final class OrderBook {
+
+    /**
+     * What the book needs to know about an order.
+     *
+     * @param limitMicros limit price, or 0 for a plain stop
+     * @param stopMicros  stop price, or 0 for a plain limit or an already triggered stop-limit
+     */
+    public record Resting(long id, long accountId, boolean buy, long sharesMicros, long limitMicros, long stopMicros) {
+
+        boolean waitsForStop() {
+            return stopMicros > 0;
+        }
+    }
+
+    /**
+     * An order the tick crossed.
+     *
+     * @param priceMicros the tick price; the fill price when {@code fill} is true
+     * @param fill        true to execute now, false when a stop-limit's stop was hit and it now rests as a limit
+     */
+    public record Trigger(Resting order, long priceMicros, boolean fill) {}
+
+    // buy limits fill at or below their limit, sell stops trigger at or below their stop
+    private final Side buyLimits = new Side(true);
+    private final Side sellStops = new Side(true);
+    // sell limits fill at or above their limit, buy stops trigger at or above their stop
+    private final Side sellLimits = new Side(false);
+    private final Side buyStops = new Side(false);
+
+    private final Map<Long, Placed> byId = new HashMap<>();
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void add(Resting order) {
+        Side side;
+        long key;
+        if (order.waitsForStop()) {
+            side = order.buy() ? buyStops : sellStops;
+            key = order.stopMicros();
+        } else {
+            side = order.buy() ? buyLimits : sellLimits;
+            key = order.limitMicros();
+        }
+        remove(order.id());
+        side.insert(order.id(), key);
+        byId.put(order.id(), new Placed(order, side, key));
+    }
+
+    /**
+     * @return the removed order, or null when it was not in the book
+     */
+    public Resting remove(long orderId) {
+        Placed placed = byId.remove(orderId);
+        if (placed == null) return null;
+        placed.side.remove(orderId, placed.key);
+        return placed.order;
+    }
+
+    /**
+     * Remove and return every order the price crosses. Stops are evaluated first so a stop-limit
+     * triggered by this tick can fill on the same tick when its limit allows it.
+     */
+    public List<Trigger> onPrice(long priceMicros) {
+        List<Trigger> triggers = new ArrayList<>();
+        popStops(buyStops, priceMicros, triggers);
+        popStops(sellStops, priceMicros, triggers);
+        popLimits(buyLimits, priceMicros, triggers);
+        popLimits(sellLimits, priceMicros, triggers);
+        return triggers;
+    }
+
+    private void popStops(Side side, long priceMicros, List<Trigger> triggers) {
+        RankedSkipList.Entry head;
+        while ((head = side.headCrossedBy(priceMicros)) != null) {
+            Resting order = remove(head.id());
+            if (order.limitMicros() > 0) {
+                // stop-limit: arm it as a limit order at its limit price
+                Resting armed = new Resting(order.id(), order.accountId(), order.buy(), order.sharesMicros(),
+                        order.limitMicros(), 0L);
+                add(armed);
+                triggers.add(new Trigger(armed, priceMicros, false));
+            } else {
+                triggers.add(new Trigger(order, priceMicros, true));
+            }
+        }
+    }
+
+    private void popLimits(Side side, long priceMicros, List<Trigger> triggers) {
+        RankedSkipList.Entry head;
+        while ((head = side.headCrossedBy(priceMicros)) != null) {
+            triggers.add(new Trigger(remove(head.id()), priceMicros, true));
+        }
+    }
+
+    private record Placed(Resting order, Side side, long key) {}
+
+    /**
+     * One trigger direction. RankedSkipList ranks by score descending, so a side that triggers at or
+     * above its key stores the negated key to put its lowest key first.
+     */
+    private static final class Side {
+        private final RankedSkipList entries = new RankedSkipList();
+        private final boolean triggersAtOrBelow;
+
+        Side(boolean triggersAtOrBelow) {
+            this.triggersAtOrBelow = triggersAtOrBelow;
+        }
+
+        void insert(long id, long key) {
+            entries.insert(id, score(key));
+        }
+
+        void remove(long id, long key) {
+            entries.remove(id, score(key));
+        }
+
+        // the first entry when the price crosses its key, otherwise null
+        RankedSkipList.Entry headCrossedBy(long priceMicros) {
+            if (entries.size() == 0) return null;
+            RankedSkipList.Entry head = entries.range(1, 1).get(0);
+            long key = (long) (triggersAtOrBelow ? head.score() : -head.score());
+            boolean crossed = triggersAtOrBelow ? priceMicros <= key : priceMicros >= key;
+            return crossed ? head : null;
+        }
+
+        // micro-unit prices are far below 2^53, so the double score is exact
+        private double score(long key) {
+            return triggersAtOrBelow ? key : -key;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package team8.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team8.backend.dto.OrderDTO;
+import team8.backend.dto.TradeResultDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Micros;
+import team8.backend.entity.Order;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.OrderRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Limit, stop and stop-limit orders. Orders are persisted in the orders table and mirrored in
+ * one {@link OrderBook} per ticker. Quote updates are matched against the book on the publishing
+ * thread (only the book heads are inspected); the resulting fills run on a single background
+ * thread through TradeService, so quote ingestion never waits on the database.
+ * Cash and shares are checked when an order fills, not reserved when it is placed: an order
+ * that can no longer be covered is rejected at fill time.
+ */
+@Service
+public class OrderService {
+
+    private static final List<String> ACTIVE = List.of(Order.OPEN, Order.TRIGGERED);
+
+    private final OrderRepository orderRepository;
+    private final AccountRepository accountRepository;
+    private final TradeService tradeService;
+    private final AccountLockService accountLockService;
+    private final TradeLedgerService tradeLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxActivePerAccount;
+
+    // upper-case ticker -> book; every access to a book is synchronized on it
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    // one thread keeps fills in trigger order
+    private final ExecutorService fillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-fill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderService(OrderRepository orderRepository,
+                        AccountRepository accountRepository,
+                        TradeService tradeService,
+                        AccountLockService accountLockService,
+                        TradeLedgerService tradeLedgerService,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${orders.max-active-per-account:100}") int maxActivePerAccount) {
+        this.orderRepository = orderRepository;
+        this.accountRepository = accountRepository;
+        this.tradeService = tradeService;
+        this.accountLockService = accountLockService;
+        this.tradeLedgerService = tradeLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxActivePerAccount = maxActivePerAccount;
+    }
+
+    /**
+     * Rebuild the books from the active orders in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBooks() {
+        for (Order order : orderRepository.findActive()) {
+            addToBook(order);
+        }
+    }
+
+    /**
+     * Place an order. It rests in the book until a quote crosses its trigger price.
+     *
+     * @param type       "limit", "stop" or "stop_limit"
+     * @param limitPrice required for limit and stop-limit orders, ignored otherwise
+     * @param stopPrice  required for stop and stop-limit orders, ignored otherwise
+     * @return the stored order, or empty when the account does not exist
+     * @throws IllegalArgumentException for an invalid action, type, quantity or price, or too many active orders
+     */
+    public Optional<OrderDTO> place(Long accountId, String action, String type, String ticker,
+                                    double shares, Double limitPrice, Double stopPrice) {
+        if (action == null || !(action.equalsIgnoreCase("buy") || action.equalsIgnoreCase("sell"))) {
+            throw new IllegalArgumentException("Invalid action type. Must be 'buy' or 'sell'.");
+        }
+        String orderType = type != null ? type.toLowerCase() : "";
+        boolean needsLimit = orderType.equals(Order.LIMIT) || orderType.equals(Order.STOP_LIMIT);
+        boolean needsStop = orderType.equals(Order.STOP) || orderType.equals(Order.STOP_LIMIT);
+        if (!needsLimit && !needsStop) {
+            throw new IllegalArgumentException("Invalid order type. Must be 'limit', 'stop' or 'stop_limit'.");
+        }
+        if (ticker == null || ticker.isBlank()) {
+            throw new IllegalArgumentException("Ticker is required.");
+        }
+        long sharesMicros = Micros.of(shares);
+        Long limitMicros = needsLimit ? positiveMicros(limitPrice, "Limit price") : null;
+        Long stopMicros = needsStop ? positiveMicros(stopPrice, "Stop price") : null;
+        if (sharesMicros <= 0) {
+            throw new IllegalArgumentException("Shares must be at least 0.000001.");
+        }
+
+        return transactionTemplate.execute(status -> {
+            Optional<Account> accountOpt = accountRepository.findById(accountId);
+            if (accountOpt.isEmpty()) return Optional.<OrderDTO>empty();
+            if (orderRepository.countByAccountIdAndStatusIn(accountId, ACTIVE) >= maxActivePerAccount) {
+                throw new IllegalArgumentException("Too many open orders on this account.");
+            }
+
+            Order order = new Order(accountOpt.get(), action.toLowerCase(), orderType, ticker.trim().toUpperCase(),
+                    sharesMicros, limitMicros, stopMicros, LocalDateTime.now());
+            orderRepository.save(order);
+            afterCommit(() -> addToBook(order));
+            return Optional.of(OrderDTO.fromEntity(order));
+        });
+    }
+
+    /**
+     * Cancel an active order.
+     *
+     * @return the cancelled order, or empty when no order has this id
+     * @throws IllegalStateException when the order was already filled, cancelled or rejected
+     */
+    public Optional<OrderDTO> cancel(Long orderId) {
+        Optional<Order> found = orderRepository.findById(orderId);
+        if (found.isEmpty()) return Optional.empty();
+        Long accountId = found.get().getAccount().getId();
+
+        // the account lock serializes this with a fill of the same order
+        return accountLockService.withAccountLock(accountId, () -> transactionTemplate.execute(status -> {
+            Optional<Order> current = orderRepository.findById(orderId);
+            if (current.isEmpty()) return Optional.<OrderDTO>empty();
+            Order order = current.get();
+            if (!order.isActive()) {
+                throw new IllegalStateException("Order is already " + order.getStatus() + ".");
+            }
+            order.setStatus(Order.CANCELLED);
+            order.setClosedAt(LocalDateTime.now());
+            orderRepository.saveAndFlush(order);
+            afterCommit(() -> removeFromBook(order.getStockTicker(), orderId));
+            return Optional.of(OrderDTO.fromEntity(order));
+        }));
+    }
+
+    /**
+     * Orders of an account, newest first.
+     */
+    public List<OrderDTO> ordersFor(Long accountId) {
+        return orderRepository.findByAccountIdOrderByIdDesc(accountId).stream()
+                .map(OrderDTO::fromEntity)
+                .toList();
+    }
+
+    /**
+     * Match a price tick against the ticker's book and hand what it crossed to the fill thread.
+     */
+    @EventListener
+    public void onQuoteUpdated(QuoteUpdatedEvent event) {
+        OrderBook book = books.get(event.ticker().toUpperCase());
+        if (book == null) return;
+
+        List<OrderBook.Trigger> triggers;
+        synchronized (book) {
+            if (book.size() == 0) return;
+            triggers = book.onPrice(Micros.of(event.price()));
+        }
+        if (!triggers.isEmpty()) {
+            String ticker = event.ticker().toUpperCase();
+            LocalDateTime quotedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.fetchedAtMillis()),
+                    ZoneId.systemDefault());
+            fillExecutor.execute(() -> triggers.forEach(trigger -> process(ticker, trigger, quotedAt)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fillExecutor.shutdownNow();
+    }
+
+    private void process(String ticker, OrderBook.Trigger trigger, LocalDateTime quotedAt) {
+        long orderId = trigger.order().id();
+        try {
+            if (trigger.fill()) {
+                fill(orderId, trigger.order().accountId(), trigger.priceMicros(), quotedAt);
+            } else {
+                markTriggered(orderId);
+            }
+        } catch (IllegalArgumentException ex) {
+            // insufficient cash or shares: the order can never fill as placed
+            reject(orderId, ex.getMessage());
+        } catch (RuntimeException ex) {
+            // transient failure: put the order back so the next tick retries it
+            OrderBook book = books.computeIfAbsent(ticker, k -> new OrderBook());
+            synchronized (book) {
+                book.add(trigger.order());
+            }
+        }
+    }
+
+    private void fill(long orderId, long accountId, long priceMicros, LocalDateTime quotedAt) {
+        accountLockService.withAccountLock(accountId, () -> {
+            // fills write synchronously, so trades still in the ledger must reach the database first
+            tradeLedgerService.drain(accountId);
+            return transactionTemplate.execute(status -> {
+                Optional<Order> current = orderRepository.findById(orderId);
+                // cancelled, or deleted together with its account, after it was triggered
+                if (current.isEmpty() || !current.get().isActive()) return null;
+                Order order = current.get();
+
+                Optional<TradeResultDTO> traded = tradeService.executeTrade(accountId, order.getAction(),
+                        order.getStockTicker(), Micros.toDouble(order.getSharesMicros()), Micros.toDouble(priceMicros), quotedAt);
+                if (traded.isEmpty()) return null;
+
+                order.setStatus(Order.FILLED);
+                order.setFillPriceMicros(priceMicros);
+                order.setTransactionId(traded.get().getTransaction().getId());
+                order.setClosedAt(LocalDateTime.now());
+                orderRepository.saveAndFlush(order);
+                return null;
+            });
+        });
+    }
+
+    private void markTriggered(long orderId) {
+        transactionTemplate.executeWithoutResult(status -> orderRepository.findById(orderId).ifPresent(order -> {
+            if (Order.OPEN.equals(order.getStatus())) {
+                order.setStatus(Order.TRIGGERED);
+            }
+        }));
+    }
+
+    private void reject(long orderId, String reason) {
+        transactionTemplate.executeWithoutResult(status -> orderRepository.findById(orderId).ifPresent(order -> {
+            if (order.isActive()) {
+                order.setStatus(Order.REJECTED);
+                order.setRejectReason(reason);
+                order.setClosedAt(LocalDateTime.now());
+            }
+        }));
+    }
+
+    private void addToBook(Order order) {
+        // a triggered stop-limit rests as a plain limit
+        long stop = Order.TRIGGERED.equals(order.getStatus()) || order.getStopPriceMicros() == null
+                ? 0L : order.getStopPriceMicros();
+        long limit = order.getLimitPriceMicros() != null ? order.getLimitPriceMicros() : 0L;
+        OrderBook.Resting resting = new OrderBook.Resting(order.getId(), order.getAccount().getId(),
+                "buy".equals(order.getAction()), order.getSharesMicros(), limit, stop);
+
+        OrderBook book = books.computeIfAbsent(order.getStockTicker().toUpperCase(), k -> new OrderBook());
+        synchronized (book) {
+            book.add(resting);
+        }
+    }
+
+    private void removeFromBook(String ticker, long orderId) {
+        OrderBook book = books.get(ticker.toUpperCase());
+        if (book == null) return;
+        synchronized (book) {
+            book.remove(orderId);
+        }
+    }
+
+    private static long positiveMicros(Double price, String name) {
+        long micros = price != null ? Micros.of(price) : 0L;
+        if (micros <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than 0.");
+        }
+        return micros;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
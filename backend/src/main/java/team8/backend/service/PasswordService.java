@@ -0,0 +1,78 @@
+package team8.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import team8.backend.config.PasswordUtils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, bounded pool.
+ * BCrypt at cost 12 takes hundreds of milliseconds of CPU, so a login burst on the
+ * request threads would starve every other endpoint; here the work queues up to a
+ * fixed depth and anything beyond that is rejected immediately.
+ * The returned futures complete on a virtual thread, so whatever a caller chains on them
+ * (saving the user, for example) never holds a BCrypt thread.
+ */
+@Service
+public class PasswordService {
+
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService continuations = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PasswordService(
+            @Value("${password.pool.threads:0}") int threads,
+            @Value("${password.pool.queue-capacity:64}") int queueCapacity) {
+        // default to one thread per core, BCrypt is pure CPU work
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Verify a plaintext password against a stored hash on the BCrypt pool.
+     *
+     * @return future completing with the result
+     * @throws RejectedExecutionException when the pool's queue is full
+     */
+    public CompletableFuture<Boolean> verify(String plainPassword, String hashedPassword) {
+        return CompletableFuture.supplyAsync(
+                () -> PasswordUtils.checkPassword(plainPassword, hashedPassword), executor)
+                .thenApplyAsync(Function.identity(), continuations);
+    }
+
+    /**
+     * Hash a plaintext password on the BCrypt pool.
+     *
+     * @return future completing with the hash
+     * @throws RejectedExecutionException when the pool's queue is full
+     */
+    public CompletableFuture<String> hash(String plainPassword) {
+        return CompletableFuture.supplyAsync(() -> PasswordUtils.hashPassword(plainPassword), executor)
+                .thenApplyAsync(Function.identity(), continuations);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        continuations.shutdown();
+    }
+}
@@ -0,0 +1,343 @@
+package team8.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team8.backend.dto.HoldingDTO;
+import team8.backend.dto.PositionReconciliationDTO;
+import team8.backend.dto.RebuildSummaryDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Micros;
+import team8.backend.entity.PositionCheckpoint;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.PositionCheckpointRepository;
+import team8.backend.repository.TransactionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds an account's cash and positions by folding its transactions, in id order, over the
+ * opening cash, with the same arithmetic TradeService and HoldingService apply when trading.
+ * A rebuild starts from the account's latest {@link PositionCheckpoint} and stores a new one when
+ * it had to replay at least positions.checkpoint.interval transactions, so the cost of a rebuild
+ * is bounded by the activity since the last checkpoint rather than the account's whole history.
+ * Comparing the result with the stored Account and Holding rows reconciles the account.
+ */
+@Service
+public class PositionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionEngine.class);
+
+    public record Position(long sharesMicros, long averagePriceMicros) {}
+
+    /**
+     * Cash and positions (by ticker) after folding every transaction up to {@code lastTransactionId}.
+     */
+    public record Snapshot(long lastTransactionId, long cashMicros, SortedMap<String, Position> positions) {}
+
+    private record Replay(Snapshot snapshot, int replayed) {}
+
+    private record Tally(int accounts, long replayed, List<Long> inconsistent) {
+
+        Tally plus(Tally other) {
+            List<Long> both = new ArrayList<>(inconsistent);
+            both.addAll(other.inconsistent);
+            return new Tally(accounts + other.accounts, replayed + other.replayed, both);
+        }
+    }
+
+    // accounts per fork-join leaf
+    private static final int LEAF_ACCOUNTS = 16;
+
+    private final AccountRepository accountRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final PositionCheckpointRepository checkpointRepository;
+    private final AccountLockService accountLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int checkpointInterval;
+    private final int pageSize;
+    // each worker holds a database connection while it rebuilds, so keep this below the pool size
+    private final ForkJoinPool rebuildPool;
+    // set while a scheduled checkpoint pass is running on the rebuild pool
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+
+    public PositionEngine(AccountRepository accountRepository,
+                          HoldingRepository holdingRepository,
+                          TransactionRepository transactionRepository,
+                          PositionCheckpointRepository checkpointRepository,
+                          AccountLockService accountLockService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${positions.checkpoint.interval:500}") int checkpointInterval,
+                          @Value("${positions.replay.page-size:1000}") int pageSize,
+                          @Value("${positions.rebuild.parallelism:4}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountLockService = accountLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        this.pageSize = Math.max(1, pageSize);
+        this.rebuildPool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Rebuild one account and compare it with its stored cash and holdings.
+     * Runs under the account lock so no trade lands between reading the history and the stored state.
+     *
+     * @return the comparison, or empty when the account does not exist
+     */
+    public Optional<PositionReconciliationDTO> reconcile(Long accountId) {
+        return accountLockService.withAccountLock(accountId,
+                () -> transactionTemplate.execute(status -> reconcileInTransaction(accountId)));
+    }
+
+    /**
+     * Rebuild and reconcile every account on the fork-join pool, checkpointing the ones with enough
+     * new transactions.
+     */
+    public RebuildSummaryDTO rebuildAll() {
+        long start = System.currentTimeMillis();
+        List<Long> ids = accountRepository.findAllIds();
+        Tally tally = rebuildPool.invoke(new RebuildTask(ids));
+        List<Long> inconsistent = new ArrayList<>(tally.inconsistent());
+        Collections.sort(inconsistent);
+        return new RebuildSummaryDTO(tally.accounts(), tally.replayed(), inconsistent,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Periodic checkpoint pass, so on-demand rebuilds stay short. The pass runs on the rebuild pool
+     * rather than the scheduler thread; a tick that finds the previous pass still running is skipped.
+     */
+    @Scheduled(fixedDelayString = "${positions.checkpoint.refresh-ms:3600000}",
+               initialDelayString = "${positions.checkpoint.initial-delay-ms:3600000}")
+    public void checkpointAll() {
+        if (!checkpointing.compareAndSet(false, true)) return;
+        try {
+            rebuildPool.execute(() -> {
+                try {
+                    rebuildAll();
+                } catch (RuntimeException ex) {
+                    log.warn("Checkpoint pass failed", ex);
+                } finally {
+                    checkpointing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // the pool is shutting down
+            checkpointing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildPool.shutdownNow();
+    }
+
+    /**
+     * Apply transactions to a snapshot. Sells of more than is held leave a negative position
+     * rather than failing, so a broken history shows up as a difference instead of an error.
+     */
+    static Snapshot fold(Snapshot snapshot, List<TransactionRepository.Fold> transactions) {
+        if (transactions.isEmpty()) return snapshot;
+        long cash = snapshot.cashMicros();
+        SortedMap<String, Position> positions = new TreeMap<>(snapshot.positions());
+        long last = snapshot.lastTransactionId();
+
+        for (TransactionRepository.Fold tx : transactions) {
+            long shares = tx.getSharesMicros();
+            long price = tx.getPriceMicros();
+            long value = Micros.multiply(shares, price);
+            Position held = positions.get(tx.getStockTicker());
+
+            if ("buy".equalsIgnoreCase(tx.getAction())) {
+                cash -= value;
+                if (held == null) {
+                    positions.put(tx.getStockTicker(), new Position(shares, price));
+                } else {
+                    long totalCost = Micros.multiply(held.averagePriceMicros(), held.sharesMicros()) + value;
+                    long newShares = held.sharesMicros() + shares;
+                    positions.put(tx.getStockTicker(), new Position(newShares,
+                            newShares != 0 ? Micros.divide(totalCost, newShares) : 0L));
+                }
+            } else {
+                cash += value;
+                long remaining = (held != null ? held.sharesMicros() : 0L) - shares;
+                if (remaining == 0) {
+                    positions.remove(tx.getStockTicker());
+                } else {
+                    positions.put(tx.getStockTicker(),
+                            new Position(remaining, held != null ? held.averagePriceMicros() : 0L));
+                }
+            }
+            last = tx.getId();
+        }
+        return new Snapshot(last, cash, positions);
+    }
+
+    private Optional<PositionReconciliationDTO> reconcileInTransaction(Long accountId) {
+        Optional<Account> found = accountRepository.findById(accountId);
+        if (found.isEmpty()) return Optional.empty();
+        Account account = found.get();
+
+        Replay replay = rebuild(account);
+        Snapshot rebuilt = replay.snapshot();
+
+        List<String> differences = new ArrayList<>();
+        if (rebuilt.cashMicros() != account.getCashMicros()) {
+            differences.add("cash: rebuilt " + Micros.toDouble(rebuilt.cashMicros())
+                    + ", stored " + Micros.toDouble(account.getCashMicros()));
+        }
+        Map<String, Holding> stored = new TreeMap<>();
+        for (Holding h : holdingRepository.findByAccountId(accountId)) {
+            stored.put(h.getStockTicker(), h);
+        }
+        TreeSet<String> tickers = new TreeSet<>(stored.keySet());
+        tickers.addAll(rebuilt.positions().keySet());
+        for (String ticker : tickers) {
+            Position position = rebuilt.positions().get(ticker);
+            Holding holding = stored.get(ticker);
+            long rebuiltShares = position != null ? position.sharesMicros() : 0L;
+            long storedShares = holding != null ? holding.getSharesMicros() : 0L;
+            if (rebuiltShares != storedShares) {
+                differences.add(ticker + " shares: rebuilt " + Micros.toDouble(rebuiltShares)
+                        + ", stored " + Micros.toDouble(storedShares));
+            } else if (position != null && holding != null
+                    && position.averagePriceMicros() != holding.getAveragePriceMicros()) {
+                differences.add(ticker + " average price: rebuilt " + Micros.toDouble(position.averagePriceMicros())
+                        + ", stored " + holding.getAveragePrice());
+            }
+        }
+
+        List<HoldingDTO> holdings = rebuilt.positions().entrySet().stream()
+                .map(e -> new HoldingDTO(null, e.getKey(), Micros.toDouble(e.getValue().sharesMicros()),
+                        Micros.toDouble(e.getValue().averagePriceMicros()), accountId))
+                .toList();
+        return Optional.of(new PositionReconciliationDTO(accountId, Micros.toDouble(rebuilt.cashMicros()),
+                account.getCash(), holdings, differences, replay.replayed()));
+    }
+
+    private Replay rebuild(Account account) {
+        Optional<PositionCheckpoint> checkpoint =
+                checkpointRepository.findFirstByAccountIdOrderByLastTransactionIdDesc(account.getId());
+        Replay replay;
+
+        if (checkpoint.isPresent()) {
+            PositionCheckpoint from = checkpoint.get();
+            replay = replay(account.getId(), new Snapshot(from.getLastTransactionId(), from.getCashMicros(),
+                    parsePositions(from.getPositions())));
+        } else if (account.getOpeningCashMicros() != null) {
+            replay = replay(account.getId(), new Snapshot(0L, account.getOpeningCashMicros(), new TreeMap<>()));
+        } else {
+            // opened before the opening cash was recorded: take it as what makes today's cash
+            // consistent with the history, and keep it so later drift is detected
+            Replay fromZero = replay(account.getId(), new Snapshot(0L, 0L, new TreeMap<>()));
+            long openingCash = account.getCashMicros() - fromZero.snapshot().cashMicros();
+            checkpointRepository.save(new PositionCheckpoint(account, 0L, openingCash, "", LocalDateTime.now()));
+            Snapshot folded = fromZero.snapshot();
+            replay = new Replay(new Snapshot(folded.lastTransactionId(), folded.cashMicros() + openingCash,
+                    folded.positions()), fromZero.replayed());
+        }
+
+        if (replay.replayed() >= checkpointInterval) {
+            Snapshot snapshot = replay.snapshot();
+            checkpointRepository.save(new PositionCheckpoint(account, snapshot.lastTransactionId(),
+                    snapshot.cashMicros(), formatPositions(snapshot.positions()), LocalDateTime.now()));
+            checkpointRepository.deleteOlderThan(account.getId(), snapshot.lastTransactionId());
+        }
+        return replay;
+    }
+
+    // fold the transactions after the snapshot a page at a time
+    private Replay replay(Long accountId, Snapshot from) {
+        Snapshot current = from;
+        int replayed = 0;
+        List<TransactionRepository.Fold> page;
+        do {
+            page = transactionRepository.findFoldAfter(accountId, current.lastTransactionId(), PageRequest.of(0, pageSize));
+            current = fold(current, page);
+            replayed += page.size();
+        } while (page.size() == pageSize);
+        return new Replay(current, replayed);
+    }
+
+    private static String formatPositions(SortedMap<String, Position> positions) {
+        StringBuilder out = new StringBuilder();
+        positions.forEach((ticker, p) -> out.append(ticker).append(',').append(p.sharesMicros())
+                .append(',').append(p.averagePriceMicros()).append('\n'));
+        return out.toString();
+    }
+
+    private static SortedMap<String, Position> parsePositions(String text) {
+        SortedMap<String, Position> positions = new TreeMap<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty()) continue;
+            String[] parts = line.split(",");
+            positions.put(parts[0], new Position(Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+        }
+        return positions;
+    }
+
+    /**
+     * Splits the account ids in halves until a slice is small enough to rebuild sequentially.
+     */
+    private final class RebuildTask extends RecursiveTask<Tally> {
+        private final List<Long> ids;
+
+        RebuildTask(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (ids.size() > LEAF_ACCOUNTS) {
+                int mid = ids.size() / 2;
+                RebuildTask left = new RebuildTask(ids.subList(0, mid));
+                left.fork();
+                Tally right = new RebuildTask(ids.subList(mid, ids.size())).compute();
+                return left.join().plus(right);
+            }
+
+            int accounts = 0;
+            long replayed = 0;
+            List<Long> inconsistent = new ArrayList<>();
+            for (Long id : ids) {
+                try {
+                    Optional<PositionReconciliationDTO> result = reconcile(id);
+                    // deleted since the ids were listed
+                    if (result.isEmpty()) continue;
+                    accounts++;
+                    replayed += result.get().getReplayedTransactions();
+                    if (!result.get().isConsistent()) inconsistent.add(id);
+                } catch (RuntimeException ex) {
+                    // could not be rebuilt: report it rather than abandon the whole pass
+                    accounts++;
+                    inconsistent.add(id);
+                }
+            }
+            return new Tally(accounts, replayed, inconsistent);
+        }
+    }
+}
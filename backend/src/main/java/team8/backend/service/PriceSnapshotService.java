@@ -0,0 +1,135 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Periodically refreshes prices for every ticker currently held in any account
+ * (the "active universe") and publishes them as an immutable snapshot.
+ * Readers such as the leaderboard get a consistent set of prices without ever
+ * waiting on an upstream HTTP call.
+ */
+@Service
+public class PriceSnapshotService {
+
+    private final HoldingRepository holdingRepository;
+    private final OrderRepository orderRepository;
+    private final QuoteCacheService quoteCacheService;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxStalenessMillis;
+
+    // replaced wholesale on every refresh, so a reader always sees one generation of prices
+    private volatile Snapshot current = new Snapshot(Map.of(), 0L);
+
+    public PriceSnapshotService(
+            HoldingRepository holdingRepository,
+            OrderRepository orderRepository,
+            QuoteCacheService quoteCacheService,
+            @Value("${price.snapshot.enabled:true}") boolean enabled,
+            @Value("${price.snapshot.batch-size:50}") int batchSize,
+            @Value("${price.snapshot.max-staleness-ms:600000}") long maxStalenessMillis) {
+        this.holdingRepository = holdingRepository;
+        this.orderRepository = orderRepository;
+        this.quoteCacheService = quoteCacheService;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * The most recently published snapshot.
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Prices from the current snapshot for the given tickers; tickers without a usable price are left out.
+     */
+    public Map<String, Double> prices(Collection<String> tickers) {
+        return current.prices(tickers);
+    }
+
+    /**
+     * Refresh every held or ordered ticker in batches and publish a new snapshot.
+     * Tickers that fail to refresh keep their previous price until it exceeds the staleness bound.
+     */
+    @Scheduled(fixedDelayString = "${price.snapshot.refresh-ms:30000}",
+               initialDelayString = "${price.snapshot.initial-delay-ms:5000}")
+    public void refresh() {
+        if (!enabled) return;
+
+        // held tickers plus tickers with resting orders, whose books are driven by these quotes
+        Set<String> tickers = new LinkedHashSet<>(holdingRepository.findDistinctTickers());
+        tickers.addAll(orderRepository.findActiveTickers());
+        List<String> universe = new ArrayList<>(tickers);
+        Snapshot previous = current;
+        long now = System.currentTimeMillis();
+        Map<String, PricePoint> next = new HashMap<>();
+
+        for (int from = 0; from < universe.size(); from += batchSize) {
+            List<String> batch = new ArrayList<>(universe.subList(from, Math.min(from + batchSize, universe.size())));
+            QuoteCacheService.BatchResult result = quoteCacheService.getAll(batch);
+            for (QuoteCacheService.CachedQuote quote : result.quotes().values()) {
+                Double price = quote.currentPrice();
+                if (price != null && price > 0) {
+                    next.put(quote.ticker(), new PricePoint(price, quote.fetchedAtMillis()));
+                }
+            }
+        }
+
+        // carry forward prices that failed this round but are still within the staleness bound
+        for (String ticker : universe) {
+            String key = ticker.toUpperCase();
+            PricePoint old = previous.points().get(key);
+            if (!next.containsKey(key) && old != null && now - old.fetchedAtMillis() <= maxStalenessMillis) {
+                next.put(key, old);
+            }
+        }
+
+        current = new Snapshot(Map.copyOf(next), now);
+    }
+
+    /**
+     * Immutable set of prices taken together.
+     *
+     * @param points        upper-case ticker -> price and fetch time
+     * @param takenAtMillis time the snapshot was published
+     */
+    public record Snapshot(Map<String, PricePoint> points, long takenAtMillis) {
+
+        public Double price(String ticker) {
+            PricePoint point = points.get(ticker.toUpperCase());
+            return point != null ? point.price() : null;
+        }
+
+        public Map<String, Double> prices(Collection<String> tickers) {
+            Map<String, Double> prices = new HashMap<>();
+            for (String ticker : tickers) {
+                Double price = price(ticker);
+                if (price != null) {
+                    prices.put(ticker.toUpperCase(), price);
+                }
+            }
+            return prices;
+        }
+    }
+
+    /**
+     * One price observation.
+     */
+    public record PricePoint(double price, long fetchedAtMillis) {}
+}
@@ -0,0 +1,404 @@
+package team8.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Shared in-memory cache for real-time quotes.
+ * Entries expire after a per-symbol TTL, the cache is bounded with LRU eviction,
+ * and concurrent misses for the same ticker are coalesced into a single upstream load.
+ */
+@Service
+public class QuoteCacheService {
+
+    private final long defaultTtlMillis;
+    private final int maxEntries;
+    private final Map<String, Long> symbolTtlMillis = new HashMap<>();
+
+    // access-ordered so the eldest entry is always the least recently used one; guarded by itself
+    private final LinkedHashMap<String, CachedQuote> entries;
+
+    // concurrent misses for one ticker share a single upstream load
+    private final SingleFlight<String, CachedQuote> loads = new SingleFlight<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // batch fan-out runs each upstream load on its own virtual thread, bounded by the semaphore
+    private final ExecutorService batchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore batchPermits;
+    private final long batchTimeoutMillis;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final FinnhubClient finnhubClient;
+
+    public QuoteCacheService(
+            ApplicationEventPublisher eventPublisher,
+            FinnhubClient finnhubClient,
+            @Value("${quote.cache.ttl-ms:15000}") long defaultTtlMillis,
+            @Value("${quote.cache.max-entries:2000}") int maxEntries,
+            @Value("${quote.cache.symbol-ttl-ms:}") String symbolTtls,
+            @Value("${quote.batch.max-concurrency:8}") int batchConcurrency,
+            @Value("${quote.batch.timeout-ms:5000}") long batchTimeoutMillis) {
+        this.eventPublisher = eventPublisher;
+        this.finnhubClient = finnhubClient;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.batchPermits = new Semaphore(Math.max(1, batchConcurrency));
+        this.batchTimeoutMillis = batchTimeoutMillis;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedQuote> eldest) {
+                if (size() > QuoteCacheService.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        // Per-symbol overrides are given as "SPY=5000,AAPL=10000"
+        if (symbolTtls != null && !symbolTtls.isBlank()) {
+            for (String pair : symbolTtls.split(",")) {
+                String[] parts = pair.split("=");
+                if (parts.length == 2 && !parts[0].isBlank()) {
+                    symbolTtlMillis.put(normalize(parts[0]), Long.parseLong(parts[1].trim()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the quote body for a ticker, loading it from Finnhub on a miss.
+     *
+     * @param ticker stock ticker symbol
+     * @return quote body (Finnhub quote map)
+     */
+    public Map<String, Object> get(String ticker) {
+        return get(ticker, finnhubClient::quote);
+    }
+
+    /**
+     * Same as {@link #get(String)} but returns the cache entry so callers can see when it was fetched.
+     */
+    public CachedQuote getEntry(String ticker) {
+        return getEntry(ticker, finnhubClient::quote);
+    }
+
+    /**
+     * Batch lookup loading misses from Finnhub, see {@link #getAll(Collection, Function)}.
+     */
+    public BatchResult getAll(Collection<String> tickers) {
+        return getAll(tickers, finnhubClient::quote);
+    }
+
+    /**
+     * Batch lookup where every quote is at most {@code maxAgeMillis} old, see {@link #getEntry(String, long)}.
+     */
+    public BatchResult getAll(Collection<String> tickers, long maxAgeMillis) {
+        return getAll(tickers, finnhubClient::quote, maxAgeMillis);
+    }
+
+    /**
+     * Return the quote body for a ticker, loading it through the given loader on a miss.
+     *
+     * @param ticker stock ticker symbol
+     * @param loader upstream fetch used when the cached entry is missing or expired
+     * @return quote body (Finnhub quote map)
+     */
+    public Map<String, Object> get(String ticker, Function<String, Map<String, Object>> loader) {
+        return getEntry(ticker, loader).body();
+    }
+
+    /**
+     * Same as {@link #get(String, Function)} but returns the cache entry so callers can see when it was fetched.
+     */
+    public CachedQuote getEntry(String ticker, Function<String, Map<String, Object>> loader) {
+        return getEntry(ticker, loader, Long.MAX_VALUE);
+    }
+
+    /**
+     * Entry no older than {@code maxAgeMillis}, even when the cache TTL would still serve an older one.
+     * A reload goes through the same single-flight path as a regular miss.
+     *
+     * @param ticker       stock ticker symbol
+     * @param maxAgeMillis largest acceptable age of the quote
+     * @return cache entry fetched at most {@code maxAgeMillis} ago (or by a load already in flight)
+     */
+    public CachedQuote getEntry(String ticker, long maxAgeMillis) {
+        return getEntry(ticker, finnhubClient::quote, maxAgeMillis);
+    }
+
+    private CachedQuote getEntry(String ticker, Function<String, Map<String, Object>> loader, long maxAgeMillis) {
+        String key = normalize(ticker);
+
+        CachedQuote cached = lookup(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && isFresh(cached, now) && now - cached.fetchedAtMillis() <= maxAgeMillis) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        boolean[] fetched = new boolean[1];
+        CachedQuote quote = loads.run(key, () -> {
+            // a load that finished between the lookup above and winning the slot has already stored its entry
+            CachedQuote current = lookup(key);
+            long checkedAt = System.currentTimeMillis();
+            if (current != null && isFresh(current, checkedAt) && checkedAt - current.fetchedAtMillis() <= maxAgeMillis) {
+                hits.incrementAndGet();
+                return current;
+            }
+
+            misses.incrementAndGet();
+            try {
+                Map<String, Object> body = loader.apply(key);
+                if (body == null) {
+                    throw new IllegalStateException("Empty quote response for " + key);
+                }
+                CachedQuote loaded = new CachedQuote(key,
+                        Collections.unmodifiableMap(new LinkedHashMap<>(body)),
+                        System.currentTimeMillis());
+                store(loaded);
+                fetched[0] = true;
+                return loaded;
+            } catch (RuntimeException ex) {
+                loadFailures.incrementAndGet();
+                throw ex;
+            }
+        });
+
+        if (fetched[0]) {
+            publish(quote);
+        }
+        return quote;
+    }
+
+    /**
+     * Return quotes for many tickers at once. Fresh entries are served from the cache and
+     * the remaining tickers are loaded in parallel, so the batch costs roughly one upstream
+     * round-trip instead of one per ticker. Failures are reported per ticker rather than
+     * failing the whole batch.
+     *
+     * @param tickers ticker symbols (duplicates and case are normalized)
+     * @param loader  upstream fetch used for missing or expired entries
+     * @return quotes that could be loaded plus an error message for every ticker that could not
+     */
+    public BatchResult getAll(Collection<String> tickers, Function<String, Map<String, Object>> loader) {
+        return getAll(tickers, loader, Long.MAX_VALUE);
+    }
+
+    private BatchResult getAll(Collection<String> tickers, Function<String, Map<String, Object>> loader,
+                               long maxAgeMillis) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String ticker : tickers) {
+            if (ticker != null && !ticker.isBlank()) {
+                keys.add(normalize(ticker));
+            }
+        }
+
+        Map<String, CachedQuote> quotes = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        Map<String, CompletableFuture<CachedQuote>> pending = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+
+        for (String key : keys) {
+            CachedQuote cached = lookup(key);
+            if (cached != null && isFresh(cached, now) && now - cached.fetchedAtMillis() <= maxAgeMillis) {
+                hits.incrementAndGet();
+                quotes.put(key, cached);
+            } else {
+                pending.put(key, CompletableFuture.supplyAsync(() -> loadWithPermit(key, loader, maxAgeMillis),
+                        batchExecutor));
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                        .get(batchTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException ex) {
+                // individual futures are inspected below
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            for (Map.Entry<String, CompletableFuture<CachedQuote>> entry : pending.entrySet()) {
+                CompletableFuture<CachedQuote> future = entry.getValue();
+                if (!future.isDone()) {
+                    errors.put(entry.getKey(), "Timed out waiting for quote");
+                } else if (future.isCompletedExceptionally()) {
+                    errors.put(entry.getKey(), describe(future));
+                } else {
+                    quotes.put(entry.getKey(), future.join());
+                }
+            }
+        }
+
+        return new BatchResult(quotes, errors);
+    }
+
+    /**
+     * Record a quote obtained outside the pull path (for example pushed by a stream) as if it
+     * had just been loaded, and notify quote listeners.
+     *
+     * @param ticker stock ticker symbol
+     * @param body   quote body (Finnhub quote map)
+     * @return the stored entry
+     */
+    public CachedQuote put(String ticker, Map<String, Object> body) {
+        CachedQuote quote = new CachedQuote(normalize(ticker),
+                Collections.unmodifiableMap(new LinkedHashMap<>(body)),
+                System.currentTimeMillis());
+        store(quote);
+        publish(quote);
+        return quote;
+    }
+
+    /**
+     * Return the cached entry for a ticker without loading it, even if it has expired.
+     *
+     * @param ticker stock ticker symbol
+     * @return cached entry or null when the ticker has never been loaded (or was evicted)
+     */
+    public CachedQuote peek(String ticker) {
+        return lookup(normalize(ticker));
+    }
+
+    /**
+     * Counters describing cache effectiveness, exposed through the stock stats endpoint.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("coalesced", loads.coalesced());
+        stats.put("loadFailures", loadFailures.get());
+        stats.put("evictions", evictions.get());
+        stats.put("inFlight", loads.size());
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("defaultTtlMs", defaultTtlMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    // Listeners run on the loading thread after waiters have been released and the entry is visible
+    private void publish(CachedQuote quote) {
+        Double price = quote.currentPrice();
+        if (price != null && price > 0) {
+            eventPublisher.publishEvent(new QuoteUpdatedEvent(quote.ticker(), price, quote.fetchedAtMillis()));
+        }
+    }
+
+    // Bounds how many upstream loads a batch may have open at once so a large batch cannot
+    // burst past the provider's rate limit
+    private CachedQuote loadWithPermit(String key, Function<String, Map<String, Object>> loader, long maxAgeMillis) {
+        try {
+            batchPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to load " + key, ex);
+        }
+        try {
+            return getEntry(key, loader, maxAgeMillis);
+        } finally {
+            batchPermits.release();
+        }
+    }
+
+    private static String describe(CompletableFuture<CachedQuote> future) {
+        try {
+            future.join();
+            return "Unknown error";
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        }
+    }
+
+    private CachedQuote lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void store(CachedQuote quote) {
+        synchronized (entries) {
+            entries.put(quote.ticker(), quote);
+        }
+    }
+
+    private boolean isFresh(CachedQuote quote, long now) {
+        long ttl = symbolTtlMillis.getOrDefault(quote.ticker(), defaultTtlMillis);
+        return now - quote.fetchedAtMillis() < ttl;
+    }
+
+    private static String normalize(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+
+    /**
+     * Immutable cache entry: the upstream quote body and the time it was fetched.
+     */
+    public record CachedQuote(String ticker, Map<String, Object> body, long fetchedAtMillis) {
+
+        // Finnhub "c" field holds the current price
+        public Double currentPrice() {
+            Object current = body.get("c");
+            return current instanceof Number n ? n.doubleValue() : null;
+        }
+    }
+
+    /**
+     * Result of a batch lookup: the quotes that were loaded and per-ticker error messages.
+     */
+    public record BatchResult(Map<String, CachedQuote> quotes, Map<String, String> errors) {
+
+        // Ticker -> current price for every quote that carried one
+        public Map<String, Double> prices() {
+            Map<String, Double> prices = new HashMap<>();
+            for (CachedQuote quote : quotes.values()) {
+                Double price = quote.currentPrice();
+                if (price != null) {
+                    prices.put(quote.ticker(), price);
+                }
+            }
+            return prices;
+        }
+
+        // Ticker -> raw quote body, in the shape the quote endpoint returns
+        public Map<String, Map<String, Object>> bodies() {
+            Map<String, Map<String, Object>> bodies = new LinkedHashMap<>();
+            quotes.forEach((ticker, quote) -> bodies.put(ticker, quote.body()));
+            return bodies;
+        }
+    }
+}
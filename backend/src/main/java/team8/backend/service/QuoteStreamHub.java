@@ -0,0 +1,252 @@
+package team8.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out hub behind the quote stream. Clients subscribe to a set of tickers and receive
+ * price ticks as server-sent events. One shared poller refreshes the distinct subscribed
+ * tickers through the quote cache, so a ticker costs one upstream load per TTL no matter
+ * how many clients watch it; every fresh quote arrives here as a {@link QuoteUpdatedEvent}.
+ * Each client keeps only the latest price per ticker until its sender catches up, and a
+ * client whose send has been blocked longer than the send timeout is dropped.
+ */
+@Service
+public class QuoteStreamHub {
+
+    private final QuoteCacheService quoteCacheService;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutMillis;
+
+    // upper-case ticker -> clients watching it; a ticker is polled while its set is non-empty
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> clients = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // a client blocked on a slow socket holds only its own virtual thread
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public QuoteStreamHub(
+            QuoteCacheService quoteCacheService,
+            @Value("${quote.stream.max-subscribers:1000}") int maxSubscribers,
+            @Value("${quote.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+            @Value("${quote.stream.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.quoteCacheService = quoteCacheService;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    /**
+     * Open a stream for the given tickers. Prices already in the cache are sent right away,
+     * the rest follow on the next poll.
+     *
+     * @throws IllegalArgumentException when no ticker is given
+     * @throws IllegalStateException    when the hub is at its subscriber limit
+     */
+    public SseEmitter subscribe(Collection<String> tickers) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String ticker : tickers) {
+            if (ticker != null && !ticker.isBlank()) {
+                keys.add(ticker.trim().toUpperCase());
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Missing query parameter: provide tickers");
+        }
+        if (clients.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many quote streams open");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, keys);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        clients.add(subscriber);
+        for (String key : keys) {
+            // added inside compute so a concurrent unsubscribe cannot discard the set in between
+            subscribers.compute(key, (k, watching) -> {
+                Set<Subscriber> set = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+            QuoteCacheService.CachedQuote cached = quoteCacheService.peek(key);
+            Double price = cached != null ? cached.currentPrice() : null;
+            if (price != null && price > 0) {
+                subscriber.offer(new QuoteUpdatedEvent(key, price, cached.fetchedAtMillis()));
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Push a price tick to every client watching the ticker.
+     */
+    @EventListener
+    public void onQuoteUpdated(QuoteUpdatedEvent event) {
+        Set<Subscriber> watching = subscribers.get(event.ticker().toUpperCase());
+        if (watching == null) return;
+        for (Subscriber subscriber : watching) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Refresh the distinct subscribed tickers through the cache, drop clients whose sends have stalled
+     * and ping idle ones, so a closed connection is noticed even when its tickers are quiet.
+     * Only expired entries reach upstream, and concurrent loads of one ticker are coalesced by the cache.
+     */
+    @Scheduled(fixedDelayString = "${quote.stream.poll-ms:5000}",
+               initialDelayString = "${quote.stream.poll-ms:5000}")
+    public void poll() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : clients) {
+            if (subscriber.stalledSince(now) > sendTimeoutMillis) {
+                drop(subscriber);
+            } else {
+                subscriber.ping();
+            }
+        }
+        List<String> tickers = new ArrayList<>(subscribers.keySet());
+        if (!tickers.isEmpty()) {
+            quoteCacheService.getAll(tickers);
+        }
+    }
+
+    /**
+     * Counters for the stream stats endpoint.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", clients.size());
+        stats.put("tickers", subscribers.size());
+        stats.put("delivered", delivered.get());
+        stats.put("conflated", conflated.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(subscriber -> subscriber.emitter.complete());
+        sendExecutor.shutdownNow();
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (!clients.contains(subscriber)) return;
+        dropped.incrementAndGet();
+        unsubscribe(subscriber);
+        // the blocked send fails once the container gives up on the socket
+        sendExecutor.execute(subscriber.emitter::complete);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!clients.remove(subscriber)) return;
+        for (String key : subscriber.tickers) {
+            subscribers.computeIfPresent(key, (k, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+    }
+
+    /**
+     * One open stream. Ticks are conflated into {@code pending} and written by at most one
+     * sender task at a time, so a slow client never queues more than one price per ticker.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<String> tickers;
+
+        // ticker -> latest tick not yet sent
+        private final Map<String, QuoteUpdatedEvent> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // start of the send in progress, 0 when idle
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, Set<String> tickers) {
+            this.emitter = emitter;
+            this.tickers = tickers;
+        }
+
+        private void offer(QuoteUpdatedEvent event) {
+            QuoteUpdatedEvent replaced = pending.put(event.ticker().toUpperCase(), event);
+            if (replaced != null) {
+                conflated.incrementAndGet();
+            }
+            if (sending.compareAndSet(false, true)) {
+                sendExecutor.execute(() -> flush(false));
+            }
+        }
+
+        // a busy sender already proves the connection is in use
+        private void ping() {
+            if (sending.compareAndSet(false, true)) {
+                sendExecutor.execute(() -> flush(true));
+            }
+        }
+
+        private void flush(boolean ping) {
+            boolean heartbeat = ping;
+            do {
+                try {
+                    Map<String, Map<String, Object>> batch = new LinkedHashMap<>();
+                    for (String ticker : new ArrayList<>(pending.keySet())) {
+                        QuoteUpdatedEvent event = pending.remove(ticker);
+                        if (event != null) {
+                            batch.put(ticker, Map.of("c", event.price(), "t", event.fetchedAtMillis()));
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        sendStartedAt = System.currentTimeMillis();
+                        emitter.send(SseEmitter.event().name("quotes").data(batch));
+                        delivered.addAndGet(batch.size());
+                    } else if (heartbeat) {
+                        sendStartedAt = System.currentTimeMillis();
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    // client went away or the emitter was completed
+                    unsubscribe(this);
+                    pending.clear();
+                    return;
+                } finally {
+                    sendStartedAt = 0L;
+                    sending.set(false);
+                }
+                // a tick that arrived after the batch was taken found the sender busy
+                heartbeat = false;
+            } while (!pending.isEmpty() && sending.compareAndSet(false, true));
+        }
+
+        private long stalledSince(long now) {
+            long started = sendStartedAt;
+            return started == 0L ? 0L : now - started;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package team8.backend.service;
+
+/**
+ * Published whenever a fresh quote is loaded from upstream, so components that
+ * value positions (leaderboards, order triggers, streams) can react to price ticks.
+ *
+ * @param ticker          upper-case ticker symbol
+ * @param price           current price reported by the quote
+ * @param fetchedAtMillis time the quote was fetched
+ */
+public record QuoteUpdatedEvent(String ticker, double price, long fetchedAtMillis) {}
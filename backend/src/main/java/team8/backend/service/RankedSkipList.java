@@ -0,0 +1,190 @@
+package team8.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list of (id, score) pairs ordered by score descending, then id ascending.
+ * Every forward pointer stores how many nodes it skips (its span), which makes
+ * rank lookups and "n-th element" lookups O(log n) in addition to insert/remove.
+ * Not thread-safe: callers synchronize externally.
+ */
+public final class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(0L, 0.0, MAX_LEVEL);
+    private int level = 1;
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert an entry. The caller must ensure the same (id, score) pair is not already present.
+     */
+    public void insert(long id, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], id, score)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node node = new Node(id, score, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+
+            // split the span of the predecessor around the new node
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        // levels above the new node now skip one more element
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @return true when the entry was present
+     */
+    public boolean remove(long id, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], id, score)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        Node target = x.next[0];
+        if (target == null || target.id != id || Double.compare(target.score, score) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * 1-based rank of an entry, or 0 when the entry is not present.
+     */
+    public int rank(long id, double score) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (before(x.next[i], id, score) || matches(x.next[i], id, score))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && matches(x, id, score)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Entries with 1-based ranks in [fromRank, fromRank + limit), in rank order.
+     */
+    public List<Entry> range(int fromRank, int limit) {
+        List<Entry> result = new ArrayList<>();
+        if (fromRank < 1 || fromRank > size || limit <= 0) {
+            return result;
+        }
+
+        // descend to the node at fromRank, then walk the bottom level
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= fromRank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == fromRank) {
+                break;
+            }
+        }
+
+        while (x != null && result.size() < limit) {
+            result.add(new Entry(x.id, x.score));
+            x = x.next[0];
+        }
+        return result;
+    }
+
+    // true when node sorts strictly before (id, score)
+    private static boolean before(Node node, long id, double score) {
+        int cmp = Double.compare(score, node.score);
+        return cmp < 0 || (cmp == 0 && node.id < id);
+    }
+
+    private static boolean matches(Node node, long id, double score) {
+        return node.id == id && Double.compare(node.score, score) == 0;
+    }
+
+    private static int randomLevel() {
+        int lvl = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (lvl < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            lvl++;
+        }
+        return lvl;
+    }
+
+    /**
+     * Immutable view of one ranked element.
+     */
+    public record Entry(long id, double score) {}
+
+    private static final class Node {
+        final long id;
+        final double score;
+        final Node[] next;
+        final int[] span;
+
+        Node(long id, double score, int levels) {
+            this.id = id;
+            this.score = score;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package team8.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load, callers that
+ * arrive while it is running wait for its result (or its exception) instead of starting another.
+ * A key is released as soon as its load finishes, so a later call loads again.
+ */
+final class SingleFlight<K, V> {
+
+    // one future per key currently being loaded
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Run the load for a key, or wait for the one already running.
+     *
+     * @return the value of whichever load ran
+     * @throws RuntimeException the exception of that load, rethrown as is
+     */
+    V run(K key, Supplier<V> load) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) throw cause;
+                throw ex;
+            }
+        }
+
+        try {
+            V value = load.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    boolean isRunning(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    /**
+     * Number of loads running right now.
+     */
+    int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Number of calls so far that waited for another caller's load.
+     */
+    long coalesced() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,336 @@
+package team8.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-process index of US ticker symbols for the search bar, answering typeahead without an
+ * upstream call. The symbol list is fetched from Finnhub at most once per refresh interval and
+ * kept on disk as a tab-separated snapshot (symbol, display symbol, description, type), so a
+ * restart loads it from disk instead of upstream.
+ *
+ * The index is immutable and swapped as a whole on refresh. Prefix lookups are binary searches
+ * over two sorted key arrays: the symbols themselves, and every word of every company name.
+ * Matches rank as exact symbol, symbol prefix, name prefix, then name word prefix; within a
+ * tier common stock comes first, then shorter symbols.
+ */
+@Service
+public class SymbolIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolIndex.class);
+
+    private static final String SNAPSHOT = "US.tsv";
+    private static final String COMMON_STOCK = "Common Stock";
+
+    private final FinnhubClient finnhubClient;
+    private final Path directory;
+    private final long refreshMillis;
+
+    private volatile Index index = Index.build(List.of());
+
+    public SymbolIndex(FinnhubClient finnhubClient,
+                       @Value("${symbols.dir:data/symbols}") String directory,
+                       @Value("${symbols.refresh-ms:86400000}") long refreshMillis) {
+        this.finnhubClient = finnhubClient;
+        this.directory = Paths.get(directory);
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * Load the snapshot left on disk by a previous run, if any.
+     */
+    @PostConstruct
+    public void load() {
+        Path file = directory.resolve(SNAPSHOT);
+        if (!Files.exists(file)) return;
+        try {
+            index = Index.build(read(file));
+        } catch (IOException | UncheckedIOException ex) {
+            // an unreadable snapshot is replaced on the next refresh
+            log.warn("Could not read symbol snapshot {}", file, ex);
+        }
+    }
+
+    /**
+     * Re-fetch the symbol list when the snapshot on disk is missing or older than the refresh interval.
+     * A failed fetch keeps the current index.
+     */
+    @Scheduled(fixedDelayString = "${symbols.check-ms:3600000}",
+               initialDelayString = "${symbols.initial-delay-ms:10000}")
+    public void refresh() {
+        Path file = directory.resolve(SNAPSHOT);
+        try {
+            if (Files.exists(file)
+                    && System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() < refreshMillis
+                    && index.size() > 0) {
+                return;
+            }
+            ResponseEntity<List<Map<String, Object>>> response = finnhubClient.get("/stock/symbol",
+                    b -> b.queryParam("exchange", "US"),
+                    new ParameterizedTypeReference<List<Map<String, Object>>>() {});
+            if (!response.getStatusCode().equals(HttpStatus.OK) || response.getBody() == null
+                    || response.getBody().isEmpty()) {
+                return;
+            }
+
+            List<Symbol> symbols = new ArrayList<>();
+            for (Map<String, Object> row : response.getBody()) {
+                String symbol = field(row, "symbol");
+                if (symbol.isEmpty()) continue;
+                String display = field(row, "displaySymbol");
+                symbols.add(new Symbol(symbol, display.isEmpty() ? symbol : display,
+                        field(row, "description"), field(row, "type")));
+            }
+            write(file, symbols);
+            index = Index.build(symbols);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not refresh symbol list: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Best matches for a typeahead query, shaped like Finnhub /search results
+     * (description, displaySymbol, symbol, type). Empty when the query has no match or the
+     * index is not loaded yet.
+     */
+    public List<Map<String, Object>> search(String query, int limit) {
+        return index.search(query, limit).stream().map(Symbol::toMap).toList();
+    }
+
+    /**
+     * The entry whose symbol or display symbol equals the query, ignoring case.
+     *
+     * @return the entry shaped like a Finnhub /search result, or null when there is none
+     */
+    public Map<String, Object> exact(String query) {
+        Symbol symbol = index.exact(query);
+        return symbol != null ? symbol.toMap() : null;
+    }
+
+    /**
+     * Number of indexed symbols.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    private void write(Path file, List<Symbol> symbols) throws IOException {
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, SNAPSHOT, ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Symbol symbol : symbols) {
+                out.write(symbol.symbol() + '\t' + symbol.displaySymbol() + '\t' + symbol.description() + '\t'
+                        + symbol.type());
+                out.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<Symbol> read(Path file) throws IOException {
+        List<Symbol> symbols = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                if (parts.length == 4 && !parts[0].isEmpty()) {
+                    symbols.add(new Symbol(parts[0], parts[1], parts[2], parts[3]));
+                }
+            }
+        }
+        return symbols;
+    }
+
+    // tabs and line breaks would corrupt the snapshot
+    private static String field(Map<String, Object> row, String key) {
+        Object value = row.get(key);
+        return value == null ? "" : value.toString().replaceAll("[\\t\\r\\n]+", " ").trim();
+    }
+
+    /**
+     * One listed symbol.
+     */
+    public record Symbol(String symbol, String displaySymbol, String description, String type) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("description", description);
+            map.put("displaySymbol", displaySymbol);
+            map.put("symbol", symbol);
+            map.put("type", type);
+            return map;
+        }
+    }
+
+    /**
+     * Immutable lookup structure over one symbol list.
+     */
+    static final class Index {
+
+        private static final int EXACT = 0;
+        private static final int SYMBOL_PREFIX = 1;
+        private static final int NAME_PREFIX = 2;
+        private static final int WORD_PREFIX = 3;
+
+        // entries sorted by upper-case symbol; symbolKeys[i] is the key of symbols[i]
+        private final Symbol[] symbols;
+        private final String[] symbolKeys;
+        private final String[] names;
+        // every name word with the entry it came from, sorted by word
+        private final String[] wordKeys;
+        private final int[] wordEntries;
+        private final Map<String, Integer> byDisplaySymbol;
+
+        private Index(Symbol[] symbols, String[] symbolKeys, String[] names, String[] wordKeys, int[] wordEntries,
+                      Map<String, Integer> byDisplaySymbol) {
+            this.symbols = symbols;
+            this.symbolKeys = symbolKeys;
+            this.names = names;
+            this.wordKeys = wordKeys;
+            this.wordEntries = wordEntries;
+            this.byDisplaySymbol = byDisplaySymbol;
+        }
+
+        static Index build(List<Symbol> list) {
+            Symbol[] symbols = list.stream()
+                    .sorted(Comparator.comparing(s -> s.symbol().toUpperCase()))
+                    .toArray(Symbol[]::new);
+            String[] symbolKeys = new String[symbols.length];
+            String[] names = new String[symbols.length];
+            Map<String, Integer> byDisplaySymbol = new HashMap<>();
+            List<String> words = new ArrayList<>();
+            List<Integer> entries = new ArrayList<>();
+            for (int i = 0; i < symbols.length; i++) {
+                symbolKeys[i] = symbols[i].symbol().toUpperCase();
+                names[i] = symbols[i].description().toUpperCase();
+                byDisplaySymbol.putIfAbsent(symbols[i].displaySymbol().toUpperCase(), i);
+                for (String word : words(names[i])) {
+                    words.add(word);
+                    entries.add(i);
+                }
+            }
+
+            Integer[] order = new Integer[words.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(words::get));
+            String[] wordKeys = new String[order.length];
+            int[] wordEntries = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                wordKeys[i] = words.get(order[i]);
+                wordEntries[i] = entries.get(order[i]);
+            }
+            return new Index(symbols, symbolKeys, names, wordKeys, wordEntries, byDisplaySymbol);
+        }
+
+        int size() {
+            return symbols.length;
+        }
+
+        Symbol exact(String query) {
+            if (query == null) return null;
+            String key = query.trim().toUpperCase();
+            int at = lowerBound(symbolKeys, key);
+            if (at < symbolKeys.length && symbolKeys[at].equals(key)) return symbols[at];
+            Integer display = byDisplaySymbol.get(key);
+            return display != null ? symbols[display] : null;
+        }
+
+        List<Symbol> search(String query, int limit) {
+            if (query == null || limit <= 0) return List.of();
+            String key = query.trim().toUpperCase();
+            if (key.isEmpty()) return List.of();
+
+            // entry -> best tier it matched in
+            Map<Integer, Integer> tiers = new HashMap<>();
+            int from = lowerBound(symbolKeys, key);
+            int to = lowerBound(symbolKeys, key + Character.MAX_VALUE);
+            for (int i = from; i < to; i++) {
+                tiers.put(i, symbolKeys[i].equals(key) ? EXACT : SYMBOL_PREFIX);
+            }
+
+            // candidates come from the first query word, the others must prefix some word of the same name
+            List<String> queryWords = words(key);
+            if (!queryWords.isEmpty()) {
+                String first = queryWords.get(0);
+                from = lowerBound(wordKeys, first);
+                to = lowerBound(wordKeys, first + Character.MAX_VALUE);
+                for (int i = from; i < to; i++) {
+                    int entry = wordEntries[i];
+                    if (tiers.containsKey(entry) || !containsWordPrefixes(names[entry], queryWords)) continue;
+                    tiers.put(entry, names[entry].startsWith(key) ? NAME_PREFIX : WORD_PREFIX);
+                }
+            }
+
+            // keep the best `limit` entries; the head of the queue is the worst one kept
+            Comparator<Integer> rank = Comparator.<Integer>comparingInt(tiers::get)
+                    .thenComparingInt(i -> COMMON_STOCK.equals(symbols[i].type()) ? 0 : 1)
+                    .thenComparingInt(i -> symbolKeys[i].length())
+                    .thenComparing(i -> symbolKeys[i]);
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, rank.reversed());
+            for (Integer entry : tiers.keySet()) {
+                best.add(entry);
+                if (best.size() > limit) best.poll();
+            }
+            List<Integer> ranked = new ArrayList<>(best);
+            ranked.sort(rank);
+            return ranked.stream().map(i -> symbols[i]).toList();
+        }
+
+        private static boolean containsWordPrefixes(String name, List<String> queryWords) {
+            if (queryWords.size() == 1) return true;
+            List<String> nameWords = words(name);
+            for (String queryWord : queryWords) {
+                if (nameWords.stream().noneMatch(word -> word.startsWith(queryWord))) return false;
+            }
+            return true;
+        }
+
+        private static List<String> words(String upper) {
+            List<String> words = new ArrayList<>();
+            for (String word : upper.split("[^A-Z0-9]+")) {
+                if (!word.isEmpty()) words.add(word);
+            }
+            return words;
+        }
+
+        // first index whose key is >= the given key
+        private static int lowerBound(String[] keys, String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package team8.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team8.backend.dto.HoldingDTO;
+import team8.backend.dto.TradeResultDTO;
+import team8.backend.dto.TransactionDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Micros;
+import team8.backend.entity.TradeLedgerRejection;
+import team8.backend.entity.TradeLedgerWatermark;
+import team8.backend.entity.Transaction;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.TradeLedgerRejectionRepository;
+import team8.backend.repository.TradeLedgerWatermarkRepository;
+import team8.backend.repository.TransactionRepository;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only trade ledger with write-behind (enabled by trade.ledger.enabled).
+ * A trade is validated against an in-memory copy of the account, appended to the
+ * {@link TradeLedgerWal} and acknowledged; a single background writer then applies the
+ * acknowledged trades to the database in batches. Batches commit in sequence order, each
+ * together with the {@link TradeLedgerWatermark} it advances, so on startup the log is replayed
+ * from exactly the first entry not yet applied and replaying twice is harmless.
+ *
+ * An entry that can no longer be applied (its position or cash changed outside the ledger) is
+ * recorded as a {@link TradeLedgerRejection} in the same transaction as the watermark, and the
+ * account's in-memory copy is reloaded before its next trade. A batch that fails for a transient
+ * reason (database unavailable) is retried up to trade.ledger.max-attempts times; after that the
+ * ledger parks: the batch stays in the log for the next start, and trades and drains are refused.
+ *
+ * The in-memory copy of an account is authoritative while it has trades waiting to be written.
+ * Anything else that changes an account's cash or holdings (basket trades, order fills,
+ * deletion) must call {@link #drain(Long)} under the account lock first, which waits for the
+ * writer and drops the copy so the next ledger trade reloads the account from the database.
+ */
+@Service
+public class TradeLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(TradeLedgerService.class);
+
+    private final AccountRepository accountRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final TradeLedgerWatermarkRepository watermarkRepository;
+    private final TradeLedgerRejectionRepository rejectionRepository;
+    private final HoldingService holdingService;
+    private final LeaderboardService leaderboardService;
+    private final DashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean syncOnAppend;
+    private final int batchSize;
+    private final long drainTimeoutMillis;
+    private final int maxAttempts;
+
+    private TradeLedgerWal wal;
+    private long nextSeq;
+    // guards wal and nextSeq, so the queue holds entries in sequence order
+    private final Object appendLock = new Object();
+    private final BlockingQueue<TradeLedgerWal.Entry> queue = new LinkedBlockingQueue<>();
+
+    // account id -> in-memory copy; cash and positions are only touched under the account lock,
+    // pending only under the state's own monitor
+    private final Map<Long, AccountState> states = new ConcurrentHashMap<>();
+
+    private Thread writer;
+    private volatile boolean running;
+    // why the writer gave up on a batch; once set, trades and drains are refused until restart
+    private volatile String parked;
+
+    public TradeLedgerService(AccountRepository accountRepository,
+                              HoldingRepository holdingRepository,
+                              TransactionRepository transactionRepository,
+                              TradeLedgerWatermarkRepository watermarkRepository,
+                              TradeLedgerRejectionRepository rejectionRepository,
+                              HoldingService holdingService,
+                              LeaderboardService leaderboardService,
+                              DashboardService dashboardService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${trade.ledger.enabled:false}") boolean enabled,
+                              @Value("${trade.ledger.dir:data/ledger}") String directory,
+                              @Value("${trade.ledger.segment-bytes:16777216}") int segmentBytes,
+                              @Value("${trade.ledger.sync-on-append:true}") boolean syncOnAppend,
+                              @Value("${trade.ledger.batch-size:500}") int batchSize,
+                              @Value("${trade.ledger.drain-timeout-ms:5000}") long drainTimeoutMillis,
+                              @Value("${trade.ledger.max-attempts:10}") int maxAttempts) {
+        this.accountRepository = accountRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.holdingService = holdingService;
+        this.leaderboardService = leaderboardService;
+        this.dashboardService = dashboardService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.syncOnAppend = syncOnAppend;
+        this.batchSize = Math.max(1, batchSize);
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Replay what the previous run acknowledged but did not write, then start the writer.
+     * Runs before the web server accepts requests.
+     *
+     * @throws IllegalStateException when the log could not be replayed; the application does not start
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+
+        queue.clear();
+        states.clear();
+        parked = null;
+        wal = new TradeLedgerWal(directory, segmentBytes, syncOnAppend);
+        List<TradeLedgerWal.Entry> logged = wal.recover();
+        long watermark = appliedThrough();
+
+        List<TradeLedgerWal.Entry> unwritten = new ArrayList<>();
+        long lastSeq = watermark;
+        for (TradeLedgerWal.Entry entry : logged) {
+            lastSeq = Math.max(lastSeq, entry.seq());
+            if (entry.seq() > watermark) unwritten.add(entry);
+        }
+        for (int from = 0; from < unwritten.size(); from += batchSize) {
+            List<TradeLedgerWal.Entry> batch = unwritten.subList(from, Math.min(unwritten.size(), from + batchSize));
+            try {
+                if (!writeWithRetries(batch)) {
+                    throw new IllegalStateException("Could not replay the trade ledger: " + parked);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while replaying the trade ledger", ex);
+            }
+        }
+        wal.releaseThrough(lastSeq);
+        nextSeq = lastSeq + 1;
+
+        running = true;
+        writer = new Thread(this::writeLoop, "trade-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validate a trade against the account's in-memory copy, log it and acknowledge it.
+     * Must be called under the account lock. Same rules and messages as TradeService.executeTrade;
+     * the returned transaction has no id yet because its row is written later.
+     *
+     * @return what the trade changed, or empty when the account does not exist
+     * @throws IllegalArgumentException for an invalid action, insufficient cash or insufficient shares
+     * @throws java.io.UncheckedIOException when the trade could not be logged; nothing was changed
+     * @throws IllegalStateException when the ledger is parked, or the account's copy must be reloaded
+     *         and its earlier trades did not reach the database within trade.ledger.drain-timeout-ms
+     */
+    public Optional<TradeResultDTO> submit(Long accountId, String action, String ticker, double shares, double price,
+                                           LocalDateTime quotedAt) {
+        requireNotParked();
+        AccountState state = states.get(accountId);
+        if (state != null && state.stale) {
+            // one of its trades was rejected, so the copy is ahead of the database
+            drain(accountId);
+            state = null;
+        }
+        if (state == null) {
+            state = load(accountId);
+            if (state == null) return Optional.empty();
+            states.put(accountId, state);
+        }
+
+        long sharesMicros = Micros.of(shares);
+        long priceMicros = Micros.of(price);
+        if (sharesMicros <= 0 || priceMicros <= 0) {
+            throw new IllegalArgumentException("Shares and price must be at least 0.000001.");
+        }
+        long totalValue = Micros.multiply(sharesMicros, priceMicros);
+        boolean buy = action.equalsIgnoreCase("buy");
+        long[] position = state.positions.get(ticker);
+
+        if (buy) {
+            if (state.cashMicros < totalValue) {
+                throw new IllegalArgumentException("Not enough cash to complete purchase.");
+            }
+        } else if (action.equalsIgnoreCase("sell")) {
+            if (position == null) {
+                throw new IllegalArgumentException("Cannot sell shares — holding not found for " + ticker);
+            }
+            if (position[0] < sharesMicros) {
+                throw new IllegalArgumentException("Not enough shares to sell for " + ticker);
+            }
+        } else {
+            throw new IllegalArgumentException("Invalid action type. Must be 'buy' or 'sell'.");
+        }
+
+        long now = System.currentTimeMillis();
+        long quotedAtMillis = quotedAt != null ? quotedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+        synchronized (state) {
+            state.pending++;
+        }
+        try {
+            synchronized (appendLock) {
+                TradeLedgerWal.Entry entry = new TradeLedgerWal.Entry(nextSeq, accountId, buy, ticker,
+                        sharesMicros, priceMicros, quotedAtMillis, now);
+                wal.append(entry);
+                nextSeq++;
+                queue.add(entry);
+            }
+        } catch (RuntimeException ex) {
+            markWritten(state);
+            throw ex;
+        }
+
+        // the trade is durable from here on; mirror it in the in-memory copy
+        if (buy) {
+            state.cashMicros -= totalValue;
+            if (position == null) {
+                state.positions.put(ticker, new long[] {sharesMicros, priceMicros});
+            } else {
+                long totalCost = Micros.multiply(position[1], position[0]) + Micros.multiply(priceMicros, sharesMicros);
+                position[0] += sharesMicros;
+                position[1] = Micros.divide(totalCost, position[0]);
+            }
+        } else {
+            state.cashMicros += totalValue;
+            position[0] -= sharesMicros;
+            if (position[0] == 0) state.positions.remove(ticker);
+        }
+
+        long[] after = state.positions.get(ticker);
+        HoldingDTO holding = after == null ? null
+                : new HoldingDTO(null, ticker, Micros.toDouble(after[0]), Micros.toDouble(after[1]), accountId);
+        TransactionDTO transaction = new TransactionDTO(null, accountId, action.toLowerCase(), ticker, shares, price,
+                toLocalDateTime(now));
+        transaction.setQuotedAt(quotedAt);
+        return Optional.of(new TradeResultDTO(accountId, Micros.toDouble(state.cashMicros), holding, transaction));
+    }
+
+    /**
+     * Wait until every ledger trade of the account is in the database and drop its in-memory copy.
+     * Call under the account lock before changing the account's cash or holdings any other way.
+     * A no-op when the ledger is disabled.
+     *
+     * @throws IllegalStateException when the writer did not catch up within trade.ledger.drain-timeout-ms
+     *         or the ledger is parked
+     */
+    public void drain(Long accountId) {
+        AccountState state = states.get(accountId);
+        if (state == null) return;
+
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        synchronized (state) {
+            while (state.pending > 0) {
+                requireNotParked();
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) {
+                    throw new IllegalStateException("Trades are still being recorded for this account, please retry.");
+                }
+                try {
+                    state.wait(wait);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the trade ledger", ex);
+                }
+            }
+        }
+        states.remove(accountId, state);
+    }
+
+    /**
+     * Stop the writer after its current batch. Whatever is still queued stays in the log and is
+     * written on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) return;
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(drainTimeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (appendLock) {
+            wal.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<TradeLedgerWal.Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                TradeLedgerWal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                if (!writeWithRetries(batch)) {
+                    wakeAll();
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write a batch, retrying transient failures with backoff. Gives up after trade.ledger.max-attempts,
+     * parking the ledger; the batch and everything after it stay in the log for the next start.
+     *
+     * @return whether the batch was written
+     */
+    private boolean writeWithRetries(List<TradeLedgerWal.Entry> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeBatch(batch);
+                return true;
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts) {
+                    parked = "batch " + batch.get(0).seq() + ".." + batch.get(batch.size() - 1).seq()
+                            + " failed " + attempt + " times: " + ex;
+                    log.error("Trade ledger parked, trades are refused until restart: {}", parked, ex);
+                    return false;
+                }
+                log.warn("Trade ledger batch {}..{} failed (attempt {} of {}), retrying",
+                        batch.get(0).seq(), batch.get(batch.size() - 1).seq(), attempt, maxAttempts, ex);
+                Thread.sleep(Math.min(5_000L, 50L << Math.min(attempt, 10)));
+            }
+        }
+    }
+
+    /**
+     * Apply the entries of a batch that are past the watermark. An entry that fails permanently is
+     * rejected and the others are still written, one by one.
+     *
+     * @throws RuntimeException for a transient failure; the watermark has not moved past the failed entry
+     */
+    private void writeBatch(List<TradeLedgerWal.Entry> batch) {
+        // a retried batch may have been partly written one by one below
+        long watermark = appliedThrough();
+        List<TradeLedgerWal.Entry> unwritten = batch.stream()
+                .filter(entry -> entry.seq() > watermark)
+                .toList();
+        try {
+            if (!unwritten.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    apply(unwritten);
+                    advance(unwritten.get(unwritten.size() - 1).seq());
+                });
+            }
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) throw ex;
+            for (TradeLedgerWal.Entry entry : unwritten) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        apply(List.of(entry));
+                        advance(entry.seq());
+                    });
+                } catch (RuntimeException rejected) {
+                    if (isTransient(rejected)) throw rejected;
+                    reject(entry, rejected);
+                }
+            }
+        }
+
+        long lastSeq = batch.get(batch.size() - 1).seq();
+        for (TradeLedgerWal.Entry entry : batch) {
+            AccountState state = states.get(entry.accountId());
+            if (state != null) markWritten(state);
+        }
+        if (wal != null) {
+            synchronized (appendLock) {
+                wal.releaseThrough(lastSeq);
+            }
+        }
+    }
+
+    // Records an acknowledged entry that cannot be applied, and advances the watermark past it
+    private void reject(TradeLedgerWal.Entry entry, RuntimeException cause) {
+        String reason = String.valueOf(cause.getMessage());
+        transactionTemplate.executeWithoutResult(status -> {
+            rejectionRepository.save(new TradeLedgerRejection(entry.seq(), entry.accountId(),
+                    entry.buy() ? "buy" : "sell", entry.ticker(), entry.sharesMicros(), entry.priceMicros(),
+                    toLocalDateTime(entry.createdAtMillis()), LocalDateTime.now(),
+                    reason.length() > 1000 ? reason.substring(0, 1000) : reason));
+            advance(entry.seq());
+        });
+        log.error("Acknowledged trade {} on account {} ({} {} {}) could not be applied and was recorded as rejected: {}",
+                entry.seq(), entry.accountId(), entry.buy() ? "buy" : "sell", Micros.toDouble(entry.sharesMicros()),
+                entry.ticker(), reason);
+        AccountState state = states.get(entry.accountId());
+        if (state != null) state.stale = true;
+    }
+
+    // The sequence number every entry up to which has been applied. Before the watermark row
+    // existed, the highest written sequence number was the only record of it
+    private long appliedThrough() {
+        return watermarkRepository.findById(TradeLedgerWatermark.ID)
+                .map(TradeLedgerWatermark::getAppliedThrough)
+                .orElseGet(() -> {
+                    Long written = transactionRepository.findMaxLedgerSeq();
+                    return written != null ? written : 0L;
+                });
+    }
+
+    // Must run in the transaction that applied the entries up to seq
+    private void advance(long seq) {
+        TradeLedgerWatermark watermark = watermarkRepository.findById(TradeLedgerWatermark.ID)
+                .orElseGet(() -> new TradeLedgerWatermark(0L));
+        watermark.setAppliedThrough(seq);
+        watermarkRepository.save(watermark);
+    }
+
+    // Connection loss, lock timeouts and the like; anything else fails the same way on every attempt
+    private static boolean isTransient(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof RecoverableDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof CannotCreateTransactionException;
+    }
+
+    private void requireNotParked() {
+        if (parked != null) {
+            throw new IllegalStateException("Trades cannot be recorded right now, please retry later.");
+        }
+    }
+
+    // Wakes drains waiting on a parked writer, so they fail at once instead of timing out
+    private void wakeAll() {
+        for (AccountState state : states.values()) {
+            synchronized (state) {
+                state.notifyAll();
+            }
+        }
+    }
+
+    // one database transaction: accounts and holdings read once, changes written in batches
+    private void apply(List<TradeLedgerWal.Entry> batch) {
+        Map<Long, List<TradeLedgerWal.Entry>> byAccount = new LinkedHashMap<>();
+        for (TradeLedgerWal.Entry entry : batch) {
+            byAccount.computeIfAbsent(entry.accountId(), k -> new ArrayList<>()).add(entry);
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        accountRepository.findAllById(byAccount.keySet()).forEach(a -> accounts.put(a.getId(), a));
+
+        List<Transaction> txs = new ArrayList<>(batch.size());
+        for (Map.Entry<Long, List<TradeLedgerWal.Entry>> group : byAccount.entrySet()) {
+            Account account = accounts.get(group.getKey());
+            // the account was deleted after these trades were acknowledged
+            if (account == null) continue;
+
+            List<HoldingService.PositionChange> changes = new ArrayList<>();
+            long cash = account.getCashMicros();
+            for (TradeLedgerWal.Entry entry : group.getValue()) {
+                long value = Micros.multiply(entry.sharesMicros(), entry.priceMicros());
+                if (entry.buy()) {
+                    if (cash < value) {
+                        throw new IllegalArgumentException("Not enough cash to complete purchase.");
+                    }
+                    cash -= value;
+                } else {
+                    cash += value;
+                }
+                changes.add(new HoldingService.PositionChange(entry.ticker(),
+                        entry.buy() ? entry.sharesMicros() : -entry.sharesMicros(), entry.priceMicros()));
+
+                Transaction tx = new Transaction(account, entry.buy() ? "buy" : "sell", entry.ticker(),
+                        0, 0, toLocalDateTime(entry.createdAtMillis()));
+                tx.setSharesMicros(entry.sharesMicros());
+                tx.setPriceMicros(entry.priceMicros());
+                tx.setQuotedAt(entry.quotedAtMillis() >= 0 ? toLocalDateTime(entry.quotedAtMillis()) : null);
+                tx.setLedgerSeq(entry.seq());
+                account.addTransaction(tx);
+                txs.add(tx);
+            }
+            holdingService.applyChanges(account, changes);
+            account.setCashMicros(cash);
+        }
+
+        transactionRepository.saveAll(txs);
+        accountRepository.flush();
+        for (Transaction tx : txs) {
+            double shares = Micros.toDouble(tx.getSharesMicros());
+            leaderboardService.recordTrade(tx.getAccount(), tx.getStockTicker(),
+                    "buy".equals(tx.getAction()) ? shares : -shares, tx.getPrice());
+        }
+        for (Account account : accounts.values()) {
+            dashboardService.invalidate(account.getUser().getId());
+        }
+    }
+
+    private AccountState load(Long accountId) {
+        return transactionTemplate.execute(status -> {
+            Optional<Account> account = accountRepository.findById(accountId);
+            if (account.isEmpty()) return null;
+            AccountState state = new AccountState(account.get().getCashMicros());
+            for (Holding h : holdingRepository.findByAccountId(accountId)) {
+                state.positions.put(h.getStockTicker(), new long[] {h.getSharesMicros(), h.getAveragePriceMicros()});
+            }
+            return state;
+        });
+    }
+
+    private static void markWritten(AccountState state) {
+        synchronized (state) {
+            state.pending--;
+            if (state.pending == 0) state.notifyAll();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class AccountState {
+        long cashMicros;
+        // ticker -> {shares, average price} in micro-units
+        final Map<String, long[]> positions = new HashMap<>();
+        int pending;
+        // set when one of its trades was rejected; the copy is reloaded before the next trade
+        volatile boolean stale;
+
+        AccountState(long cashMicros) {
+            this.cashMicros = cashMicros;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package team8.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of acknowledged trades, stored as fixed-size memory-mapped segment files
+ * named after the sequence number of their first record.
+ * A record is [int length][body][int crc32 of body]; the length is written last, so a record
+ * torn by a crash reads as the zero-filled end of the segment. Not thread-safe: callers serialize appends.
+ */
+public final class TradeLedgerWal implements AutoCloseable {
+
+    /**
+     * One acknowledged trade. Shares and price are in micro-units, times in epoch milliseconds.
+     *
+     * @param quotedAtMillis when the price was quoted, or -1 when unknown
+     */
+    public record Entry(long seq, long accountId, boolean buy, String ticker, long sharesMicros, long priceMicros,
+                        long quotedAtMillis, long createdAtMillis) {}
+
+    private static final String SUFFIX = ".wal";
+    // seq, accountId, buy, shares, price, quotedAt, createdAt, ticker length
+    private static final int FIXED_BODY_BYTES = 8 + 8 + 1 + 8 + 8 + 8 + 8 + 2;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean syncOnAppend;
+
+    // first seq -> segment file, oldest first; the last one is the active segment
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+
+    public TradeLedgerWal(Path directory, int segmentBytes, boolean syncOnAppend) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.syncOnAppend = syncOnAppend;
+    }
+
+    /**
+     * Open the log and return every intact record, oldest first. Appends continue after the last one.
+     */
+    public List<Entry> recover() {
+        List<Entry> entries = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                        .forEach(f -> segments.put(firstSeq(f), f));
+            }
+            for (Path segment : segments.values()) {
+                map(segment);
+                readAll(entries);
+            }
+            if (active != null) {
+                clearTail();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open trade ledger in " + directory, ex);
+        }
+        return entries;
+    }
+
+    /**
+     * Append a record and, with sync-on-append, force it to disk before returning.
+     *
+     * @throws UncheckedIOException when the record cannot be written
+     */
+    public void append(Entry entry) {
+        byte[] ticker = entry.ticker().getBytes(StandardCharsets.UTF_8);
+        int bodyLength = FIXED_BODY_BYTES + ticker.length;
+        int recordLength = 4 + bodyLength + 4;
+        // keep room for the zero length that marks the end of the segment
+        if (recordLength + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Ledger record larger than a segment");
+        }
+        try {
+            if (active == null || active.remaining() < recordLength + 4) {
+                roll(entry.seq());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create ledger segment", ex);
+        }
+
+        int start = active.position();
+        ByteBuffer body = active.duplicate().position(start + 4).limit(start + 4 + bodyLength).slice();
+        body.putLong(entry.seq())
+                .putLong(entry.accountId())
+                .put((byte) (entry.buy() ? 1 : 0))
+                .putLong(entry.sharesMicros())
+                .putLong(entry.priceMicros())
+                .putLong(entry.quotedAtMillis())
+                .putLong(entry.createdAtMillis())
+                .putShort((short) ticker.length)
+                .put(ticker);
+        active.putInt(start + 4 + bodyLength, crc(active, start + 4, bodyLength));
+        active.putInt(start, bodyLength);
+        active.position(start + recordLength);
+        if (syncOnAppend) {
+            active.force(start, recordLength);
+        }
+    }
+
+    /**
+     * Delete the segments whose records all have a sequence number of at most {@code seq}.
+     * The active segment is always kept.
+     */
+    public void releaseThrough(long seq) {
+        while (segments.size() > 1) {
+            Long oldest = segments.firstKey();
+            Long next = segments.higherKey(oldest);
+            if (next - 1 > seq) return;
+            try {
+                Files.deleteIfExists(segments.remove(oldest));
+            } catch (IOException ex) {
+                // retried on the next release
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (active != null) active.force();
+            if (activeChannel != null) activeChannel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        if (active != null) {
+            active.force();
+            activeChannel.close();
+        }
+        Path segment = directory.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+        segments.put(firstSeq, segment);
+        map(segment);
+    }
+
+    private void map(Path segment) throws IOException {
+        if (activeChannel != null) activeChannel.close();
+        activeChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    // read the mapped segment from the start, leaving the position after its last intact record
+    private void readAll(List<Entry> entries) {
+        active.position(0);
+        while (active.remaining() >= 4) {
+            int start = active.position();
+            int bodyLength = active.getInt(start);
+            if (bodyLength < FIXED_BODY_BYTES || start + 4 + bodyLength + 4 > segmentBytes
+                    || active.getInt(start + 4 + bodyLength) != crc(active, start + 4, bodyLength)) {
+                return;
+            }
+            ByteBuffer body = active.duplicate().position(start + 4).limit(start + 4 + bodyLength).slice();
+            long seq = body.getLong();
+            long accountId = body.getLong();
+            boolean buy = body.get() == 1;
+            long shares = body.getLong();
+            long price = body.getLong();
+            long quotedAt = body.getLong();
+            long createdAt = body.getLong();
+            byte[] ticker = new byte[body.getShort()];
+            body.get(ticker);
+            entries.add(new Entry(seq, accountId, buy, new String(ticker, StandardCharsets.UTF_8),
+                    shares, price, quotedAt, createdAt));
+            active.position(start + 4 + bodyLength + 4);
+        }
+    }
+
+    // a torn record after the last intact one would otherwise be mistaken for data once appends overwrite its start
+    private void clearTail() {
+        int position = active.position();
+        if (active.remaining() < 4 || active.getInt(position) == 0) return;
+        for (int i = position; i < segmentBytes; i++) {
+            active.put(i, (byte) 0);
+        }
+        active.force();
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(offset).limit(offset + length));
+        return (int) crc.getValue();
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,197 @@
+package team8.backend.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team8.backend.dto.BasketResultDTO;
+import team8.backend.dto.HoldingDTO;
+import team8.backend.dto.TradeResultDTO;
+import team8.backend.dto.TransactionDTO;
+import team8.backend.entity.Account;
+import team8.backend.entity.Micros;
+import team8.backend.entity.Transaction;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.TransactionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Executes buy/sell trades against an account in a single database transaction.
+ * Callers go through AccountLockService so trades on one account are serialized
+ * and optimistic version conflicts are retried.
+ */
+@Service
+public class TradeService {
+
+    /**
+     * One leg of a basket, already priced.
+     *
+     * @param quotedAt when the price was quoted (null when unknown)
+     */
+    public record BasketLeg(String action, String ticker, double shares, double price, LocalDateTime quotedAt) {}
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final HoldingService holdingService;
+    private final LeaderboardService leaderboardService;
+    private final DashboardService dashboardService;
+
+    public TradeService(AccountRepository accountRepository,
+                        TransactionRepository transactionRepository,
+                        HoldingService holdingService,
+                        LeaderboardService leaderboardService,
+                        DashboardService dashboardService) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.holdingService = holdingService;
+        this.leaderboardService = leaderboardService;
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Execute a trade and record it as a Transaction.
+     *
+     * @param accountId account to trade on
+     * @param action    "buy" or "sell" (case insensitive)
+     * @param ticker    stock ticker
+     * @param shares    number of shares (> 0)
+     * @param price     price per share (> 0)
+     * @param quotedAt  when the price was quoted, recorded on the transaction (null when unknown)
+     * @return what the trade changed (cash, position and the recorded transaction),
+     *         or empty when the account does not exist
+     * @throws IllegalArgumentException for an invalid action, insufficient cash or insufficient shares
+     */
+    @Transactional
+    public Optional<TradeResultDTO> executeTrade(Long accountId, String action, String ticker, double shares, double price,
+                                               LocalDateTime quotedAt) {
+        Optional<Account> accOpt = accountRepository.findById(accountId);
+        if (accOpt.isEmpty()) return Optional.empty();
+        Account account = accOpt.get();
+
+        // all cash and share arithmetic is exact in micro-units
+        long sharesMicros = Micros.of(shares);
+        long priceMicros = Micros.of(price);
+        if (sharesMicros <= 0 || priceMicros <= 0) {
+            throw new IllegalArgumentException("Shares and price must be at least 0.000001.");
+        }
+        long totalValue = Micros.multiply(sharesMicros, priceMicros);
+        boolean buy = action.equalsIgnoreCase("buy");
+        HoldingDTO holding;
+
+        if (buy) {
+            if (account.getCashMicros() < totalValue) {
+                throw new IllegalArgumentException("Not enough cash to complete purchase.");
+            }
+            account.setCashMicros(account.getCashMicros() - totalValue);
+            holding = holdingService.addOrUpdateHolding(account, ticker, sharesMicros, priceMicros);
+
+        } else if (action.equalsIgnoreCase("sell")) {
+            holding = holdingService.updateAfterSell(account, ticker, sharesMicros);
+            account.setCashMicros(account.getCashMicros() + totalValue);
+
+        } else {
+            throw new IllegalArgumentException("Invalid action type. Must be 'buy' or 'sell'.");
+        }
+
+        // Save transaction
+        Transaction tx = new Transaction(
+            account,
+            action.toLowerCase(),
+            ticker,
+            shares,
+            price,
+            LocalDateTime.now()
+        );
+        tx.setQuotedAt(quotedAt);
+        account.addTransaction(tx);
+
+        transactionRepository.save(tx);
+        // flush inside the transaction so a stale version surfaces here and can be retried
+        accountRepository.saveAndFlush(account);
+        leaderboardService.recordTrade(account, ticker, buy ? shares : -shares, price);
+        dashboardService.invalidate(account.getUser().getId());
+
+        return Optional.of(new TradeResultDTO(account.getId(), account.getCash(), holding, TransactionDTO.fromEntity(tx)));
+    }
+
+    /**
+     * Execute several trades on one account atomically. Cash is checked once against the net of
+     * all legs, so a rebalance may spend what its sells raise: sells are applied before buys and
+     * either every leg is recorded or none is. Holdings are read once and written in one batch.
+     *
+     * @param accountId account to trade on
+     * @param legs      priced legs; buys of a ticker cannot cover sells of it in the same basket
+     * @return cash, resulting positions and the recorded transactions, or empty when the account does not exist
+     * @throws IllegalArgumentException for an invalid leg, insufficient net cash or insufficient shares
+     */
+    @Transactional
+    public Optional<BasketResultDTO> executeBasket(Long accountId, List<BasketLeg> legs) {
+        Optional<Account> accOpt = accountRepository.findById(accountId);
+        if (accOpt.isEmpty()) return Optional.empty();
+        Account account = accOpt.get();
+
+        List<BasketLeg> ordered = new ArrayList<>();
+        List<HoldingService.PositionChange> changes = new ArrayList<>();
+        long sellMicros = 0;
+        long buyMicros = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            boolean buys = pass == 1;
+            for (BasketLeg leg : legs) {
+                boolean buy = leg.action().equalsIgnoreCase("buy");
+                if (!buy && !leg.action().equalsIgnoreCase("sell")) {
+                    throw new IllegalArgumentException("Invalid action type. Must be 'buy' or 'sell'.");
+                }
+                if (buy != buys) continue;
+
+                long sharesMicros = Micros.of(leg.shares());
+                long priceMicros = Micros.of(leg.price());
+                if (sharesMicros <= 0 || priceMicros <= 0) {
+                    throw new IllegalArgumentException("Shares and price must be at least 0.000001.");
+                }
+                long value = Micros.multiply(sharesMicros, priceMicros);
+                if (buy) {
+                    buyMicros += value;
+                } else {
+                    sellMicros += value;
+                }
+                ordered.add(leg);
+                changes.add(new HoldingService.PositionChange(leg.ticker(), buy ? sharesMicros : -sharesMicros,
+                        priceMicros));
+            }
+        }
+
+        long cashAfter = account.getCashMicros() + sellMicros - buyMicros;
+        if (cashAfter < 0) {
+            throw new IllegalArgumentException("Not enough cash to complete purchase.");
+        }
+
+        Map<String, HoldingDTO> positions = holdingService.applyChanges(account, changes);
+        account.setCashMicros(cashAfter);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> txs = new ArrayList<>(ordered.size());
+        for (BasketLeg leg : ordered) {
+            Transaction tx = new Transaction(account, leg.action().toLowerCase(), leg.ticker(), leg.shares(), leg.price(), now);
+            tx.setQuotedAt(leg.quotedAt());
+            account.addTransaction(tx);
+            txs.add(tx);
+        }
+
+        transactionRepository.saveAll(txs);
+        // flush inside the transaction so a stale version surfaces here and can be retried
+        accountRepository.saveAndFlush(account);
+        for (BasketLeg leg : ordered) {
+            boolean buy = leg.action().equalsIgnoreCase("buy");
+            leaderboardService.recordTrade(account, leg.ticker(), buy ? leg.shares() : -leg.shares(), leg.price());
+        }
+        dashboardService.invalidate(account.getUser().getId());
+
+        List<HoldingDTO> holdings = positions.values().stream().filter(Objects::nonNull).toList();
+        List<TransactionDTO> recorded = txs.stream().map(TransactionDTO::fromEntity).toList();
+        return Optional.of(new BasketResultDTO(account.getId(), account.getCash(), holdings, recorded));
+    }
+}
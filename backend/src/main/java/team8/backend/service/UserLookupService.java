@@ -0,0 +1,71 @@
+package team8.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import team8.backend.entity.User;
+import team8.backend.repository.UserRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks users up by email through the unique email index, keeping a small
+ * LRU map of email -> id for recently active users so repeat lookups become
+ * primary-key reads.
+ */
+@Service
+public class UserLookupService {
+
+    private final UserRepository userRepository;
+    private final Map<String, Long> idsByEmail;
+
+    public UserLookupService(UserRepository userRepository,
+                             @Value("${user.lookup.cache-size:1000}") int cacheSize) {
+        this.userRepository = userRepository;
+        int maxEntries = Math.max(1, cacheSize);
+        this.idsByEmail = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Find a user by email.
+     *
+     * @param email login email
+     * @return the user, or empty when no user has this email
+     */
+    public Optional<User> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+
+        Long cachedId;
+        synchronized (idsByEmail) {
+            cachedId = idsByEmail.get(email);
+        }
+        if (cachedId != null) {
+            // the id may belong to a deleted user or one whose email changed
+            Optional<User> user = userRepository.findById(cachedId);
+            if (user.isPresent() && email.equals(user.get().getEmail())) {
+                return user;
+            }
+            evict(email);
+        }
+
+        Optional<User> user = userRepository.findByEmail(email);
+        user.ifPresent(u -> {
+            synchronized (idsByEmail) {
+                idsByEmail.put(email, u.getId());
+            }
+        });
+        return user;
+    }
+
+    public void evict(String email) {
+        synchronized (idsByEmail) {
+            idsByEmail.remove(email);
+        }
+    }
+}
@@ -11,15 +11,26 @@ import org.springframework.http.*;
 
 import team8.backend.BackendApplication;
 import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Transaction;
 import team8.backend.entity.User;
 import team8.backend.repository.AccountRepository;
 import team8.backend.repository.UserRepository;
 import team8.backend.repository.TransactionRepository;
 import team8.backend.repository.HoldingRepository;
+import team8.backend.service.AccountLockService;
+import team8.backend.service.QuoteCacheService;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,7 +49,8 @@ import static org.assertj.core.api.Assertions.assertThat;
         "MYSQL_ROOT_PASSWORD=rootpass",
         "MYSQL_PASSWORD=testpass",
         "FINNHUB_API_KEY=dummy_finnhub_key",
-        "MASSIVE_API_KEY=dummy_massive_key"
+        "MASSIVE_API_KEY=dummy_massive_key",
+        "positions.checkpoint.interval=3"
     }
 )
 public class AccountControllerIntegrationTest {
@@ -61,6 +73,12 @@ public class AccountControllerIntegrationTest {
     @Autowired
     private HoldingRepository holdingRepository;
 
+    @Autowired
+    private QuoteCacheService quoteCacheService;
+
+    @Autowired
+    private AccountLockService accountLockService;
+
     private String baseUrl;
 
     private User testUser;
@@ -108,6 +126,8 @@ public class AccountControllerIntegrationTest {
 
     @Test
     public void testTradeBuyAndSell() {
+        primeQuote("AAPL", 100.0);
+
         // BUY
         Map<String, Object> buyRequest = new HashMap<>();
         buyRequest.put("action", "buy");
@@ -143,6 +163,7 @@ public class AccountControllerIntegrationTest {
 
     @Test
     public void testTradeBuyInsufficientFunds() {
+        primeQuote("GOOG", 100.0);
         Map<String, Object> request = new HashMap<>();
         request.put("action", "buy");
         request.put("ticker", "GOOG");
@@ -160,6 +181,7 @@ public class AccountControllerIntegrationTest {
 
     @Test
     public void testDashboardSummary() {
+        primeQuote("MSFT", 50.0);
         Map<String, Object> buyRequest = new HashMap<>();
         buyRequest.put("action", "buy");
         buyRequest.put("ticker", "MSFT");
@@ -185,6 +207,76 @@ public class AccountControllerIntegrationTest {
         assertThat(body).containsKeys("totalCash", "totalStocks");
     }
 
+    @Test
+    public void testDashboardRefreshesAfterTrade() {
+        primeQuote("MSFT", 50.0);
+        Account secondAccount = new Account();
+        secondAccount.setUser(testUser);
+        secondAccount.setCash(5_000.0);
+        accountRepository.save(secondAccount);
+
+        ResponseEntity<Map<String, Object>> before = restTemplate.exchange(
+                baseUrl + "/dashboard?userId=" + testUser.getId(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(((Number) before.getBody().get("totalCash")).doubleValue()).isEqualTo(15_000.0);
+
+        for (Account account : List.of(testAccount, secondAccount)) {
+            Map<String, Object> buyRequest = new HashMap<>();
+            buyRequest.put("action", "buy");
+            buyRequest.put("ticker", "MSFT");
+            buyRequest.put("shares", 2);
+            buyRequest.put("price", 50.0);
+            restTemplate.exchange(
+                    baseUrl + "/" + account.getId() + "/trade",
+                    HttpMethod.POST,
+                    new HttpEntity<>(buyRequest),
+                    new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+        }
+
+        // the cached snapshot is dropped by the trades, and shares are summed across accounts
+        ResponseEntity<Map<String, Object>> after = restTemplate.exchange(
+                baseUrl + "/dashboard?userId=" + testUser.getId(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(((Number) after.getBody().get("totalCash")).doubleValue()).isEqualTo(14_800.0);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> totalStocks = (Map<String, Object>) after.getBody().get("totalStocks");
+        assertThat(((Number) totalStocks.get("MSFT")).doubleValue()).isEqualTo(4.0);
+    }
+
+    @Test
+    public void testFractionalSellsCloseThePositionExactly() {
+        primeQuote("AAPL", 0.7);
+        List<Map<String, Object>> trades = List.of(
+                Map.of("action", "buy", "ticker", "AAPL", "shares", 0.3, "price", 0.7),
+                Map.of("action", "sell", "ticker", "AAPL", "shares", 0.1, "price", 0.7),
+                Map.of("action", "sell", "ticker", "AAPL", "shares", 0.1, "price", 0.7),
+                Map.of("action", "sell", "ticker", "AAPL", "shares", 0.1, "price", 0.7)
+        );
+
+        ResponseEntity<Map<String, Object>> response = null;
+        for (Map<String, Object> trade : trades) {
+            response = restTemplate.exchange(
+                    baseUrl + "/" + testAccount.getId() + "/trade",
+                    HttpMethod.POST,
+                    new HttpEntity<>(trade),
+                    new ParameterizedTypeReference<>() {}
+            );
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+
+        // 0.3 - 0.1 - 0.1 - 0.1 leaves no dust holding and the cash comes back to the cent
+        assertThat(response.getBody().get("holding")).isNull();
+        assertThat(((Number) response.getBody().get("cash")).doubleValue()).isEqualTo(10_000.0);
+        assertThat(holdingRepository.findByAccountId(testAccount.getId())).isEmpty();
+    }
+
     @Test
     public void testGetAllAccounts() {
         Account secondAccount = new Account();
@@ -199,4 +291,313 @@ public class AccountControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTradeReturnsOnlyDelta() {
+        primeQuote("AAPL", 25.0);
+        Map<String, Object> buyRequest = new HashMap<>();
+        buyRequest.put("action", "buy");
+        buyRequest.put("ticker", "AAPL");
+        buyRequest.put("shares", 4);
+        buyRequest.put("price", 25.0);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl + "/" + testAccount.getId() + "/trade",
+                HttpMethod.POST,
+                new HttpEntity<>(buyRequest),
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Map<String, Object> body = response.getBody();
+        assertThat(body).containsKeys("cash", "holding", "transaction");
+        assertThat(body).doesNotContainKeys("holdings", "transactions");
+        assertThat(((Number) body.get("cash")).doubleValue()).isEqualTo(9_900.0);
+
+        // the account list is a summary: holdings are counted, not embedded
+        ResponseEntity<Object[]> summaries = restTemplate.getForEntity(
+                baseUrl + "?userId=" + testUser.getId(),
+                Object[].class
+        );
+        @SuppressWarnings("unchecked")
+        Map<String, Object> summary = (Map<String, Object>) summaries.getBody()[0];
+        assertThat(((Number) summary.get("holdingsCount")).longValue()).isEqualTo(1L);
+        assertThat(summary).doesNotContainKey("holdings");
+    }
+
+    @Test
+    public void testTransactionHistoryKeysetPages() {
+        for (String ticker : new String[] {"AAPL", "MSFT", "NVDA"}) {
+            primeQuote(ticker, 10.0);
+            Map<String, Object> buyRequest = new HashMap<>();
+            buyRequest.put("action", "buy");
+            buyRequest.put("ticker", ticker);
+            buyRequest.put("shares", 1);
+            buyRequest.put("price", 10.0);
+            restTemplate.postForEntity(baseUrl + "/" + testAccount.getId() + "/trade", buyRequest, String.class);
+        }
+
+        String pageUrl = "http://localhost:" + port + "/api/transactions/page?accountId=" + testAccount.getId() + "&size=2";
+        ResponseEntity<Map<String, Object>> first = restTemplate.exchange(
+                pageUrl, HttpMethod.GET, null, new ParameterizedTypeReference<>() {}
+        );
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((java.util.List<?>) first.getBody().get("transactions")).hasSize(2);
+        assertThat(first.getBody().get("hasMore")).isEqualTo(true);
+
+        ResponseEntity<Map<String, Object>> second = restTemplate.exchange(
+                pageUrl + "&beforeTimestamp=" + first.getBody().get("nextBeforeTimestamp")
+                        + "&beforeId=" + first.getBody().get("nextBeforeId"),
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {}
+        );
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((java.util.List<?>) second.getBody().get("transactions")).hasSize(1);
+        assertThat(second.getBody().get("hasMore")).isEqualTo(false);
+    }
+
+    @Test
+    public void testTradeExecutesAtServerQuote() {
+        primeQuote("TSLA", 200.0);
+
+        // the client's price is ignored; the cached quote is used and its time recorded
+        Map<String, Object> buyRequest = new HashMap<>();
+        buyRequest.put("action", "buy");
+        buyRequest.put("ticker", "TSLA");
+        buyRequest.put("shares", 2);
+        buyRequest.put("price", 1.0);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl + "/" + testAccount.getId() + "/trade",
+                HttpMethod.POST,
+                new HttpEntity<>(buyRequest),
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Number) response.getBody().get("cash")).doubleValue()).isEqualTo(9_600.0);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> transaction = (Map<String, Object>) response.getBody().get("transaction");
+        assertThat(((Number) transaction.get("price")).doubleValue()).isEqualTo(200.0);
+        assertThat(transaction.get("quotedAt")).isNotNull();
+    }
+
+    // trades are priced from the quote cache; seed it so no upstream call is needed
+    @Test
+    public void testBasketRebalancesAgainstNetCash() {
+        primeQuote("AAPL", 100.0);
+        primeQuote("MSFT", 50.0);
+        trade("buy", "AAPL", 90);
+
+        // on its own the buy leg needs 5000 with 1000 cash; the sell in the same basket covers it
+        ResponseEntity<Map<String, Object>> response = basket(List.of(
+                leg("buy", "MSFT", 100),
+                leg("sell", "AAPL", 50)));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Number) response.getBody().get("cash")).doubleValue()).isEqualTo(1_000.0);
+        assertThat((List<?>) response.getBody().get("transactions")).hasSize(2);
+        assertThat((List<?>) response.getBody().get("holdings")).hasSize(2);
+
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "AAPL").getShares()).isEqualTo(40.0);
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "MSFT").getShares()).isEqualTo(100.0);
+    }
+
+    @Test
+    public void testBasketIsAllOrNothing() {
+        primeQuote("AAPL", 100.0);
+        primeQuote("MSFT", 50.0);
+        trade("buy", "AAPL", 10);
+        long transactionsBefore = transactionRepository.count();
+
+        ResponseEntity<Map<String, Object>> response = basket(List.of(
+                leg("sell", "AAPL", 10),
+                leg("buy", "MSFT", 1000)));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        assertThat(accountRepository.findById(testAccount.getId()).get().getCash()).isEqualTo(9_000.0);
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "AAPL").getShares()).isEqualTo(10.0);
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "MSFT")).isNull();
+        assertThat(transactionRepository.count()).isEqualTo(transactionsBefore);
+    }
+
+    @Test
+    public void testTradeTickerIsNormalized() {
+        primeQuote("AAPL", 100.0);
+        trade("buy", " aapl ", 10);
+        trade("sell", "AAPL", 4);
+
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "AAPL").getShares()).isEqualTo(6.0);
+        assertThat(holdingRepository.count()).isEqualTo(1);
+        assertThat(transactionRepository.findAll()).extracting(Transaction::getStockTicker).containsOnly("AAPL");
+    }
+
+    @Test
+    public void testBasketLegTickerIsNormalized() {
+        primeQuote("AAPL", 100.0);
+        trade("buy", "AAPL", 10);
+
+        ResponseEntity<Map<String, Object>> response = basket(List.of(leg("sell", " aapl ", 4)));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "AAPL").getShares()).isEqualTo(6.0);
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "aapl")).isNull();
+        assertThat(holdingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testReconcileRebuildsFromCheckpoints() {
+        primeQuote("AAPL", 100.0);
+        primeQuote("MSFT", 30.0);
+        trade("buy", "AAPL", 10);
+        trade("buy", "MSFT", 5);
+        primeQuote("AAPL", 120.0);
+        trade("buy", "AAPL", 10);
+
+        ResponseEntity<Map<String, Object>> first = reconcile();
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().get("consistent")).isEqualTo(true);
+        assertThat(first.getBody().get("replayedTransactions")).isEqualTo(3);
+
+        // the first rebuild left a checkpoint, so only the new sell is replayed
+        trade("sell", "AAPL", 20);
+        ResponseEntity<Map<String, Object>> second = reconcile();
+        assertThat(second.getBody().get("consistent")).isEqualTo(true);
+        assertThat(second.getBody().get("replayedTransactions")).isEqualTo(1);
+        assertThat(((Number) second.getBody().get("rebuiltCash")).doubleValue()).isEqualTo(10_050.0);
+    }
+
+    @Test
+    public void testReconcileReportsTamperedHoldings() {
+        primeQuote("AAPL", 100.0);
+        trade("buy", "AAPL", 10);
+
+        Holding holding = holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "AAPL");
+        holding.setShares(12);
+        holdingRepository.save(holding);
+
+        ResponseEntity<Map<String, Object>> response = reconcile();
+        assertThat(response.getBody().get("consistent")).isEqualTo(false);
+        assertThat((List<?>) response.getBody().get("differences")).hasSize(1);
+
+        ResponseEntity<Map<String, Object>> all = restTemplate.exchange(
+                baseUrl + "/reconcile", HttpMethod.POST, null, new ParameterizedTypeReference<>() {});
+        assertThat(all.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((List<?>) all.getBody().get("inconsistentAccountIds"))
+                .containsExactly(testAccount.getId().intValue());
+    }
+
+    @Test
+    public void testConcurrentBuysNeverOverdraw() throws Exception {
+        primeQuote("AAPL", 100.0);
+        int buyers = 25;
+
+        // every buy costs 1,000, so exactly ten of them fit in the 10,000 of cash
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < buyers; i++) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return postTrade(testAccount, "buy", "AAPL", 10);
+                }));
+            }
+            start.countDown();
+
+            int bought = 0;
+            for (Future<ResponseEntity<String>> response : responses) {
+                HttpStatus status = HttpStatus.valueOf(response.get(30, TimeUnit.SECONDS).getStatusCode().value());
+                assertThat(status).isIn(HttpStatus.OK, HttpStatus.BAD_REQUEST);
+                if (status == HttpStatus.OK) bought++;
+            }
+            assertThat(bought).isEqualTo(10);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Account account = accountRepository.findById(testAccount.getId()).get();
+        assertThat(account.getCashMicros()).isZero();
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "AAPL").getSharesMicros())
+                .isEqualTo(100_000_000L);
+        assertThat(transactionRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    public void testTradesOnDifferentAccountsAreNotSerialized() throws Exception {
+        primeQuote("AAPL", 100.0);
+        // ids that differ by a multiple of the stripe count share a lock stripe
+        Account other;
+        do {
+            other = new Account();
+            other.setUser(testUser);
+            other.setCash(10000.0);
+            accountRepository.save(other);
+        } while ((other.getId() - testAccount.getId()) % 64 == 0);
+        Account otherAccount = other;
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            pool.submit(() -> accountLockService.withAccountLock(testAccount.getId(), () -> {
+                held.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // a trade on another account goes through while the first account is locked
+            Future<ResponseEntity<String>> otherTrade = pool.submit(() -> postTrade(otherAccount, "buy", "AAPL", 1));
+            assertThat(otherTrade.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            // a trade on the locked account waits for the lock
+            Future<ResponseEntity<String>> sameTrade = pool.submit(() -> postTrade(testAccount, "buy", "AAPL", 1));
+            Thread.sleep(300);
+            assertThat(sameTrade.isDone()).isFalse();
+            release.countDown();
+            assertThat(sameTrade.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> reconcile() {
+        return restTemplate.exchange(
+                baseUrl + "/" + testAccount.getId() + "/reconcile",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+    }
+
+    private void trade(String action, String ticker, double shares) {
+        assertThat(postTrade(testAccount, action, ticker, shares).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<String> postTrade(Account account, String action, String ticker, double shares) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", action);
+        request.put("ticker", ticker);
+        request.put("shares", shares);
+        return restTemplate.postForEntity(baseUrl + "/" + account.getId() + "/trade", request, String.class);
+    }
+
+    private ResponseEntity<Map<String, Object>> basket(List<Map<String, Object>> legs) {
+        return restTemplate.exchange(
+                baseUrl + "/" + testAccount.getId() + "/basket",
+                HttpMethod.POST,
+                new HttpEntity<>(Map.of("legs", legs)),
+                new ParameterizedTypeReference<>() {}
+        );
+    }
+
+    private static Map<String, Object> leg(String action, String ticker, double shares) {
+        return Map.of("action", action, "ticker", ticker, "shares", shares);
+    }
+
+    private void primeQuote(String ticker, double price) {
+        quoteCacheService.put(ticker, Map.of("c", price));
+    }
+}
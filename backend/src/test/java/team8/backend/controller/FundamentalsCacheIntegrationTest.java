@@ -0,0 +1,141 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.HttpClientErrorException;
+
+import team8.backend.BackendApplication;
+import team8.backend.service.FinnhubClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Profiles and metrics served from the fundamentals cache, warmed from the file of a previous run.
+ * Upstream is a stub that refuses every call, so cached keys are answered without it.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:fundamentalsdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key",
+        "fundamentals.ttl-ms=3600000",
+        "fundamentals.max-stale-ms=86400000"
+    }
+)
+public class FundamentalsCacheIntegrationTest {
+
+    @DynamicPropertySource
+    static void fundamentalsDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("fundamentals");
+        long now = System.currentTimeMillis();
+        long twoHoursAgo = now - 2 * 3_600_000L;
+        Files.write(directory.resolve("fundamentals.jsonl"), List.of(
+                "{\"key\":\"profile:symbol:FUND\",\"fetchedAt\":" + twoHoursAgo
+                        + ",\"value\":{\"name\":\"Old Name Inc\",\"ticker\":\"FUND\"}}",
+                // a later line for the same key wins
+                "{\"key\":\"profile:symbol:FUND\",\"fetchedAt\":" + now
+                        + ",\"value\":{\"name\":\"Fund Inc\",\"ticker\":\"FUND\"}}",
+                "{\"key\":\"metrics:FUND\",\"fetchedAt\":" + now
+                        + ",\"value\":{\"Market Cap\":\"1,234.50\",\"P/E Ratio\":\"20.00\"}}",
+                "{\"key\":\"profile:symbol:STALE\",\"fetchedAt\":" + twoHoursAgo
+                        + ",\"value\":{\"name\":\"Stale Corp\",\"ticker\":\"STALE\"}}"
+        ));
+        registry.add("fundamentals.dir", directory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockitoBean
+    private FinnhubClient finnhubClient;
+
+    @BeforeEach
+    public void setUp() {
+        doThrow(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "Forbidden", HttpHeaders.EMPTY, new byte[0], null))
+                .when(finnhubClient).get(eq("/stock/profile2"), any(), any());
+        doReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build())
+                .when(finnhubClient).get(eq("/stock/metric"), any(), any());
+    }
+
+    @Test
+    public void testProfileServedFromCache() {
+        Map<String, Object> body = get("/profile2?symbol=fund");
+
+        assertThat(body).containsEntry("name", "Fund Inc");
+    }
+
+    @Test
+    public void testStaleProfileServedWhileRefreshing() {
+        // past the TTL but within max-stale: served as is, the failed background refresh is counted
+        Map<String, Object> body = get("/profile2?symbol=STALE");
+        assertThat(body).containsEntry("name", "Stale Corp");
+
+        Map<String, Object> stats = get("/fundamentals/stats");
+        assertThat(((Number) stats.get("staleHits")).longValue()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testMetricsStoredFiltered() {
+        Map<String, Object> body = get("/metrics?ticker=FUND");
+
+        assertThat(body).containsOnlyKeys("Market Cap", "P/E Ratio").containsEntry("Market Cap", "1,234.50");
+    }
+
+    @Test
+    public void testRefusedUpstreamStatusIsPassedThrough() {
+        ResponseEntity<Map<String, Object>> profile = exchange("/profile2?symbol=UNCACHED");
+        assertThat(profile.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(profile.getBody()).containsKey("error");
+
+        ResponseEntity<Map<String, Object>> metrics = exchange("/metrics?ticker=UNCACHED");
+        assertThat(metrics.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private Map<String, Object> get(String path) {
+        ResponseEntity<Map<String, Object>> response = exchange(path);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private ResponseEntity<Map<String, Object>> exchange(String path) {
+        return restTemplate.exchange(
+                "http://localhost:" + port + "/api/stock" + path,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+    }
+}
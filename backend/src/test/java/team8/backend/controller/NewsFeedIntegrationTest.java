@@ -0,0 +1,97 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import team8.backend.BackendApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * News served from the ingested buffer, warmed from the feed file of a previous run.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:newsdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key",
+        "news.categories=general",
+        // the buffer is only filled from the file, never from the dummy upstream
+        "news.initial-delay-ms=600000"
+    }
+)
+public class NewsFeedIntegrationTest {
+
+    @DynamicPropertySource
+    static void newsDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("news");
+        Files.write(directory.resolve("general.jsonl"), List.of(
+                "{\"id\":10,\"headline\":\"First\",\"category\":\"general\"}",
+                "{\"id\":12,\"headline\":\"Third\",\"category\":\"general\"}",
+                "{\"id\":11,\"headline\":\"Second\",\"category\":\"general\"}",
+                // appended twice, e.g. by a poll that raced a restart
+                "{\"id\":12,\"headline\":\"Third\",\"category\":\"general\"}",
+                // torn by a crash mid-append
+                "{\"id\":13,\"headl"
+        ));
+        registry.add("news.dir", directory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    public void testNewsServedNewestFirstFromBuffer() {
+        Map<String, Object> body = news("");
+
+        assertThat(body).containsEntry("count", 3);
+        List<Map<String, Object>> result = (List<Map<String, Object>>) body.get("result");
+        assertThat(result).extracting(item -> item.get("id")).containsExactly(12, 11, 10);
+    }
+
+    @Test
+    public void testNewsFiltersByMinId() {
+        Map<String, Object> body = news("&minId=10");
+
+        List<Map<String, Object>> result = (List<Map<String, Object>>) body.get("result");
+        assertThat(result).extracting(item -> item.get("headline")).containsExactly("Third", "Second");
+    }
+
+    private Map<String, Object> news(String params) {
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/stock/news?category=general" + params,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+}
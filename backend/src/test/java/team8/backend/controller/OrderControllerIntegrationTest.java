@@ -0,0 +1,196 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+
+import team8.backend.BackendApplication;
+import team8.backend.entity.Account;
+import team8.backend.entity.Order;
+import team8.backend.entity.User;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.OrderRepository;
+import team8.backend.repository.TransactionRepository;
+import team8.backend.repository.UserRepository;
+import team8.backend.service.QuoteUpdatedEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key"
+    }
+)
+public class OrderControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private String baseUrl;
+
+    private Account testAccount;
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/api/orders";
+        orderRepository.deleteAll();
+        transactionRepository.deleteAll();
+        holdingRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User testUser = new User();
+        testUser.setName("Order User");
+        testUser.setEmail("order" + UUID.randomUUID() + "@example.com");
+        testUser.setPassword("pass123");
+        userRepository.save(testUser);
+
+        testAccount = new Account();
+        testAccount.setUser(testUser);
+        testAccount.setCash(10000.0);
+        accountRepository.save(testAccount);
+    }
+
+    @Test
+    public void testBuyLimitFillsWhenPriceCrossesLimit() throws InterruptedException {
+        Long orderId = place("buy", "limit", "ORDX", 10, 100.0, null);
+
+        // above the limit: nothing happens
+        eventPublisher.publishEvent(new QuoteUpdatedEvent("ORDX", 101.0, System.currentTimeMillis()));
+        eventPublisher.publishEvent(new QuoteUpdatedEvent("ORDX", 99.5, System.currentTimeMillis()));
+
+        Order filled = awaitStatus(orderId, Order.FILLED);
+        assertThat(filled.getFillPriceMicros()).isEqualTo(99_500_000L);
+        assertThat(filled.getTransactionId()).isNotNull();
+        assertThat(accountRepository.findById(testAccount.getId()).get().getCash()).isEqualTo(9005.0);
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "ORDX").getShares())
+                .isEqualTo(10.0);
+    }
+
+    @Test
+    public void testStopLimitArmsThenFills() throws InterruptedException {
+        Long orderId = place("buy", "stop_limit", "ORDY", 1, 52.0, 50.0);
+
+        // hits the stop but is above the limit: the order now rests as a limit at 52
+        eventPublisher.publishEvent(new QuoteUpdatedEvent("ORDY", 53.0, System.currentTimeMillis()));
+        awaitStatus(orderId, Order.TRIGGERED);
+
+        eventPublisher.publishEvent(new QuoteUpdatedEvent("ORDY", 51.0, System.currentTimeMillis()));
+        assertThat(awaitStatus(orderId, Order.FILLED).getFillPriceMicros()).isEqualTo(51_000_000L);
+    }
+
+    @Test
+    public void testUncoveredOrderIsRejectedAtFill() throws InterruptedException {
+        Long orderId = place("sell", "limit", "ORDZ", 5, 10.0, null);
+
+        eventPublisher.publishEvent(new QuoteUpdatedEvent("ORDZ", 11.0, System.currentTimeMillis()));
+
+        Order rejected = awaitStatus(orderId, Order.REJECTED);
+        assertThat(rejected.getRejectReason()).contains("holding not found");
+    }
+
+    @Test
+    public void testCancelOrder() {
+        Long orderId = place("sell", "stop", "ORDW", 1, null, 40.0);
+
+        ResponseEntity<Map<String, Object>> cancelled = restTemplate.exchange(
+                baseUrl + "/" + orderId, HttpMethod.DELETE, null, new ParameterizedTypeReference<>() {});
+        assertThat(cancelled.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cancelled.getBody().get("status")).isEqualTo(Order.CANCELLED);
+
+        ResponseEntity<String> again = restTemplate.exchange(
+                baseUrl + "/" + orderId, HttpMethod.DELETE, null, String.class);
+        assertThat(again.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        // a cancelled order no longer reacts to quotes
+        eventPublisher.publishEvent(new QuoteUpdatedEvent("ORDW", 39.0, System.currentTimeMillis()));
+        assertThat(orderRepository.findById(orderId).get().getStatus()).isEqualTo(Order.CANCELLED);
+    }
+
+    @Test
+    public void testInvalidOrderType() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("accountId", testAccount.getId());
+        body.put("action", "buy");
+        body.put("type", "market");
+        body.put("ticker", "ORDX");
+        body.put("shares", 1);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(baseUrl, body, String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private Long place(String action, String type, String ticker, double shares, Double limitPrice, Double stopPrice) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("accountId", testAccount.getId());
+        body.put("action", action);
+        body.put("type", type);
+        body.put("ticker", ticker);
+        body.put("shares", shares);
+        body.put("limitPrice", limitPrice);
+        body.put("stopPrice", stopPrice);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl, HttpMethod.POST, new HttpEntity<>(body), new ParameterizedTypeReference<>() {});
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().get("status")).isEqualTo(Order.OPEN);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    // fills run on a background thread
+    private Order awaitStatus(Long orderId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        while (!status.equals(order.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            order = orderRepository.findById(orderId).orElseThrow();
+        }
+        assertThat(order.getStatus()).isEqualTo(status);
+        return order;
+    }
+}
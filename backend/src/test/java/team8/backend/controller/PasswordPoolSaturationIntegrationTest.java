@@ -0,0 +1,94 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import team8.backend.BackendApplication;
+import team8.backend.dto.UserDTO;
+import team8.backend.entity.User;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.UserRepository;
+import team8.backend.service.PasswordService;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Signup and login while the password pool's queue is full: both are refused with 503 and nothing is saved.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+@ActiveProfiles("test")
+public class PasswordPoolSaturationIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @MockitoBean
+    private PasswordService passwordService;
+
+    private String baseUrl;
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/api/users";
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        when(passwordService.hash(any())).thenThrow(new RejectedExecutionException("queue full"));
+        when(passwordService.verify(any(), any())).thenThrow(new RejectedExecutionException("queue full"));
+    }
+
+    @Test
+    public void testSignupIsRefusedWhenThePoolIsFull() {
+        User user = new User();
+        user.setName("Busy Signup");
+        user.setEmail("busy@example.com");
+        user.setPassword("pass123");
+
+        ResponseEntity<UserDTO> response = restTemplate.postForEntity(baseUrl + "/signup", user, UserDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(userRepository.count()).isZero();
+        assertThat(accountRepository.count()).isZero();
+    }
+
+    @Test
+    public void testLoginIsRefusedWhenThePoolIsFull() {
+        User stored = new User();
+        stored.setName("Busy Login");
+        stored.setEmail("busy-login@example.com");
+        stored.setPassword("$2a$12$notarealhashnotarealhashnotarealhashnotarealhashnota");
+        userRepository.save(stored);
+
+        User loginRequest = new User();
+        loginRequest.setEmail("busy-login@example.com");
+        loginRequest.setPassword("pass123");
+        ResponseEntity<UserDTO> response = restTemplate.postForEntity(baseUrl + "/login", loginRequest, UserDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(userRepository.findById(stored.getId()).get().getLastLoginAt()).isNull();
+    }
+}
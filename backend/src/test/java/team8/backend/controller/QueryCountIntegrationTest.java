@@ -0,0 +1,162 @@
+package team8.backend.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import team8.backend.BackendApplication;
+import team8.backend.entity.Account;
+import team8.backend.entity.Holding;
+import team8.backend.entity.Tournament;
+import team8.backend.entity.User;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.TournamentRepository;
+import team8.backend.repository.TransactionRepository;
+import team8.backend.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against N+1 loading: the number of JDBC statements behind the dashboard, leaderboard
+ * and tournament listing must not grow with the number of accounts, participants or holdings.
+ */
+@SpringBootTest(
+        classes = BackendApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:querycountdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "price.snapshot.enabled=false",
+                "FINNHUB_API_KEY=dummy",
+                "MASSIVE_API_KEY=dummy"
+        }
+)
+public class QueryCountIntegrationTest {
+
+    // statements each endpoint may issue, independent of data size
+    private static final long MAX_DASHBOARD_STATEMENTS = 3;
+    private static final long MAX_LEADERBOARD_STATEMENTS = 3;
+    private static final long MAX_TOURNAMENT_LIST_STATEMENTS = 3;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private HoldingRepository holdingRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TournamentRepository tournamentRepository;
+
+    private String baseUrl;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/api";
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionRepository.deleteAll();
+        holdingRepository.deleteAll();
+        accountRepository.deleteAll();
+        tournamentRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testDashboardStatementsDoNotGrowWithAccounts() {
+        User small = user();
+        seedAccounts(small, null, 1, 1);
+        User large = user();
+        seedAccounts(large, null, 15, 8);
+
+        long smallCount = statementsFor(baseUrl + "/accounts/dashboard?userId=" + small.getId());
+        long largeCount = statementsFor(baseUrl + "/accounts/dashboard?userId=" + large.getId());
+
+        assertThat(largeCount).isEqualTo(smallCount);
+        assertThat(largeCount).isLessThanOrEqualTo(MAX_DASHBOARD_STATEMENTS);
+    }
+
+    @Test
+    public void testLeaderboardStatementsDoNotGrowWithParticipants() {
+        Tournament small = tournament();
+        for (int i = 0; i < 2; i++) seedAccounts(user(), small, 1, 2);
+        Tournament large = tournament();
+        for (int i = 0; i < 25; i++) seedAccounts(user(), large, 1, 6);
+
+        long smallCount = statementsFor(baseUrl + "/tournaments/" + small.getId() + "/leaderboard");
+        long largeCount = statementsFor(baseUrl + "/tournaments/" + large.getId() + "/leaderboard");
+
+        assertThat(largeCount).isEqualTo(smallCount);
+        assertThat(largeCount).isLessThanOrEqualTo(MAX_LEADERBOARD_STATEMENTS);
+    }
+
+    @Test
+    public void testTournamentListStatementsDoNotGrowWithTournaments() {
+        seedAccounts(user(), tournament(), 1, 1);
+        long smallCount = statementsFor(baseUrl + "/tournaments");
+
+        for (int t = 0; t < 10; t++) {
+            Tournament tournament = tournament();
+            for (int i = 0; i < 3; i++) seedAccounts(user(), tournament, 1, 1);
+        }
+        long largeCount = statementsFor(baseUrl + "/tournaments");
+
+        assertThat(largeCount).isEqualTo(smallCount);
+        assertThat(largeCount).isLessThanOrEqualTo(MAX_TOURNAMENT_LIST_STATEMENTS);
+    }
+
+    private long statementsFor(String url) {
+        statistics.clear();
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User user() {
+        User user = new User();
+        user.setName("Query User");
+        user.setEmail("query" + UUID.randomUUID() + "@example.com");
+        user.setPassword("pass123");
+        return userRepository.save(user);
+    }
+
+    private Tournament tournament() {
+        Tournament tournament = new Tournament();
+        tournament.setName("Query Cup " + UUID.randomUUID());
+        tournament.setMaxParticipants(100);
+        tournament.setInitialCash(10000.0);
+        tournament.setStartDate(LocalDateTime.now().minusDays(1));
+        tournament.setEndDate(LocalDateTime.now().plusDays(7));
+        return tournamentRepository.save(tournament);
+    }
+
+    private void seedAccounts(User user, Tournament tournament, int accounts, int holdingsPerAccount) {
+        for (int a = 0; a < accounts; a++) {
+            Account account = new Account(user, "Account " + a, 5000.0);
+            account.setTournament(tournament);
+            accountRepository.save(account);
+            for (int h = 0; h < holdingsPerAccount; h++) {
+                holdingRepository.save(new Holding(account, "TCK" + h, 1 + h, 10.0 + h));
+            }
+        }
+    }
+}
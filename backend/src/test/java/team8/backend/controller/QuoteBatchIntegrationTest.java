@@ -0,0 +1,129 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import team8.backend.BackendApplication;
+import team8.backend.service.ApiKeyPool;
+import team8.backend.service.FinnhubClient;
+import team8.backend.service.QuoteCacheService;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch quotes: partial results with per-ticker errors, and the limits on the batch itself.
+ * Upstream is a stub that answers one ticker and fails another.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:quotebatchdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key"
+    }
+)
+public class QuoteBatchIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private QuoteCacheService quoteCacheService;
+
+    @MockitoBean
+    private FinnhubClient finnhubClient;
+
+    @BeforeEach
+    public void setUp() {
+        when(finnhubClient.quote("GOOD")).thenReturn(Map.of("c", 42.0));
+        when(finnhubClient.quote("BAD")).thenThrow(new IllegalStateException("upstream down"));
+        when(finnhubClient.quote("SHED")).thenThrow(
+                new ApiKeyPool.KeyPoolExhaustedException("finnhub: rate limit reached on all API keys", 2_500));
+        quoteCacheService.put("PRIMED", Map.of("c", 7.0));
+    }
+
+    @Test
+    public void testBatchReturnsPartialResultsWithPerTickerErrors() {
+        ResponseEntity<Map<String, Object>> response = get("/quotes?tickers=good,BAD,primed,GOOD");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Map<String, Object> body = response.getBody();
+        assertThat(body).containsEntry("count", 2);
+        Map<String, Map<String, Object>> quotes = (Map<String, Map<String, Object>>) body.get("quotes");
+        assertThat(quotes).containsOnlyKeys("GOOD", "PRIMED");
+        assertThat(quotes.get("GOOD")).containsEntry("c", 42.0);
+        assertThat(quotes.get("PRIMED")).containsEntry("c", 7.0);
+        assertThat((Map<String, Object>) body.get("errors")).containsOnly(Map.entry("BAD", "upstream down"));
+
+        // duplicates are loaded once and cached tickers are not loaded at all
+        verify(finnhubClient, times(1)).quote("GOOD");
+        verify(finnhubClient, never()).quote("PRIMED");
+    }
+
+    @Test
+    public void testEmptyBatchIsRejected() {
+        assertThat(get("/quotes").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        ResponseEntity<Map<String, Object>> response = get("/quotes?tickers=,,");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).containsKey("error");
+    }
+
+    @Test
+    public void testOversizedBatchIsRejected() {
+        String tickers = IntStream.rangeClosed(1, 101).mapToObj(i -> "T" + i).collect(Collectors.joining(","));
+
+        ResponseEntity<Map<String, Object>> response = get("/quotes?tickers=" + tickers);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat((String) response.getBody().get("error")).contains("at most 100");
+        verify(finnhubClient, never()).quote("T1");
+    }
+
+    @Test
+    public void testShedCallIsAnsweredWithServiceUnavailableAndRetryAfter() {
+        ResponseEntity<Map<String, Object>> response = get("/quote?ticker=SHED");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        // rounded up to whole seconds
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(response.getBody()).containsEntry("error", "finnhub: rate limit reached on all API keys");
+    }
+
+    private ResponseEntity<Map<String, Object>> get(String path) {
+        return restTemplate.exchange(
+                "http://localhost:" + port + "/api/stock" + path,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+    }
+}
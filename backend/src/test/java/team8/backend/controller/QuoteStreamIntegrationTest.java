@@ -0,0 +1,124 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+
+import team8.backend.BackendApplication;
+import team8.backend.service.QuoteCacheService;
+import team8.backend.service.QuoteUpdatedEvent;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Quote streaming over server-sent events.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:streamdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key",
+        // ticks are published by the tests, the poller would only reach the dummy upstream
+        "quote.stream.poll-ms=600000"
+    }
+)
+public class QuoteStreamIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QuoteCacheService quoteCacheService;
+
+    @Test
+    public void testStreamSendsCachedThenLiveQuotes() throws Exception {
+        quoteCacheService.put("STRM", Map.of("c", 50.0));
+
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        CompletableFuture<HttpResponse<Stream<String>>> stream = open("STRM,QUIET", events);
+        try {
+            String first = events.poll(5, TimeUnit.SECONDS);
+            assertThat(first).contains("\"STRM\"").contains("50.0");
+
+            eventPublisher.publishEvent(new QuoteUpdatedEvent("STRM", 51.5, System.currentTimeMillis()));
+            String second = events.poll(5, TimeUnit.SECONDS);
+            assertThat(second).contains("\"STRM\"").contains("51.5").doesNotContain("QUIET");
+
+            ResponseEntity<Map<String, Object>> stats = restTemplate.exchange(
+                    "http://localhost:" + port + "/api/stock/stream/stats",
+                    HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+            assertThat(((Number) stats.getBody().get("subscribers")).intValue()).isGreaterThanOrEqualTo(1);
+            assertThat(((Number) stats.getBody().get("delivered")).longValue()).isGreaterThanOrEqualTo(2);
+        } finally {
+            // closing the body cancels the subscription, which ends the stream on the server
+            stream.thenAccept(response -> response.body().close());
+        }
+    }
+
+    @Test
+    public void testStreamRejectsTooManyTickers() {
+        String tickers = String.join(",", Collections.nCopies(101, "AAPL"));
+        ResponseEntity<String> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/stock/stream?tickers=" + tickers,
+                HttpMethod.GET,
+                new HttpEntity<>(acceptEventStream()),
+                String.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // collects the data lines of the stream on the client's own thread
+    private CompletableFuture<HttpResponse<Stream<String>>> open(String tickers, BlockingQueue<String> events) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/stock/stream?tickers=" + tickers))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        response.thenAcceptAsync(r -> r.body()
+                .filter(line -> line.startsWith("data:"))
+                .forEach(events::add));
+        return response;
+    }
+
+    private static HttpHeaders acceptEventStream() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        return headers;
+    }
+}
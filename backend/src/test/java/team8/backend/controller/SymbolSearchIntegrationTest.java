@@ -0,0 +1,102 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import team8.backend.BackendApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search bar and symbol resolution answered from the local symbol snapshot.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:symboldb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key"
+    }
+)
+public class SymbolSearchIntegrationTest {
+
+    // a fresh snapshot, so the scheduled refresh never needs the dummy upstream
+    @DynamicPropertySource
+    static void symbolSnapshot(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("symbols");
+        Files.write(directory.resolve("US.tsv"), List.of(
+                "AAPL\tAAPL\tAPPLE INC\tCommon Stock",
+                "AAPLW\tAAPLW\tAPPLE WARRANT\tWarrant",
+                "APLE\tAPLE\tAPPLE HOSPITALITY REIT INC\tREIT",
+                "GOOGL\tGOOGL\tALPHABET INC-CL A\tCommon Stock",
+                "BRK.B\tBRK.B\tBERKSHIRE HATHAWAY INC-CL B\tCommon Stock"
+        ));
+        registry.add("symbols.dir", directory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    public void testSearchBarRanksLocalMatches() {
+        Map<String, Object> body = get("/searchbar?query=apple");
+
+        assertThat(body).containsEntry("count", 3);
+        List<Map<String, Object>> result = (List<Map<String, Object>>) body.get("result");
+        // company names first match by prefix; common stock ranks ahead of other listings
+        assertThat(result).extracting(row -> row.get("symbol")).containsExactly("AAPL", "APLE", "AAPLW");
+        assertThat(result.get(0)).containsEntry("description", "APPLE INC").containsEntry("type", "Common Stock");
+    }
+
+    @Test
+    public void testSearchBarMatchesNameWords() {
+        Map<String, Object> body = get("/searchbar?query=hathaway");
+
+        List<Map<String, Object>> result = (List<Map<String, Object>>) body.get("result");
+        assertThat(result).extracting(row -> row.get("symbol")).containsExactly("BRK.B");
+    }
+
+    @Test
+    public void testSearchResolvesExactSymbolLocally() {
+        Map<String, Object> body = get("/search?query=googl");
+
+        assertThat(body).containsEntry("symbol", "GOOGL").containsEntry("description", "ALPHABET INC-CL A");
+    }
+
+    private Map<String, Object> get(String path) {
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/stock" + path,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+}
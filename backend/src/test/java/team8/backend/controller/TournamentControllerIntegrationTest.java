@@ -17,8 +17,17 @@ import team8.backend.repository.AccountRepository;
 import team8.backend.repository.TournamentRepository;
 import team8.backend.repository.UserRepository;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,7 +42,8 @@ import static org.assertj.core.api.Assertions.assertThat;
                 "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
                 "spring.jpa.hibernate.ddl-auto=create",
                 "FINNHUB_API_KEY=dummy",
-                "MASSIVE_API_KEY=dummy"
+                "MASSIVE_API_KEY=dummy",
+                "leaderboard.push.interval-ms=100"
         }
 )
 public class TournamentControllerIntegrationTest {
@@ -226,6 +236,90 @@ public class TournamentControllerIntegrationTest {
         );
     }
 
+    @Test
+    public void testGetLeaderboardRank() {
+        restTemplate.postForEntity(
+                baseUrl + "/" + testTournament.getId() + "/enter?userId=" + testUser.getId(),
+                null,
+                String.class
+        );
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl + "/" + testTournament.getId() + "/leaderboard/rank?userId=" + testUser.getId(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("rank", 1);
+        assertThat(response.getBody()).containsEntry("cash", 5000.0);
+    }
+
+    @Test
+    public void testLeaderboardStreamSendsSnapshotThenDeltas() throws Exception {
+        restTemplate.postForEntity(
+                baseUrl + "/" + testTournament.getId() + "/enter?userId=" + testUser.getId(),
+                null,
+                String.class
+        );
+
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/" + testTournament.getId() + "/leaderboard/stream"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        CompletableFuture<HttpResponse<Stream<String>>> stream = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        stream.thenAcceptAsync(r -> r.body().filter(line -> line.startsWith("data:")).forEach(events::add));
+        try {
+            String snapshot = events.poll(5, TimeUnit.SECONDS);
+            assertThat(snapshot).contains("Tournament User").doesNotContain("removed");
+
+            User second = new User();
+            second.setName("Second User");
+            second.setEmail("second" + UUID.randomUUID() + "@example.com");
+            second.setPassword("pass123");
+            userRepository.save(second);
+            restTemplate.postForEntity(
+                    baseUrl + "/" + testTournament.getId() + "/enter?userId=" + second.getId(),
+                    null,
+                    String.class
+            );
+
+            // only the new row and rows whose rank moved are sent
+            String delta = events.poll(5, TimeUnit.SECONDS);
+            assertThat(delta).contains("Second User").contains("\"removed\":[]");
+        } finally {
+            stream.thenAccept(response -> response.body().close());
+        }
+    }
+
+    @Test
+    public void testLeaderboardStream_TournamentNotFound() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/999999/leaderboard/stream",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void testGetLeaderboardRank_UserNotEntered() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                baseUrl + "/" + testTournament.getId() + "/leaderboard/rank?userId=" + testUser.getId(),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("User is not in this tournament");
+    }
+
 	@Test
 	public void testUpdateTournament() {
 		String url = baseUrl + "/" + testTournament.getId();
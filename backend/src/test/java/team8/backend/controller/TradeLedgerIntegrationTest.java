@@ -0,0 +1,295 @@
+package team8.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import team8.backend.BackendApplication;
+import team8.backend.entity.Account;
+import team8.backend.entity.TradeLedgerRejection;
+import team8.backend.entity.TradeLedgerWatermark;
+import team8.backend.entity.Transaction;
+import team8.backend.entity.User;
+import team8.backend.repository.AccountRepository;
+import team8.backend.repository.HoldingRepository;
+import team8.backend.repository.TradeLedgerRejectionRepository;
+import team8.backend.repository.TradeLedgerWatermarkRepository;
+import team8.backend.repository.TransactionRepository;
+import team8.backend.repository.UserRepository;
+import team8.backend.service.QuoteCacheService;
+import team8.backend.service.TradeLedgerService;
+import team8.backend.service.TradeLedgerWal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trades in ledger mode: acknowledged from the write-ahead log, written to the database behind.
+ */
+@SpringBootTest(
+    classes = BackendApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledgerdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "MYSQL_DATABASE=testdb",
+        "MYSQL_USER=testuser",
+        "MYSQL_ROOT_PASSWORD=rootpass",
+        "MYSQL_PASSWORD=testpass",
+        "FINNHUB_API_KEY=dummy_finnhub_key",
+        "MASSIVE_API_KEY=dummy_massive_key",
+        "trade.ledger.enabled=true",
+        "trade.ledger.segment-bytes=65536"
+    }
+)
+public class TradeLedgerIntegrationTest {
+
+    // a fresh log per run, so nothing from an earlier run is replayed into the new database
+    @DynamicPropertySource
+    static void ledgerDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("trade-ledger");
+        registry.add("trade.ledger.dir", directory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private TradeLedgerWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private TradeLedgerRejectionRepository rejectionRepository;
+
+    @Autowired
+    private QuoteCacheService quoteCacheService;
+
+    @Autowired
+    private TradeLedgerService tradeLedgerService;
+
+    private String baseUrl;
+
+    private User testUser;
+
+    private Account testAccount;
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/api/accounts";
+        transactionRepository.deleteAll();
+        holdingRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = new User();
+        testUser.setName("Ledger User");
+        testUser.setEmail("ledger" + UUID.randomUUID() + "@example.com");
+        testUser.setPassword("pass123");
+        userRepository.save(testUser);
+
+        testAccount = new Account();
+        testAccount.setUser(testUser);
+        testAccount.setCash(10000.0);
+        accountRepository.save(testAccount);
+
+        quoteCacheService.put("LDGR", Map.of("c", 100.0));
+    }
+
+    @Test
+    public void testTradeIsAcknowledgedThenWritten() throws InterruptedException {
+        ResponseEntity<Map<String, Object>> response = trade("buy", 10);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Number) response.getBody().get("cash")).doubleValue()).isEqualTo(9_000.0);
+
+        await(() -> transactionRepository.count() == 1);
+        assertThat(transactionRepository.findAll().get(0).getLedgerSeq()).isNotNull();
+        await(() -> accountRepository.findById(testAccount.getId()).get().getCash() == 9_000.0);
+        assertThat(holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "LDGR").getShares())
+                .isEqualTo(10.0);
+    }
+
+    @Test
+    public void testTradesValidateAgainstAcknowledgedState() throws InterruptedException {
+        assertThat(trade("buy", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // the buy may not be in the database yet, but the sell is checked against it
+        assertThat(trade("sell", 15).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(trade("sell", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        await(() -> transactionRepository.count() == 2);
+        await(() -> holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "LDGR") == null);
+        assertThat(accountRepository.findById(testAccount.getId()).get().getCash()).isEqualTo(10_000.0);
+    }
+
+    @Test
+    public void testLowerCaseTickerTradesTheSamePosition() throws InterruptedException {
+        assertThat(trade(testAccount, " ldgr ", "buy", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(trade("sell", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        await(() -> transactionRepository.count() == 2);
+        await(() -> holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "LDGR") == null);
+        assertThat(holdingRepository.count()).isZero();
+    }
+
+    @Test
+    public void testBasketWaitsForLedgerTrades() {
+        assertThat(trade("buy", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl + "/" + testAccount.getId() + "/basket",
+                HttpMethod.POST,
+                new HttpEntity<>(Map.of("legs", List.of(Map.of("action", "sell", "ticker", "LDGR", "shares", 10)))),
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Number) response.getBody().get("cash")).doubleValue()).isEqualTo(10_000.0);
+        assertThat(transactionRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRestartAfterDeletingAccountWithHighestSeq() throws InterruptedException {
+        Account other = new Account();
+        other.setUser(testUser);
+        other.setCash(10000.0);
+        accountRepository.save(other);
+
+        assertThat(trade("buy", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(trade(other, "buy", 5).getStatusCode()).isEqualTo(HttpStatus.OK);
+        await(() -> transactionRepository.count() == 2);
+        long highestSeq = transactionRepository.findAll().stream()
+                .filter(tx -> tx.getAccount().getId().equals(other.getId()))
+                .mapToLong(Transaction::getLedgerSeq).max().getAsLong();
+
+        // deleting the account also deletes the row holding the highest sequence number
+        ResponseEntity<Void> deleted = restTemplate.exchange(baseUrl + "/" + other.getId(), HttpMethod.DELETE, null, Void.class);
+        assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        // the log still holds both entries; neither may be written again
+        tradeLedgerService.shutdown();
+        tradeLedgerService.start();
+
+        assertThat(watermarkRepository.findById(TradeLedgerWatermark.ID).get().getAppliedThrough())
+                .isGreaterThanOrEqualTo(highestSeq);
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(trade("sell", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+        await(() -> transactionRepository.count() == 2);
+        assertThat(accountRepository.findById(testAccount.getId()).get().getCash()).isEqualTo(10_000.0);
+    }
+
+    @Test
+    public void testUnappliableTradeIsRecordedAndAccountReloaded() throws InterruptedException {
+        assertThat(trade("buy", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+        await(() -> holdingRepository.findByAccountIdAndStockTicker(testAccount.getId(), "LDGR") != null);
+
+        // the position changes behind the ledger, whose copy of the account still has the shares
+        holdingRepository.deleteAll();
+        assertThat(trade("sell", 10).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        await(() -> !rejectionRepository.findByAccountIdOrderByLedgerSeq(testAccount.getId()).isEmpty());
+        TradeLedgerRejection rejection = rejectionRepository.findByAccountIdOrderByLedgerSeq(testAccount.getId()).get(0);
+        assertThat(rejection.getAction()).isEqualTo("sell");
+        assertThat(rejection.getStockTicker()).isEqualTo("LDGR");
+        assertThat(rejection.getSharesMicros()).isEqualTo(10_000_000L);
+        assertThat(watermarkRepository.findById(TradeLedgerWatermark.ID).get().getAppliedThrough())
+                .isEqualTo(rejection.getLedgerSeq());
+        assertThat(transactionRepository.count()).isEqualTo(1);
+
+        // the next trade is validated against the database again
+        assertThat(trade("sell", 10).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(trade("buy", 1).getStatusCode()).isEqualTo(HttpStatus.OK);
+        await(() -> transactionRepository.count() == 2);
+    }
+
+    @Test
+    public void testWalRecoversAcrossSegments() throws IOException {
+        Path directory = Files.createTempDirectory("trade-ledger-wal");
+        // room for two records per segment
+        int segmentBytes = 140;
+        try (TradeLedgerWal wal = new TradeLedgerWal(directory, segmentBytes, true)) {
+            assertThat(wal.recover()).isEmpty();
+            for (long seq = 1; seq <= 5; seq++) {
+                wal.append(entry(seq));
+            }
+        }
+
+        try (TradeLedgerWal wal = new TradeLedgerWal(directory, segmentBytes, true)) {
+            List<TradeLedgerWal.Entry> recovered = wal.recover();
+            assertThat(recovered).extracting(TradeLedgerWal.Entry::seq).containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(recovered.get(2)).isEqualTo(entry(3));
+
+            wal.append(entry(6));
+            wal.releaseThrough(4);
+        }
+
+        try (TradeLedgerWal wal = new TradeLedgerWal(directory, segmentBytes, true)) {
+            assertThat(wal.recover()).extracting(TradeLedgerWal.Entry::seq).containsExactly(5L, 6L);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> trade(String action, double shares) {
+        return trade(testAccount, action, shares);
+    }
+
+    private ResponseEntity<Map<String, Object>> trade(Account account, String action, double shares) {
+        return trade(account, "LDGR", action, shares);
+    }
+
+    private ResponseEntity<Map<String, Object>> trade(Account account, String ticker, String action, double shares) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", action);
+        request.put("ticker", ticker);
+        request.put("shares", shares);
+        return restTemplate.exchange(
+                baseUrl + "/" + account.getId() + "/trade",
+                HttpMethod.POST,
+                new HttpEntity<>(request),
+                new ParameterizedTypeReference<>() {}
+        );
+    }
+
+    private static TradeLedgerWal.Entry entry(long seq) {
+        return new TradeLedgerWal.Entry(seq, 7L, seq % 2 == 1, "WAL" + seq, seq * 1_000_000L, 25_000_000L, -1L, 1_000L + seq);
+    }
+
+    // the writer runs on a background thread
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
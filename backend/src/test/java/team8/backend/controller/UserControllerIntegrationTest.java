@@ -207,6 +207,37 @@ public class UserControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);  // Should return 404 Not Found
     }
 
+    /**
+     * Test that login does not follow a cached id to a user that no longer exists.
+     * Verifies that after the user behind a cached email is deleted and the email is
+     * registered again, login finds the new user rather than failing.
+     */
+    @Test
+    public void testLoginAfterEmailReregistered() {
+        // Step 1: Register and log in once, which caches the email -> id mapping
+        User user = new User();
+        user.setName("First Owner");
+        user.setEmail("reused@example.com");
+        user.setPassword("first123");
+        Long firstId = restTemplate.postForEntity(baseUrl + "/signup", user, UserDTO.class).getBody().getId();
+        assertThat(login("reused@example.com", "first123").getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // Step 2: Delete that user and register the same email again
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+        User second = new User();
+        second.setName("Second Owner");
+        second.setEmail("reused@example.com");
+        second.setPassword("second123");
+        restTemplate.postForEntity(baseUrl + "/signup", second, UserDTO.class);
+
+        // Step 3: Login reaches the new user, not the stale cached id
+        ResponseEntity<UserDTO> response = login("reused@example.com", "second123");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getName()).isEqualTo("Second Owner");
+        assertThat(response.getBody().getId()).isNotEqualTo(firstId);
+    }
+
     /**
      * Test getting all users endpoint.
      * Verifies that GET /api/users/all returns all registered users.
@@ -254,4 +285,11 @@ public class UserControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);  // Should return 200 OK
         assertThat(response.getBody()).isEmpty();  // Should return empty array (not null)
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<UserDTO> login(String email, String password) {
+        User loginRequest = new User();
+        loginRequest.setEmail(email);
+        loginRequest.setPassword(password);
+        return restTemplate.postForEntity(baseUrl + "/login", loginRequest, UserDTO.class);
+    }
+}
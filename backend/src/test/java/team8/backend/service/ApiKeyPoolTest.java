@@ -0,0 +1,179 @@
+package team8.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Token buckets, 429 benching, key rotation and shedding of the key pool, on a clock the test moves.
+ */
+public class ApiKeyPoolTest {
+
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    public void testBurstIsSpentThenRefillsAtTheQuota() {
+        // 60 per minute is one token a second, with two saved up
+        ApiKeyPool pool = pool("key-aaaa", 60, 2, 0);
+
+        pool.acquire();
+        pool.acquire();
+        assertThatThrownBy(pool::acquire)
+                .isInstanceOfSatisfying(ApiKeyPool.KeyPoolExhaustedException.class,
+                        ex -> assertThat(ex.getRetryAfterMillis()).isEqualTo(1000));
+
+        clock.advanceMillis(999);
+        assertThatThrownBy(pool::acquire).isInstanceOf(ApiKeyPool.KeyPoolExhaustedException.class);
+        clock.advanceMillis(1);
+        pool.acquire();
+
+        // an idle key saves up no more than the burst
+        clock.advanceMillis(60_000);
+        pool.acquire();
+        pool.acquire();
+        assertThatThrownBy(pool::acquire).isInstanceOf(ApiKeyPool.KeyPoolExhaustedException.class);
+        assertThat(pool.stats()).containsEntry("shed", 3L);
+    }
+
+    @Test
+    public void testCallerWaitsForTheNextTokenWithinMaxWait() {
+        ApiKeyPool pool = pool("key-aaaa", 60, 1, 1500);
+
+        pool.acquire();
+        long before = clock.now;
+        pool.acquire();
+
+        assertThat(clock.now - before).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(pool.stats()).containsEntry("waits", 1L).containsEntry("shed", 0L);
+    }
+
+    @Test
+    public void testCallsRotateAcrossKeys() {
+        ApiKeyPool pool = pool("key-aaaa:key-bbbb:key-cccc", 60, 10, 0);
+
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            used.add(pool.acquire().key());
+        }
+
+        assertThat(used).containsExactly("key-aaaa", "key-bbbb", "key-cccc", "key-aaaa", "key-bbbb", "key-cccc");
+    }
+
+    @Test
+    public void testThrottledKeyIsBenchedForRetryAfter() {
+        ApiKeyPool pool = pool("key-aaaa:key-bbbb", 600, 100, 0);
+
+        ApiKeyPool.Lease lease = pool.acquire();
+        assertThat(lease.key()).isEqualTo("key-aaaa");
+        lease.throttled(30_000);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(pool.acquire().key()).isEqualTo("key-bbbb");
+        }
+        Map<String, Object> throttled = keyStats(pool).get(0);
+        assertThat(throttled).containsEntry("key", "****aaaa").containsEntry("throttled", 1L)
+                .containsEntry("backoffRemainingMs", 30_000L);
+
+        clock.advanceMillis(30_000);
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            used.add(pool.acquire().key());
+        }
+        assertThat(used).containsExactlyInAnyOrder("key-aaaa", "key-bbbb");
+    }
+
+    @Test
+    public void testBackoffWithoutRetryAfterDoublesUntilASuccess() {
+        ApiKeyPool pool = pool("key-aaaa", 600, 100, 0);
+
+        pool.acquire().throttled(-1);
+        assertThat(keyStats(pool).get(0)).containsEntry("backoffRemainingMs", 5_000L);
+
+        clock.advanceMillis(5_000);
+        ApiKeyPool.Lease lease = pool.acquire();
+        lease.throttled(-1);
+        assertThat(keyStats(pool).get(0)).containsEntry("backoffRemainingMs", 10_000L);
+
+        clock.advanceMillis(10_000);
+        pool.acquire().succeeded();
+        pool.acquire().throttled(-1);
+        assertThat(keyStats(pool).get(0)).containsEntry("backoffRemainingMs", 5_000L);
+
+        // capped at the maximum, whatever the provider asks for
+        clock.advanceMillis(5_000);
+        pool.acquire().throttled(3_600_000);
+        assertThat(keyStats(pool).get(0)).containsEntry("backoffRemainingMs", 60_000L);
+    }
+
+    @Test
+    public void testRequestIsShedWhenEveryKeyIsBenchedPastMaxWait() {
+        ApiKeyPool pool = pool("key-aaaa:key-bbbb", 600, 100, 2_000);
+
+        pool.acquire().throttled(2_500);
+        pool.acquire().throttled(4_000);
+
+        assertThatThrownBy(pool::acquire)
+                .isInstanceOfSatisfying(ApiKeyPool.KeyPoolExhaustedException.class, ex -> {
+                    assertThat(ex.getMessage()).isEqualTo("test: rate limit reached on all API keys");
+                    assertThat(ex.getRetryAfterMillis()).isEqualTo(2_500);
+                });
+        assertThat(pool.stats()).containsEntry("shed", 1L);
+    }
+
+    @Test
+    public void testPoolWithoutKeysRefusesEveryCall() {
+        ApiKeyPool pool = pool(" : ", 60, 10, 2_000);
+
+        assertThat(pool.size()).isZero();
+        assertThatThrownBy(pool::acquire)
+                .isInstanceOf(ApiKeyPool.KeyPoolExhaustedException.class)
+                .hasMessage("test: no API key configured");
+    }
+
+    @Test
+    public void testRetryAfterHeaderInSeconds() {
+        HttpHeaders seconds = new HttpHeaders();
+        seconds.set(HttpHeaders.RETRY_AFTER, "7");
+        HttpHeaders date = new HttpHeaders();
+        date.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2026 07:28:00 GMT");
+
+        assertThat(ApiKeyPool.retryAfterMillis(seconds)).isEqualTo(7_000);
+        assertThat(ApiKeyPool.retryAfterMillis(date)).isEqualTo(-1);
+        assertThat(ApiKeyPool.retryAfterMillis(new HttpHeaders())).isEqualTo(-1);
+    }
+
+    private ApiKeyPool pool(String keys, int requestsPerMinute, int burst, long maxWaitMillis) {
+        return new ApiKeyPool("test", keys, requestsPerMinute, burst, maxWaitMillis, 5_000, 60_000, clock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> keyStats(ApiKeyPool pool) {
+        return (List<Map<String, Object>>) pool.stats().get("keys");
+    }
+
+    // Sleeping moves the clock instead of the thread
+    private static final class FakeClock implements ApiKeyPool.Clock {
+        long now = 1_000_000_000_000L;
+
+        void advanceMillis(long millis) {
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void sleep(long nanos) {
+            now += nanos;
+        }
+    }
+}
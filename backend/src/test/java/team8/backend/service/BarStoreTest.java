@@ -0,0 +1,140 @@
+package team8.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tail-only refresh of unsettled bars and the memory-mapped bar file, against a scripted Massive client.
+ */
+public class BarStoreTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path directory;
+
+    private final MassiveClient massiveClient = mock(MassiveClient.class);
+    // request paths in call order, and the results rows to answer each with
+    private final List<String> paths = new ArrayList<>();
+    private final List<List<Map<String, Object>>> responses = new ArrayList<>();
+
+    private LocalDate today;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        today = LocalDate.now(ZoneOffset.UTC);
+        when(massiveClient.get(any(), any())).thenAnswer(invocation -> {
+            UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
+            ((Consumer<UriComponentsBuilder>) invocation.getArgument(0)).accept(builder);
+            paths.add(builder.build().getPath());
+            if (responses.isEmpty()) {
+                throw new IllegalStateException("upstream down");
+            }
+            return ResponseEntity.ok(Map.of("results", responses.remove(0)));
+        });
+    }
+
+    @Test
+    public void testOnlyTheTailIsRefetchedAndOpenBarsAreReplaced() {
+        BarStore store = new BarStore(massiveClient, directory.toString(), 0);
+        LocalDate from = today.minusDays(10);
+
+        List<Map<String, Object>> first = new ArrayList<>();
+        for (int day = 10; day >= 1; day--) {
+            first.add(bar(today.minusDays(day), 100 + day));
+        }
+        first.add(bar(today, 1.0));
+        responses.add(first);
+
+        List<Map<String, Object>> rows = store.bars("aapl", "day", from, today);
+        assertThat(rows).hasSize(11);
+        assertThat(rows.get(10)).containsEntry("c", 1.0);
+
+        // the same bars again plus a moved open bar: only the range after the settled bars is asked for
+        responses.add(List.of(bar(today.minusDays(2), 102), bar(today.minusDays(1), 101), bar(today, 2.0)));
+        rows = store.bars("AAPL", "day", from, today);
+
+        assertThat(paths).containsExactly(
+                "/v2/aggs/ticker/AAPL/range/1/day/" + from + "/" + today,
+                "/v2/aggs/ticker/AAPL/range/1/day/" + today.minusDays(2) + "/" + today);
+        assertThat(rows).hasSize(11);
+        assertThat(rows.get(0)).containsEntry("c", 110.0);
+        assertThat(rows.get(10)).containsEntry("c", 2.0);
+    }
+
+    @Test
+    public void testSettledBarsAreReadBackFromTheFileAfterARestart() {
+        LocalDate from = today.minusDays(5);
+        List<Map<String, Object>> settled = new ArrayList<>();
+        for (int day = 5; day >= 1; day--) {
+            settled.add(bar(today.minusDays(day), 50 + day));
+        }
+        List<Map<String, Object>> fetched = new ArrayList<>(settled);
+        fetched.add(bar(today, 7.0));
+        responses.add(fetched);
+
+        new BarStore(massiveClient, directory.toString(), 0).bars("MSFT", "day", from, today);
+        assertThat(Files.exists(directory.resolve("MSFT_day.bars"))).isTrue();
+
+        // a new store on the same directory with upstream down: settled bars come from the file,
+        // the open bar was never persisted
+        BarStore restarted = new BarStore(massiveClient, directory.toString(), 0);
+        List<Map<String, Object>> rows = restarted.bars("MSFT", "day", from, today);
+
+        assertThat(rows).isEqualTo(settled);
+        assertThat(paths).hasSize(2);
+        assertThat(paths.get(1)).startsWith("/v2/aggs/ticker/MSFT/range/1/day/" + today.minusDays(2));
+    }
+
+    @Test
+    public void testFetchedBarsAreServedWhenTheFileCannotBeWritten() throws Exception {
+        // a plain file where the store directory should be, so every write fails
+        Path blocked = Files.createFile(directory.resolve("blocked"));
+        LocalDate from = today.minusDays(3);
+        List<Map<String, Object>> fetched = new ArrayList<>();
+        for (int day = 3; day >= 1; day--) {
+            fetched.add(bar(today.minusDays(day), 20 + day));
+        }
+        responses.add(fetched);
+
+        List<Map<String, Object>> rows = new BarStore(massiveClient, blocked.toString(), 0)
+                .bars("IBM", "day", from, today);
+
+        assertThat(rows).isEqualTo(fetched);
+        assertThat(Files.isRegularFile(blocked)).isTrue();
+    }
+
+    // A Massive results row for the bar opening at the start of a UTC day
+    private static Map<String, Object> bar(LocalDate date, double close) {
+        long t = date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("t", t);
+        row.put("o", close - 1);
+        row.put("h", close + 2);
+        row.put("l", close - 2);
+        row.put("c", close);
+        row.put("v", 1000.0 + t / DAY % 100);
+        row.put("vw", close - 0.5);
+        row.put("n", 42L);
+        return row;
+    }
+}
@@ -0,0 +1,81 @@
+package team8.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Ordering and eviction of the news buffer when polls deliver items out of id order.
+ */
+public class NewsFeedServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final FinnhubClient finnhubClient = mock(FinnhubClient.class);
+    // the ids each successive poll answers with
+    private final List<List<Integer>> polls = new ArrayList<>();
+
+    private NewsFeedService news;
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(invocation -> ResponseEntity.ok(items(polls.remove(0))))
+                .when(finnhubClient).get(eq("/news"), any(), any());
+        news = new NewsFeedService(finnhubClient, List.of("general"), directory.toString(), 3);
+    }
+
+    @Test
+    public void testLowestIdIsEvictedWhenAnOlderItemArrivesLate() {
+        polls.add(List.of(13, 10, 12));
+        polls.add(List.of(11));
+        polls.add(List.of(14));
+
+        news.pollAll();
+        news.pollAll();
+        assertThat(ids(news.news("general", 0))).containsExactly(13, 12, 11);
+
+        // the late 11 is now the oldest item, so it goes first rather than 12
+        news.pollAll();
+        assertThat(ids(news.news("general", 0))).containsExactly(14, 13, 12);
+    }
+
+    @Test
+    public void testItemOlderThanAFullBufferIsDroppedAndNotPersisted() throws Exception {
+        polls.add(List.of(20, 21, 22));
+        polls.add(List.of(5, 23));
+
+        news.pollAll();
+        news.pollAll();
+
+        assertThat(ids(news.news("general", 0))).containsExactly(23, 22, 21);
+        List<String> lines = Files.readAllLines(directory.resolve("general.jsonl"));
+        assertThat(lines).hasSize(4).noneMatch(line -> line.contains("Item 5\""));
+        assertThat(lines.get(3)).contains("Item 23\"");
+    }
+
+    private static List<Map<String, Object>> items(List<Integer> ids) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int id : ids) {
+            items.add(Map.of("id", id, "headline", "Item " + id, "category", "general"));
+        }
+        return items;
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> items) {
+        return items.stream().map(item -> item.get("id")).toList();
+    }
+}
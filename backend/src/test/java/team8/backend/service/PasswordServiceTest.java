@@ -0,0 +1,47 @@
+package team8.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The bounded BCrypt pool: work beyond its queue is refused, and stages chained on its results run elsewhere.
+ */
+public class PasswordServiceTest {
+
+    private final PasswordService passwords = new PasswordService(1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        passwords.shutdown();
+    }
+
+    @Test
+    public void testChainedStagesDoNotRunOnTheBcryptPool() {
+        String hash = passwords.hash("secret").join();
+
+        String thread = passwords.verify("secret", hash)
+                .thenApply(matches -> Thread.currentThread().getName())
+                .join();
+
+        assertThat(thread).doesNotStartWith("bcrypt-");
+    }
+
+    @Test
+    public void testHashBeyondTheQueueIsRejected() {
+        List<CompletableFuture<String>> accepted = new ArrayList<>();
+        // one running and one queued; a BCrypt hash takes long enough that neither is done yet
+        accepted.add(passwords.hash("first"));
+        accepted.add(passwords.hash("second"));
+
+        assertThatThrownBy(() -> passwords.hash("third")).isInstanceOf(RejectedExecutionException.class);
+        accepted.forEach(CompletableFuture::join);
+    }
+}
@@ -0,0 +1,148 @@
+package team8.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TTL expiry, LRU eviction and single-flight loading of the quote cache, driven by a counting loader.
+ */
+public class QuoteCacheServiceTest {
+
+    private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    private QuoteCacheService cache;
+
+    @AfterEach
+    public void tearDown() {
+        if (cache != null) cache.shutdown();
+    }
+
+    @Test
+    public void testEntryIsServedUntilItsTtlExpires() throws InterruptedException {
+        cache = cache(60_000, 100, "FAST=50");
+
+        cache.get("SLOW", loader());
+        cache.get("FAST", loader());
+        cache.get("slow", loader());
+        cache.get("fast", loader());
+        assertThat(loads("SLOW")).isEqualTo(1);
+        assertThat(loads("FAST")).isEqualTo(1);
+
+        // only the per-symbol TTL has run out
+        Thread.sleep(100);
+        cache.get("SLOW", loader());
+        cache.get("FAST", loader());
+        assertThat(loads("SLOW")).isEqualTo(1);
+        assertThat(loads("FAST")).isEqualTo(2);
+        assertThat(cache.stats()).containsEntry("hits", 3L).containsEntry("misses", 3L);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        cache = cache(60_000, 2, "");
+
+        cache.get("AAA", loader());
+        cache.get("BBB", loader());
+        // touching AAA leaves BBB as the least recently used entry
+        cache.get("AAA", loader());
+        cache.get("CCC", loader());
+
+        assertThat(cache.peek("BBB")).isNull();
+        assertThat(cache.peek("AAA")).isNotNull();
+        assertThat(cache.stats()).containsEntry("evictions", 1L).containsEntry("size", 2);
+
+        cache.get("AAA", loader());
+        cache.get("BBB", loader());
+        assertThat(loads("AAA")).isEqualTo(1);
+        assertThat(loads("BBB")).isEqualTo(2);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        cache = cache(60_000, 100, "");
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Map<String, Object>> blocking = ticker -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader().apply(ticker);
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<QuoteCacheService.CachedQuote>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> cache.getEntry("SAME", blocking)));
+            }
+            // every caller but the loading one is waiting on the load in flight
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((Long) cache.stats().get("coalesced") < callers - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(cache.stats()).containsEntry("coalesced", (long) callers - 1).containsEntry("inFlight", 1);
+            release.countDown();
+
+            QuoteCacheService.CachedQuote first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<QuoteCacheService.CachedQuote> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads("SAME")).isEqualTo(1);
+        assertThat(cache.stats()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        cache = cache(60_000, 100, "");
+        Function<String, Map<String, Object>> failing = ticker -> {
+            loads.computeIfAbsent(ticker, k -> new AtomicInteger()).incrementAndGet();
+            throw new IllegalStateException("upstream down");
+        };
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.get("DOWN", failing);
+            } catch (IllegalStateException expected) {
+                // reported to the caller
+            }
+        }
+        assertThat(loads("DOWN")).isEqualTo(2);
+        assertThat(cache.peek("DOWN")).isNull();
+        assertThat(cache.stats()).containsEntry("loadFailures", 2L);
+    }
+
+    private QuoteCacheService cache(long ttlMillis, int maxEntries, String symbolTtls) {
+        return new QuoteCacheService(event -> {}, null, ttlMillis, maxEntries, symbolTtls, 4, 5000);
+    }
+
+    private Function<String, Map<String, Object>> loader() {
+        return ticker -> {
+            int n = loads.computeIfAbsent(ticker, k -> new AtomicInteger()).incrementAndGet();
+            return Map.of("c", 100.0 + n);
+        };
+    }
+
+    private int loads(String ticker) {
+        AtomicInteger count = loads.get(ticker);
+        return count != null ? count.get() : 0;
+    }
+}
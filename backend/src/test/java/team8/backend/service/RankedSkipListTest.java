@@ -0,0 +1,122 @@
+package team8.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ranks and range pages of the skip list checked against a sorted list, over randomized
+ * inserts, score updates and removals with many tied scores.
+ */
+public class RankedSkipListTest {
+
+    // score descending, then id ascending, the order the skip list keeps
+    private static final Comparator<RankedSkipList.Entry> ORDER =
+            Comparator.comparingDouble(RankedSkipList.Entry::score).reversed()
+                    .thenComparingLong(RankedSkipList.Entry::id);
+
+    @Test
+    public void testRankAndRangeMatchSortedOracle() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            RankedSkipList list = new RankedSkipList();
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (int step = 0; step < 3_000; step++) {
+                long id = random.nextInt(300);
+                Double current = scores.get(id);
+                int op = random.nextInt(10);
+                if (current == null) {
+                    double score = score(random);
+                    list.insert(id, score);
+                    scores.put(id, score);
+                } else if (op < 6) {
+                    // an update is a remove of the old score and an insert of the new one
+                    double score = score(random);
+                    assertThat(list.remove(id, current)).isTrue();
+                    list.insert(id, score);
+                    scores.put(id, score);
+                } else {
+                    assertThat(list.remove(id, current + 1_000)).isFalse();
+                    assertThat(list.remove(id, current)).isTrue();
+                    scores.remove(id);
+                }
+
+                List<RankedSkipList.Entry> oracle = oracle(scores);
+                assertThat(list.size()).isEqualTo(oracle.size());
+                if (step % 50 == 0) {
+                    assertRanks(list, oracle, scores);
+                }
+                int from = 1 + random.nextInt(oracle.size() + 2);
+                int limit = random.nextInt(40);
+                assertThat(list.range(from, limit)).isEqualTo(page(oracle, from, limit));
+            }
+
+            List<RankedSkipList.Entry> oracle = oracle(scores);
+            assertRanks(list, oracle, scores);
+            assertThat(list.range(1, oracle.size())).isEqualTo(oracle);
+        }
+    }
+
+    @Test
+    public void testRemovingEverythingLeavesAnEmptyList() {
+        Random random = new Random(42);
+        RankedSkipList list = new RankedSkipList();
+        Map<Long, Double> scores = new HashMap<>();
+        for (long id = 0; id < 500; id++) {
+            double score = score(random);
+            list.insert(id, score);
+            scores.put(id, score);
+        }
+
+        List<Long> ids = new ArrayList<>(scores.keySet());
+        Collections.shuffle(ids, random);
+        for (Long id : ids) {
+            assertThat(list.remove(id, scores.remove(id))).isTrue();
+        }
+
+        assertThat(list.size()).isZero();
+        assertThat(list.range(1, 10)).isEmpty();
+        assertThat(list.rank(0L, 0.0)).isZero();
+
+        list.insert(7L, 1.5);
+        assertThat(list.rank(7L, 1.5)).isEqualTo(1);
+        assertThat(list.range(1, 10)).containsExactly(new RankedSkipList.Entry(7L, 1.5));
+    }
+
+    private static void assertRanks(RankedSkipList list, List<RankedSkipList.Entry> oracle, Map<Long, Double> scores) {
+        for (int i = 0; i < oracle.size(); i++) {
+            RankedSkipList.Entry entry = oracle.get(i);
+            assertThat(list.rank(entry.id(), entry.score())).isEqualTo(i + 1);
+        }
+        // an id at a score it does not have, and an id not in the list, have no rank
+        scores.entrySet().stream().findFirst().ifPresent(present ->
+                assertThat(list.rank(present.getKey(), present.getValue() + 0.25)).isZero());
+        assertThat(list.rank(10_000L, 1.0)).isZero();
+    }
+
+    private static List<RankedSkipList.Entry> oracle(Map<Long, Double> scores) {
+        List<RankedSkipList.Entry> sorted = new ArrayList<>();
+        scores.forEach((id, score) -> sorted.add(new RankedSkipList.Entry(id, score)));
+        sorted.sort(ORDER);
+        return sorted;
+    }
+
+    private static List<RankedSkipList.Entry> page(List<RankedSkipList.Entry> oracle, int from, int limit) {
+        if (from > oracle.size() || limit <= 0) return List.of();
+        return oracle.subList(from - 1, Math.min(oracle.size(), from - 1 + limit));
+    }
+
+    // few distinct values, so many entries tie on score and are ordered by id
+    private static double score(Random random) {
+        return (random.nextInt(41) - 20) * 0.5;
+    }
+}
@@ -21,6 +21,11 @@ export function trade(accountId, tradeData) {
   return api.post(`/${accountId}/trade`, tradeData);
 }
 
+// legs: [{ action: "buy" | "sell", ticker, shares }], executed all-or-nothing
+export function basketTrade(accountId, legs) {
+  return api.post(`/${accountId}/basket`, { legs });
+}
+
 export function createAccount(userId, name) {
   return axios.post(
     `http://localhost:8080/api/users/${userId}/accounts?name=${encodeURIComponent(
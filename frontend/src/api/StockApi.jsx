@@ -24,6 +24,19 @@ export function getNews(category, minId) {
 export function getQuote(ticker) {
   return api.get('/quote', { params: { ticker: ticker } });}
 
+export function getQuotes(tickers) {
+  return api.get('/quotes', { params: { tickers: tickers.join(',') } });
+}
+
+// Live prices pushed by the server: onQuotes receives { TICKER: { c, t } } for the tickers
+// that changed. Returns a function that closes the stream.
+export function subscribeQuotes(tickers, onQuotes) {
+  const url = `${api.defaults.baseURL}/stream?tickers=${encodeURIComponent(tickers.join(','))}`;
+  const source = new EventSource(url);
+  source.addEventListener('quotes', (event) => onQuotes(JSON.parse(event.data)));
+  return () => source.close();
+}
+
 
 export function getMetrics(ticker) {
   return api.get('/metrics', { params: { ticker: ticker } });
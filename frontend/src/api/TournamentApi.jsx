@@ -25,6 +25,15 @@ export function getTournamentLeaderboard(tournamentId) {
   return api.get(`/${tournamentId}/leaderboard`);
 }
 
+// Live leaderboard: onSnapshot receives the top rows, onDelta receives { rows, removed } with
+// only the rows that changed. Returns a function that closes the stream.
+export function subscribeLeaderboard(tournamentId, onSnapshot, onDelta) {
+  const source = new EventSource(`${api.defaults.baseURL}/${tournamentId}/leaderboard/stream`);
+  source.addEventListener('snapshot', (event) => onSnapshot(JSON.parse(event.data).rows));
+  source.addEventListener('delta', (event) => onDelta(JSON.parse(event.data)));
+  return () => source.close();
+}
+
 export function getUserTournaments(userId) {
   return api.get(`/user/${userId}`);
 }
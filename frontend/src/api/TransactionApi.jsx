@@ -5,12 +5,15 @@ const transactionApi = axios.create({
   headers: { "Content-Type": "application/json" },
 });
 
-/** Read-only trade history from existing endpoint. */
+/**
+ * One page of trade history, newest first. Pass the previous page's `cursor`
+ * ({ beforeTimestamp, beforeId }) to load the page after it.
+ */
 export function getAccountTransactions(
   accountId,
-  { page = 0, size = 20 } = {}
+  { size = 20, cursor = null } = {}
 ) {
-  return transactionApi.get("/transactions", {
-    params: { accountId, page, size },
+  return transactionApi.get("/transactions/page", {
+    params: { accountId, size, ...(cursor ?? {}) },
   });
 }
@@ -13,7 +13,7 @@ import { useAuth } from "../context/AuthContext";
 import { useAccount } from "../context/AccountContext";
 import { loadAccount } from "../api/AccountApi";
 import { Link } from "react-router-dom";
-import { getQuote } from "../api/StockApi";
+import { getQuote, subscribeQuotes } from "../api/StockApi";
 import NewsCard from "../components/NewsCard";
 import {
   ResponsiveContainer,
@@ -92,6 +92,24 @@ const Dashboard = () => {
     }
   }, [positions]);
 
+  // keep held positions priced from the shared quote stream instead of re-polling
+  useEffect(() => {
+    const tickers = positions ? Object.keys(positions) : [];
+    if (tickers.length === 0) return;
+
+    return subscribeQuotes(tickers, (updates) => {
+      setQuotes((prev) => {
+        const next = { ...prev };
+        for (const [ticker, update] of Object.entries(updates)) {
+          const quote = prev[ticker] || {};
+          const dp = quote.pc ? ((update.c - quote.pc) / quote.pc) * 100 : quote.dp;
+          next[ticker] = { ...quote, c: update.c, dp };
+        }
+        return next;
+      });
+    });
+  }, [positions]);
+
   useEffect(() => {
     if (!positions || !quotes) return;
 
@@ -110,6 +110,17 @@ const styles = {
     padding: "2rem 1rem",
     color: "#9aa6d4",
   },
+  loadMore: {
+    display: "block",
+    margin: "1.25rem auto 0",
+    padding: "0.6rem 1.4rem",
+    borderRadius: "999px",
+    border: "1px solid rgba(96,165,250,0.4)",
+    background: "rgba(96,165,250,0.1)",
+    color: "#93c5fd",
+    fontWeight: 600,
+    cursor: "pointer",
+  },
   tableWrapper: {
     overflowX: "auto",
     marginTop: "1rem",
@@ -275,26 +286,58 @@ export default function History() {
   const { selectedAccountId, accounts, selectedAccount } = useAccount();
 
   const [rows, setRows] = useState([]);
+  const [cursor, setCursor] = useState(null);
   const [loading, setLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
 
+  /**
+   * Keep the cursor for the next page, or clear it when this was the last page.
+   */
+  function nextCursor(data) {
+    return data.hasMore
+      ? { beforeTimestamp: data.nextBeforeTimestamp, beforeId: data.nextBeforeId }
+      : null;
+  }
+
   useEffect(() => {
     if (!selectedAccountId) return;
     setLoading(true);
     setError(null);
-    getAccountTransactions(selectedAccountId, { page: 0, size: 20 })
+    getAccountTransactions(selectedAccountId, { size: 20 })
       .then((res) => {
         const data = res.data;
-        setRows(Array.isArray(data) ? data : []);
+        setRows(Array.isArray(data?.transactions) ? data.transactions : []);
+        setCursor(nextCursor(data));
       })
       .catch((err) => {
         console.error("Transactions fetch failed", err);
         setError("Unable to load trade history.");
         setRows([]);
+        setCursor(null);
       })
       .finally(() => setLoading(false));
   }, [selectedAccountId]);
 
+  /**
+   * Append the next page of older trades.
+   */
+  function handleLoadMore() {
+    if (!cursor || loadingMore) return;
+    setLoadingMore(true);
+    getAccountTransactions(selectedAccountId, { size: 20, cursor })
+      .then((res) => {
+        const data = res.data;
+        setRows((prev) => [...prev, ...(data.transactions || [])]);
+        setCursor(nextCursor(data));
+      })
+      .catch((err) => {
+        console.error("Transactions fetch failed", err);
+        setError("Unable to load more trades.");
+      })
+      .finally(() => setLoadingMore(false));
+  }
+
   const hasAccounts = accounts.length > 0;
 
   return (
@@ -414,6 +457,16 @@ export default function History() {
                 })}
               </tbody>
             </table>
+            {cursor && (
+              <button
+                type="button"
+                style={styles.loadMore}
+                onClick={handleLoadMore}
+                disabled={loadingMore}
+              >
+                {loadingMore ? "Loading…" : "Load older trades"}
+              </button>
+            )}
           </div>
         )}
       </div>
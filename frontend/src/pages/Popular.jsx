@@ -1,6 +1,6 @@
 import React, { useEffect, useMemo, useState } from 'react';
 import NewsCard from '../components/NewsCard';
-import { getQuote } from '../api/StockApi';
+import { getQuotes } from '../api/StockApi';
 import { Link } from 'react-router-dom';
 
 const topicFilters = [
@@ -43,13 +43,13 @@ const Popular = () => {
     let mounted = true;
     const fetchQuotes = async () => {
       const results = {};
-      for (const item of watchlist) {
-        try {
-          const res = await getQuote(item.ticker);
-          results[item.ticker] = res.data;
-        } catch {
-          results[item.ticker] = null;
+      try {
+        const res = await getQuotes(watchlist.map((item) => item.ticker));
+        for (const item of watchlist) {
+          results[item.ticker] = res.data.quotes?.[item.ticker.toUpperCase()] ?? null;
         }
+      } catch {
+        for (const item of watchlist) results[item.ticker] = null;
       }
       if (mounted) setQuotes(results);
     };
@@ -434,11 +434,11 @@ const Stock = () => {
     setTradeConfirmModal(false);
 
     try {
+      // the backend prices the trade from its own quote cache
       const order = {
         action: mode,
         ticker: stockTicker,
         shares: shares,
-        price: quote.c,
       };
 
       const updatedAccount = await trade(selectedAccountId, order);
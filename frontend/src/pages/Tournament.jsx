@@ -6,7 +6,8 @@ import {
   createTournament, 
   enterTournament, 
   getTournamentLeaderboard,
-  getUserTournaments 
+  getUserTournaments,
+  subscribeLeaderboard
 } from '../api/TournamentApi'
 import { useAccount } from "../context/AccountContext";
 
@@ -38,9 +39,25 @@ const Tournament = () => {
   }, [auth])
 
   useEffect(() => {
-    if (selectedTournament) {
-      fetchLeaderboard(selectedTournament.id)
-    }
+    if (!selectedTournament) return
+    fetchLeaderboard(selectedTournament.id)
+
+    // rows keyed by account, replaced or dropped as deltas arrive
+    let rows = new Map()
+    const show = () => setLeaderboard(formatLeaderboard([...rows.values()].sort((a, b) => a.rank - b.rank)))
+    return subscribeLeaderboard(
+      selectedTournament.id,
+      (snapshot) => {
+        rows = new Map(snapshot.map((row) => [row.accountId, row]))
+        show()
+      },
+      (delta) => {
+        delta.rows.forEach((row) => rows.set(row.accountId, row))
+        delta.removed.forEach((accountId) => rows.delete(accountId))
+        show()
+      }
+    )
+  // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [selectedTournament])
 
   const fetchTournaments = async () => {
@@ -74,16 +91,17 @@ const Tournament = () => {
     }
   }
 
+  const formatLeaderboard = (entries) => entries.map((entry, index) => ({
+    rank: index + 1,
+    username: entry.accountName,
+    profit: `${formatUSD(entry.cash + entry.totalHoldingValue)}`,
+    flag: '🏆'
+  }))
+
   const fetchLeaderboard = async (tournamentId) => {
     try {
       const response = await getTournamentLeaderboard(tournamentId)
-      const formattedLeaderboard = response.data.map((entry, index) => ({
-        rank: index + 1,
-        username: entry.accountName,
-        profit: `${formatUSD(entry.cash + entry.totalHoldingValue)}`,
-        flag: '🏆'
-      }))
-      setLeaderboard(formattedLeaderboard)
+      setLeaderboard(formatLeaderboard(response.data))
     } catch (error) {
       console.error('Failed to fetch leaderboard:', error)
       setLeaderboard([])
@@ -237,17 +237,19 @@ const Trade = () => {
     }
 
     try {
-      const quoteRes = await getQuote(ticker);
-
-      const price = quoteRes.data.c;
+      // priced server-side from the backend's quote cache, no quote round-trip needed
       const order = {
         action: orderType.toLowerCase(),
         ticker: ticker,
         shares: Number(shares),
-        price: price,
       };
 
-      if (orderType === "buy" && price * shares > cash) {
+      // pre-check with the price shown in the ticket; the backend has the final say
+      if (
+        orderType === "buy" &&
+        selectedStock?.price &&
+        selectedStock.price * shares > cash
+      ) {
         setReviewButtonStatus("notEnoughBP");
         setTimeout(() => setReviewButtonStatus("idle"), 1200);
         return;
@@ -255,6 +257,7 @@ const Trade = () => {
 
       const res = await trade(selectedAccountId, order);
       console.log("Trade placed:", res.data, selectedAccountId);
+      const price = res.data.transaction?.price;
 
       toast.success(
         `${